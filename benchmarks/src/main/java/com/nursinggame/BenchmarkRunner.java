@@ -0,0 +1,35 @@
+package com.nursinggame;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs every suite with the GC profiler attached, so each result carries
+// its allocation rate (gc.alloc.rate.norm is bytes per operation) next to
+// its throughput, and writes them to jmh-result.json for comparison
+// between changes. Any standard JMH option on the command line overrides
+// these defaults, e.g. a benchmark name regex to run a single suite.
+public class BenchmarkRunner {
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    OptionsBuilder options = new OptionsBuilder();
+    options.parent(commandLine);
+    if (commandLine.getIncludes().isEmpty()) {
+      options.include("com\\.nursinggame\\..*Benchmark");
+    }
+    Options defaults = options
+        .addProfiler(GCProfiler.class)
+        .forks(commandLine.getForkCount().orElse(1))
+        .warmupIterations(commandLine.getWarmupIterations().orElse(3))
+        .measurementIterations(commandLine.getMeasurementIterations().orElse(5))
+        .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+        .result(commandLine.getResult().orElse("jmh-result.json"))
+        .build();
+    new Runner(defaults).run();
+  }
+}
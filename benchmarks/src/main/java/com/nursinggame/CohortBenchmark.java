@@ -0,0 +1,69 @@
+package com.nursinggame;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// "What if everyone picked this option": one outcome applied to a whole
+// cohort, or to every other nurse in it. The vector kernel needs the game
+// built with -Pvector.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CohortBenchmark {
+  @Param({"scalar", "vector"})
+  String kernel;
+
+  @Param("100000")
+  int cohortSize;
+
+  private CohortKernel cohortKernel;
+  private long[] rows;
+  private int[] half;
+  private long increases;
+  private long decreases;
+
+  @Setup
+  public void setUp() {
+    cohortKernel = kernel.equals("vector") ? CohortKernel.loadVector() : new ScalarCohortKernel();
+    if (cohortKernel == null) {
+      throw new IllegalStateException("Vector kernel not in this build; install the game with -Pvector");
+    }
+    SplittableRandom random = new SplittableRandom(42);
+    rows = new long[cohortSize];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = StatsTable.pack(random.nextInt(101), random.nextInt(101), random.nextInt(101),
+          random.nextInt(101), random.nextInt(101), random.nextInt(101));
+    }
+    half = new int[cohortSize / 2];
+    for (int i = 0; i < half.length; i++) {
+      half[i] = i * 2;
+    }
+    // The arithmetic is branch-free, so rows settling at 0 or 100 does not skew timings
+    ScenarioOutcome outcome = new ScenarioOutcome("Bench", 5, -5, 10, -10, 0);
+    increases = outcome.getStatIncreases();
+    decreases = outcome.getStatDecreases();
+  }
+
+  @Benchmark
+  public long[] wholeCohort() {
+    cohortKernel.apply(rows, increases, decreases);
+    return rows;
+  }
+
+  @Benchmark
+  public long[] indexedHalf() {
+    cohortKernel.apply(rows, half, half.length, increases, decreases);
+    return rows;
+  }
+}
@@ -0,0 +1,48 @@
+package com.nursinggame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// What the engine pays per event when GameMetrics and DecisionAnalytics
+// are switched on
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmark {
+  private GameMetrics metrics;
+  private DecisionAnalytics analytics;
+  private Scenario scenario;
+  private long nanos;
+
+  @Setup
+  public void setUp() {
+    metrics = new GameMetrics(ScenarioCatalog.shared());
+    scenario = ScenarioCatalog.shared().getDayScenarios(true).get(0);
+    analytics = DecisionAnalytics.shared();
+  }
+
+  @Benchmark
+  public void recordLatency() {
+    nanos += 37;
+    metrics.recordShift(nanos & 0xFFFFF);
+  }
+
+  @Benchmark
+  public void recordScenario() {
+    metrics.recordScenario(scenario, 1, (++nanos & 7) == 0);
+  }
+
+  // With the consumer thread draining in the background; on a loaded
+  // machine some of these are dropped, which costs less still
+  @Benchmark
+  public boolean publishDecision() {
+    return analytics.publish(Nurse.Specialization.MED_SURG, scenario, 1, nanos, ++nanos);
+  }
+}
@@ -0,0 +1,62 @@
+package com.nursinggame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Per-shift stat effects, the Financials pay calculations and a career-long
+// FinancialProjection
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NurseBenchmark {
+  @Param({"MED_SURG", "ICU", "ER"})
+  Nurse.Specialization specialization;
+
+  private Nurse nurse;
+  private Financials financials;
+  private boolean nightShift;
+  private FinancialProjection projection;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    nurse = SimulationEngine.createNurse("Bench", specialization, false, false);
+    financials = nurse.getFinancials();
+    nightShift = false;
+    projection = new FinancialProjection(nurse);
+  }
+
+  @Benchmark
+  public int applyShiftEffects() {
+    nightShift = !nightShift;
+    nurse.applyShiftEffects(nightShift);
+    return nurse.getStats().getStress();
+  }
+
+  @Benchmark
+  public double calculateShiftPay() {
+    return financials.calculateShiftPay();
+  }
+
+  @Benchmark
+  public double shiftPayroll() {
+    financials.processShiftPay();
+    financials.adjustSalaryForPartialShift();
+    financials.receiveSalary();
+    financials.receiveNightShiftPay(120);
+    return financials.getSavings();
+  }
+
+  @Benchmark
+  public long projectFortyYears() {
+    return projection.project(40).getSavingsCents(39);
+  }
+}
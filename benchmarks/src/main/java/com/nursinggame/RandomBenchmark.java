@@ -0,0 +1,41 @@
+package com.nursinggame;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// The engine's bounded draws (a mistake roll and a scenario pick) from a
+// plain generator and from GameRandom's buffered one
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RandomBenchmark {
+  @Param({"L64X128MixRandom", "SplittableRandom"})
+  String algorithm;
+
+  @Param({"false", "true"})
+  boolean buffered;
+
+  private RandomGenerator random;
+
+  @Setup
+  public void setUp() {
+    random = buffered
+        ? GameRandom.create(GameRandom.algorithmId(algorithm), 42)
+        : RandomGeneratorFactory.of(algorithm).create(42);
+  }
+
+  @Benchmark
+  public int mistakeRollAndPick() {
+    return random.nextInt(100) + random.nextInt(7);
+  }
+}
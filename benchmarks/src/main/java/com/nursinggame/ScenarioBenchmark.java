@@ -0,0 +1,94 @@
+package com.nursinggame;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Picking a shift's scenarios, choosing an option and playing it against a nurse
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScenarioBenchmark {
+  @Param({"false", "true"})
+  boolean nightShift;
+
+  private ScenarioDeck deck;
+  private WeightedScenarioDeck weightedDeck;
+  private SplittableRandom random;
+  private Scenario[] scenarios;
+  private Nurse nurse;
+  private int next;
+  private GreedyChoicePolicy greedy;
+  private ExpectedOutcomePolicy expected;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    ScenarioCatalog catalog = ScenarioCatalog.shared();
+    Scenario[] pool = catalog.getPool(false, nightShift, Nurse.Specialization.ER);
+    deck = new ScenarioDeck(pool);
+    random = new SplittableRandom(42);
+    scenarios = pool;
+    greedy = new GreedyChoicePolicy();
+    expected = new ExpectedOutcomePolicy(catalog);
+  }
+
+  // Stats drift to their bounds after enough outcomes, so start each
+  // iteration from a freshly adjusted nurse
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    nurse = SimulationEngine.createNurse("Bench", Nurse.Specialization.ER, false, nightShift);
+    weightedDeck = new WeightedScenarioDeck(ScenarioCatalog.shared(), false, nightShift, nurse);
+    next = 0;
+  }
+
+  @Benchmark
+  public void drawShiftScenarios(Blackhole blackhole) {
+    deck.reset();
+    blackhole.consume(deck.draw(random));
+    blackhole.consume(deck.draw(random));
+    blackhole.consume(deck.draw(random));
+    blackhole.consume(deck.draw(random));
+  }
+
+  @Benchmark
+  public void drawWeightedShiftScenarios(Blackhole blackhole) {
+    weightedDeck.reset();
+    blackhole.consume(weightedDeck.draw(random));
+    blackhole.consume(weightedDeck.draw(random));
+    blackhole.consume(weightedDeck.draw(random));
+    blackhole.consume(weightedDeck.draw(random));
+  }
+
+  @Benchmark
+  public Object selectOptionAndApply() {
+    Scenario scenario = scenarios[next];
+    next = next + 1 == scenarios.length ? 0 : next + 1;
+    return scenario.selectOption(random.nextInt(scenario.getOptions().size()), nurse);
+  }
+
+  // Walks the options' outcomes
+  @Benchmark
+  public int greedyChoice() {
+    Scenario scenario = scenarios[next];
+    next = next + 1 == scenarios.length ? 0 : next + 1;
+    return greedy.chooseOption(scenario, nurse);
+  }
+
+  // One read from the catalog's expected-outcome table
+  @Benchmark
+  public int expectedOutcomeChoice() {
+    Scenario scenario = scenarios[next];
+    next = next + 1 == scenarios.length ? 0 : next + 1;
+    return expected.chooseOption(scenario, nurse);
+  }
+}
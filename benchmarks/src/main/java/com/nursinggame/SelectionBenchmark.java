@@ -0,0 +1,66 @@
+package com.nursinggame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// A shift's weighted draws against generated catalogs of growing size;
+// the cost per shift should not grow with the pool
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SelectionBenchmark {
+  @Param({"4", "16", "1000", "50000"})
+  int scenarios;
+
+  private WeightedScenarioDeck deck;
+  private SplittableRandom random;
+
+  @Setup
+  public void setUp() {
+    random = new SplittableRandom(42);
+    List<ScenarioCatalogFile.Definition> definitions = new ArrayList<>();
+    for (int id = 1; id <= scenarios; id++) {
+      ScenarioCatalogFile.Definition definition = new ScenarioCatalogFile.Definition();
+      definition.id = id;
+      definition.placement = ScenarioCatalogFile.DAY;
+      definition.difficulty = 1 + id % 5;
+      definition.title = "Scenario " + id;
+      definition.description = "";
+      for (int option = 0; option < 2; option++) {
+        ScenarioCatalogFile.OptionDefinition outcome = new ScenarioCatalogFile.OptionDefinition();
+        outcome.text = "Option " + option;
+        outcome.outcome = "";
+        outcome.knowledgeChange = random.nextInt(5) - 2;
+        outcome.patientCareChange = random.nextInt(5) - 2;
+        outcome.efficiencyChange = random.nextInt(5) - 2;
+        outcome.stressChange = random.nextInt(5) - 2;
+        definition.options.add(outcome);
+      }
+      definitions.add(definition);
+    }
+    ScenarioCatalog catalog = new ScenarioCatalog(definitions);
+    Nurse nurse = SimulationEngine.createNurse("Bench", Nurse.Specialization.ER, false, false);
+    deck = new WeightedScenarioDeck(catalog, false, false, nurse);
+  }
+
+  @Benchmark
+  public void drawShift(Blackhole blackhole) {
+    deck.reset();
+    blackhole.consume(deck.draw(random));
+    blackhole.consume(deck.draw(random));
+    blackhole.consume(deck.draw(random));
+    blackhole.consume(deck.draw(random));
+  }
+}
@@ -0,0 +1,64 @@
+package com.nursinggame;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// The headless engine end to end: one shift at a time, and whole careers
+// as the Monte Carlo runner plays them
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimulationBenchmark {
+  @Param({"false", "true"})
+  boolean isNewGrad;
+
+  @Param("100")
+  int shiftsPerCareer;
+
+  private ScenarioCatalog catalog;
+  private SplittableRandom random;
+  private SimulationEngine engine;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    catalog = ScenarioCatalog.shared();
+    random = new SplittableRandom(42);
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    Nurse nurse = SimulationEngine.createNurse("Bench", Nurse.Specialization.MED_SURG, isNewGrad, false);
+    engine = new SimulationEngine(nurse, catalog, isNewGrad, GameLoop.ShiftType.DAY_FIRST,
+        new GreedyChoicePolicy(), random);
+  }
+
+  @Benchmark
+  public int shift() {
+    engine.runShift();
+    engine.finishShift();
+    return engine.getShift();
+  }
+
+  @Benchmark
+  public int career() {
+    SplittableRandom careerRandom = random.split();
+    Nurse.Specialization[] specializations = Nurse.Specialization.values();
+    Nurse.Specialization specialization = specializations[careerRandom.nextInt(specializations.length)];
+    boolean preferNightShift = careerRandom.nextBoolean();
+    Nurse nurse = SimulationEngine.createNurse("Bench", specialization, isNewGrad, preferNightShift);
+    GameLoop.ShiftType startShift = preferNightShift ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST;
+    SimulationEngine career = new SimulationEngine(nurse, catalog, isNewGrad, startShift,
+        new RandomChoicePolicy(careerRandom), careerRandom);
+    return career.runCareer(shiftsPerCareer);
+  }
+}
@@ -0,0 +1,85 @@
+package com.nursinggame;
+
+import java.util.random.RandomGenerator;
+
+// Samples index i with probability weights[i] / sum(weights) in constant
+// time, using Vose's alias method: every column holds its own index with
+// probability prob[i] and otherwise its alias, so a draw is one uniform
+// double split into a column and a coin. Building is linear.
+final class AliasTable {
+  private final double[] weights;
+  private final double[] prob;
+  private final int[] alias;
+
+  AliasTable(double[] weights) {
+    int n = weights.length;
+    this.weights = weights.clone();
+    this.prob = new double[n];
+    this.alias = new int[n];
+    double total = 0;
+    for (double weight : weights) {
+      if (!(weight >= 0) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Weights must be finite and non-negative, got " + weight);
+      }
+      total += weight;
+    }
+    if (n == 0 || total == 0) {
+      throw new IllegalArgumentException("Need at least one positive weight");
+    }
+
+    // Scaled so the average column is exactly 1, then split into columns
+    // below and at or above it
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      scaled[i] = weights[i] * n / total;
+      if (scaled[i] < 1) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+    // Each short column is topped up from a tall one, which may then
+    // become short itself
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      prob[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1;
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // Whatever is left is full up to rounding
+    while (largeCount > 0) {
+      int i = large[--largeCount];
+      prob[i] = 1;
+      alias[i] = i;
+    }
+    while (smallCount > 0) {
+      int i = small[--smallCount];
+      prob[i] = 1;
+      alias[i] = i;
+    }
+  }
+
+  int sample(RandomGenerator random) {
+    double u = random.nextDouble() * prob.length;
+    int column = (int) u;
+    return u - column < prob[column] ? column : alias[column];
+  }
+
+  double weight(int index) {
+    return weights[index];
+  }
+
+  int size() {
+    return prob.length;
+  }
+}
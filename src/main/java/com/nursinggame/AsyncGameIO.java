@@ -0,0 +1,76 @@
+package com.nursinggame;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Event-driven GameIO: whoever owns the connection pushes input lines in
+// with offerLine() and receives each batch of output through the sink. The
+// session thread only parks while it waits for an answer, so one I/O thread
+// can serve many sessions.
+public class AsyncGameIO implements GameIO {
+  public interface OutputSink {
+    void write(String batch);
+  }
+
+  // A player can type ahead a few answers; anything beyond that is abuse
+  private static final int MAX_QUEUED_LINES = 32;
+  private static final String END_OF_INPUT = new String("<end of input>");
+
+  private final OutputSink sink;
+  private final BlockingQueue<String> input;
+  private final StringBuilder pending;
+  private volatile boolean ended;
+
+  public AsyncGameIO(OutputSink sink) {
+    this.sink = sink;
+    this.input = new ArrayBlockingQueue<>(MAX_QUEUED_LINES + 1);
+    this.pending = new StringBuilder(1024);
+  }
+
+  // Returns false if the line was dropped because too many are queued
+  public boolean offerLine(String line) {
+    return !ended && input.size() < MAX_QUEUED_LINES && input.offer(line);
+  }
+
+  public void endInput() {
+    ended = true;
+    input.offer(END_OF_INPUT);
+  }
+
+  @Override
+  public void print(CharSequence text) {
+    pending.append(text);
+  }
+
+  @Override
+  public void println(CharSequence text) {
+    pending.append(text).append('\n');
+  }
+
+  @Override
+  public String readLine() {
+    flush();
+    String line;
+    try {
+      line = input.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      line = END_OF_INPUT;
+    }
+    if (line == END_OF_INPUT) {
+      // Leave the marker for any later read
+      input.offer(END_OF_INPUT);
+      throw new NoSuchElementException("No line found");
+    }
+    return line;
+  }
+
+  @Override
+  public void flush() {
+    if (pending.length() > 0) {
+      sink.write(pending.toString());
+      pending.setLength(0);
+    }
+  }
+}
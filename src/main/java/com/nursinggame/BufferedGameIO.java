@@ -0,0 +1,66 @@
+package com.nursinggame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+// Blocking GameIO over a pair of streams, such as the console or a socket
+public class BufferedGameIO implements GameIO {
+  private final BufferedReader in;
+  private final OutputStream out;
+  private final StringBuilder pending;
+
+  public BufferedGameIO(InputStream in, OutputStream out) {
+    this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 256);
+    this.out = out;
+    this.pending = new StringBuilder(1024);
+  }
+
+  public static BufferedGameIO console() {
+    return new BufferedGameIO(System.in, System.out);
+  }
+
+  @Override
+  public void print(CharSequence text) {
+    pending.append(text);
+  }
+
+  @Override
+  public void println(CharSequence text) {
+    pending.append(text).append('\n');
+  }
+
+  @Override
+  public String readLine() {
+    flush();
+    try {
+      String line = in.readLine();
+      if (line == null) {
+        throw new NoSuchElementException("No line found");
+      }
+      return line;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (pending.length() == 0) {
+      return;
+    }
+    try {
+      out.write(pending.toString().getBytes(StandardCharsets.UTF_8));
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      pending.setLength(0);
+    }
+  }
+}
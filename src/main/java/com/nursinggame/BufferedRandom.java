@@ -0,0 +1,61 @@
+package com.nursinggame;
+
+import java.util.random.RandomGenerator;
+
+// Pre-draws 32-bit values from another generator a block at a time, so the
+// engine's hot draws (scenario picks and mistake rolls) are an array read.
+// Bounded draws use Lemire's multiply-shift, which needs a division only
+// on the rare draw that has to be rejected. Not thread-safe: one per career.
+final class BufferedRandom implements RandomGenerator {
+  private static final int BLOCK = 256;
+
+  private final RandomGenerator source;
+  private final int[] block;
+  private int next;
+
+  BufferedRandom(RandomGenerator source) {
+    this.source = source;
+    this.block = new int[BLOCK];
+    this.next = BLOCK;
+  }
+
+  private void refill() {
+    for (int i = 0; i < BLOCK; i += 2) {
+      long bits = source.nextLong();
+      block[i] = (int) bits;
+      block[i + 1] = (int) (bits >>> 32);
+    }
+    next = 0;
+  }
+
+  @Override
+  public int nextInt() {
+    if (next == BLOCK) {
+      refill();
+    }
+    return block[next++];
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive");
+    }
+    long product = (nextInt() & 0xFFFFFFFFL) * bound;
+    long low = product & 0xFFFFFFFFL;
+    if (low < bound) {
+      // Reject the values that would make small results more likely
+      long threshold = (1L << 32) % bound;
+      while (low < threshold) {
+        product = (nextInt() & 0xFFFFFFFFL) * bound;
+        low = product & 0xFFFFFFFFL;
+      }
+    }
+    return (int) (product >>> 32);
+  }
+
+  @Override
+  public long nextLong() {
+    return (long) nextInt() << 32 | (nextInt() & 0xFFFFFFFFL);
+  }
+}
@@ -0,0 +1,107 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// One file holding many SaveGameCodec records back to back, memory-mapped
+// so a cohort of millions of careers is written and read with plain
+// buffer stores and loads. Record i sits at recordOffset(i).
+//
+// File layout: 16-byte header (magic, codec version, record size, count),
+// then the records.
+final class CareerArchive {
+  private static final int MAGIC = 0x4E475356; // "NGSV"
+  private static final int HEADER_BYTES = 16;
+  private static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_BYTES) / SaveGameCodec.RECORD_BYTES;
+
+  private CareerArchive() {
+  }
+
+  // Maps a new archive with room for count records, replacing any file at
+  // the path; fill it with SaveGameCodec.encode(engine, archive, recordOffset(i))
+  static MappedByteBuffer create(Path path, long count) throws IOException {
+    if (count > MAX_RECORDS) {
+      throw new IOException("An archive holds at most " + MAX_RECORDS + " careers");
+    }
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    MappedByteBuffer archive;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      archive = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + count * SaveGameCodec.RECORD_BYTES);
+    }
+    archive.putInt(0, MAGIC);
+    archive.putShort(4, SaveGameCodec.VERSION);
+    archive.putShort(6, (short) SaveGameCodec.RECORD_BYTES);
+    archive.putLong(8, count);
+    return archive;
+  }
+
+  static MappedByteBuffer open(Path path) throws IOException {
+    MappedByteBuffer archive;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException(path + " is not a career archive");
+      }
+      archive = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    if (archive.getInt(0) != MAGIC || archive.getShort(6) != SaveGameCodec.RECORD_BYTES
+        || HEADER_BYTES + archive.getLong(8) * SaveGameCodec.RECORD_BYTES > archive.capacity()) {
+      throw new IOException(path + " is not a career archive");
+    }
+    if (archive.getShort(4) != SaveGameCodec.VERSION) {
+      throw new IOException(path + " was saved with format version " + archive.getShort(4));
+    }
+    return archive;
+  }
+
+  static int recordOffset(long index) {
+    return HEADER_BYTES + (int) index * SaveGameCodec.RECORD_BYTES;
+  }
+
+  static int count(ByteBuffer archive) {
+    return (int) archive.getLong(8);
+  }
+
+  // Loads an archive written by --simulate and prints the per-cohort
+  // statistics of the careers in it
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.out.println("Usage: --archive <file>");
+      return;
+    }
+    long start = System.nanoTime();
+    MappedByteBuffer archive = open(Paths.get(args[0]));
+    int count = count(archive);
+
+    CareerStatistics[] results = new CareerStatistics[MonteCarloRunner.cohortCount()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = new CareerStatistics();
+    }
+    for (int i = 0; i < count; i++) {
+      int offset = recordOffset(i);
+      Nurse nurse = SaveGameCodec.decodeNurse(archive, offset);
+      int cohort = MonteCarloRunner.cohortIndex(nurse.getSpecialization(), SaveGameCodec.decodeNewGrad(archive, offset),
+          nurse.getFinancials().hasNightShiftDifferential());
+      results[cohort].record(nurse, SaveGameCodec.decodeShift(archive, offset) - 1);
+    }
+    double millis = (System.nanoTime() - start) / 1e6;
+
+    for (int cohort = 0; cohort < results.length; cohort++) {
+      if (results[cohort].getCareers() > 0) {
+        System.out.println("=== " + MonteCarloRunner.cohortName(cohort) + " ===");
+        System.out.println(results[cohort]);
+      }
+    }
+    System.out.printf("Loaded %d careers (%d bytes) in %.1f ms%n", count, archive.capacity(), millis);
+  }
+}
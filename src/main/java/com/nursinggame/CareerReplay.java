@@ -0,0 +1,234 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Re-runs a journaled career from its seed through the normal engine, with
+// no rendering. The player's answers come from the recording, and every
+// event the engine produces is checked against the recorded one, so a
+// replay either reproduces the career bit for bit or reports where it
+// first went a different way (e.g. after a scenario was rebalanced).
+//
+// Once the recording is used up, answers pass to the live policy, which is
+// how a resumed game carries on with the same RNG and scenario decks.
+final class CareerReplay implements ChoicePolicy, SessionRecorder {
+  private final SessionJournal recording;
+  private final SimulationEngine engine;
+  private final ChoicePolicy livePolicy;
+  private int cursor;
+  private boolean replaying;
+  private int divergedAt = -1;
+
+  // Thrown from a policy call to stop the engine where the recording stops
+  private static final class EndOfRecording extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    EndOfRecording() {
+      super(null, null, false, false);
+    }
+  }
+
+  // Thrown where the player originally left part way through a shift
+  private static final class ShiftAbandoned extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    ShiftAbandoned() {
+      super(null, null, false, false);
+    }
+  }
+
+  private static final class Diverged extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    Diverged() {
+      super(null, null, false, false);
+    }
+  }
+
+  CareerReplay(SessionJournal recording, ScenarioCatalog catalog, ChoicePolicy livePolicy) {
+    if (!recording.isReplayable()) {
+      throw new IllegalStateException(recording.getPath() + " was resumed from a snapshot and cannot be replayed");
+    }
+    this.recording = recording;
+    this.livePolicy = livePolicy;
+    boolean preferNightShift = recording.prefersNightShift();
+    Nurse nurse = SimulationEngine.createNurse(recording.getName(), recording.getSpecialization(),
+        recording.isNewGrad(), preferNightShift);
+    GameLoop.ShiftType startShift = preferNightShift ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST;
+    this.engine = new SimulationEngine(nurse, catalog, recording.isNewGrad(), startShift, this,
+        GameRandom.create(recording.getRandomAlgorithm(), recording.getSeed()));
+    engine.setWeightedSelection(recording.usesWeightedSelection());
+    engine.setRecorder(this);
+  }
+
+  // Plays recorded shifts until the engine reaches targetShift or the
+  // recording runs out; returns false if the replay diverged. Afterwards
+  // the engine may be part way through a shift (see isShiftInProgress).
+  boolean fastForward(int targetShift) {
+    replaying = true;
+    boolean finishPending = false;
+    try {
+      while (engine.getShift() < targetShift) {
+        try {
+          if (!finishPending) {
+            engine.runShift();
+          }
+          finishPending = false;
+          engine.finishShift();
+        } catch (ShiftAbandoned e) {
+          finishPending = true;
+        }
+      }
+    } catch (EndOfRecording e) {
+      // Stopped where the player stopped
+    } catch (Diverged e) {
+      return false;
+    } finally {
+      replaying = false;
+    }
+    return true;
+  }
+
+  boolean replayAll() {
+    return fastForward(Integer.MAX_VALUE);
+  }
+
+  SimulationEngine getEngine() {
+    return engine;
+  }
+
+  boolean isComplete() {
+    return cursor == recording.getEventCount();
+  }
+
+  // Index of the first event the replay did not reproduce, or -1
+  int getDivergedAt() {
+    return divergedAt;
+  }
+
+  // The recorded event the engine should produce next; throws where the
+  // recording ends or the player abandoned the shift
+  private byte expect() {
+    if (cursor >= recording.getEventCount()) {
+      throw new EndOfRecording();
+    }
+    byte type = recording.getEventType(cursor);
+    if (type == SessionJournal.SHIFT_ABANDONED) {
+      cursor++;
+      throw new ShiftAbandoned();
+    }
+    return type;
+  }
+
+  @Override
+  public void append(byte type, int shift, int scenarioId, int choice, boolean mistakeMade, int mistakeRoll) {
+    if (!replaying) {
+      return;
+    }
+    if (cursor >= recording.getEventCount()) {
+      throw new EndOfRecording();
+    }
+    if (!recording.eventMatches(cursor, type, shift, scenarioId, choice, mistakeMade, mistakeRoll)) {
+      divergedAt = cursor;
+      throw new Diverged();
+    }
+    cursor++;
+  }
+
+  @Override
+  public int chooseOption(Scenario scenario, Nurse nurse) {
+    if (!replaying) {
+      return livePolicy.chooseOption(scenario, nurse);
+    }
+    // A different scenario or type is caught when the engine reports the
+    // decision; an option the scenario no longer has is caught here
+    if (expect() != SessionJournal.DECISION) {
+      return 0;
+    }
+    int choice = recording.getEventChoice(cursor);
+    if (choice < 0 || choice >= scenario.getOptionCount()) {
+      divergedAt = cursor;
+      throw new Diverged();
+    }
+    return choice;
+  }
+
+  @Override
+  public boolean leaveEarly(Nurse nurse) {
+    if (!replaying) {
+      return livePolicy.leaveEarly(nurse);
+    }
+    return expect() == SessionJournal.EARLY_DEPARTURE;
+  }
+
+  @Override
+  public boolean workOvertime(Nurse nurse) {
+    if (!replaying) {
+      return livePolicy.workOvertime(nurse);
+    }
+    return expect() == SessionJournal.BREAK
+        && recording.getEventChoice(cursor) == SimulationEngine.OVERTIME_WORKED;
+  }
+
+  @Override
+  public boolean continueToNextShift(Nurse nurse) {
+    if (!replaying) {
+      return livePolicy.continueToNextShift(nurse);
+    }
+    return expect() == SessionJournal.SHIFT_ADVANCE;
+  }
+
+  // Replays every journal in a directory against the current scenario
+  // catalog, or against the scenarios file given as the second argument,
+  // and reports which careers still play out exactly as recorded
+  public static void main(String[] args) throws IOException {
+    Path directory = args.length > 0 ? Paths.get(args[0]) : SessionJournal.directory();
+    ScenarioCatalog catalog = args.length > 1
+        ? new ScenarioCatalog(ScenarioCatalogFile.parse(Files.readAllBytes(Paths.get(args[1]))))
+        : ScenarioCatalog.shared();
+
+    List<Path> journals = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.journal")) {
+      files.forEach(journals::add);
+    }
+
+    AtomicInteger reproduced = new AtomicInteger();
+    AtomicInteger diverged = new AtomicInteger();
+    AtomicInteger skipped = new AtomicInteger();
+    CareerStatistics statistics = new CareerStatistics();
+    long start = System.nanoTime();
+
+    journals.parallelStream().forEach(path -> {
+      try {
+        SessionJournal journal = SessionJournal.open(path);
+        CareerReplay replay = new CareerReplay(journal, catalog, new GreedyChoicePolicy());
+        if (replay.replayAll() && replay.isComplete()) {
+          reproduced.incrementAndGet();
+          synchronized (statistics) {
+            statistics.record(replay.getEngine().getNurse(), replay.getEngine().getShift() - 1);
+          }
+        } else {
+          diverged.incrementAndGet();
+          int event = replay.getDivergedAt();
+          System.out.println(path.getFileName() + ": diverges at event " + event + " (shift "
+              + (event >= 0 ? journal.getEventShift(event) : replay.getEngine().getShift()) + ")");
+        }
+      } catch (IOException | RuntimeException e) {
+        skipped.incrementAndGet();
+        System.out.println(path.getFileName() + ": skipped (" + e.getMessage() + ")");
+      }
+    });
+
+    System.out.printf("Replayed %d journals in %.1f ms: %d reproduced, %d diverged, %d skipped%n",
+        journals.size(), (System.nanoTime() - start) / 1e6, reproduced.get(), diverged.get(), skipped.get());
+    if (reproduced.get() > 0) {
+      System.out.println(statistics);
+    }
+  }
+}
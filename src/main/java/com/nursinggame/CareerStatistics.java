@@ -0,0 +1,170 @@
+package com.nursinggame;
+
+// Mergeable distribution of final stats and finances over many careers
+public class CareerStatistics {
+  static final String[] STAT_NAMES = { "Knowledge", "Patient Care", "Efficiency", "Energy", "Reputation", "Stress" };
+  private static final int STAT_COUNT = STAT_NAMES.length;
+  private static final int BUCKETS = 101;
+
+  private long careers;
+  private long shifts;
+  // One 0-100 histogram per stat, laid out back to back
+  private final long[] histograms;
+  private final Summary salary;
+  private final Summary savings;
+  private final Summary studentLoans;
+
+  public CareerStatistics() {
+    this.careers = 0;
+    this.shifts = 0;
+    this.histograms = new long[STAT_COUNT * BUCKETS];
+    this.salary = new Summary();
+    this.savings = new Summary();
+    this.studentLoans = new Summary();
+  }
+
+  public void record(Nurse nurse, int shiftsWorked) {
+    Stats stats = nurse.getStats();
+    careers++;
+    shifts += shiftsWorked;
+    histograms[bucket(0, stats.getKnowledge())]++;
+    histograms[bucket(1, stats.getPatientCare())]++;
+    histograms[bucket(2, stats.getEfficiency())]++;
+    histograms[bucket(3, stats.getEnergy())]++;
+    histograms[bucket(4, stats.getReputation())]++;
+    histograms[bucket(5, stats.getStress())]++;
+
+    Financials financials = nurse.getFinancials();
+    salary.add(financials.getSalaryCents());
+    savings.add(financials.getSavingsCents());
+    studentLoans.add(financials.getStudentLoansCents());
+  }
+
+  private static int bucket(int stat, int value) {
+    return stat * BUCKETS + Math.max(0, Math.min(BUCKETS - 1, value));
+  }
+
+  public CareerStatistics merge(CareerStatistics other) {
+    careers += other.careers;
+    shifts += other.shifts;
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] += other.histograms[i];
+    }
+    salary.merge(other.salary);
+    savings.merge(other.savings);
+    studentLoans.merge(other.studentLoans);
+    return this;
+  }
+
+  public long getCareers() {
+    return careers;
+  }
+
+  public long getShifts() {
+    return shifts;
+  }
+
+  public double getMean(int stat) {
+    long total = 0;
+    for (int v = 0; v < BUCKETS; v++) {
+      total += v * histograms[stat * BUCKETS + v];
+    }
+    return careers == 0 ? 0 : (double) total / careers;
+  }
+
+  // Smallest value with at least the given fraction of careers at or below it
+  public int getPercentile(int stat, double fraction) {
+    long target = (long) Math.ceil(fraction * careers);
+    long seen = 0;
+    for (int v = 0; v < BUCKETS; v++) {
+      seen += histograms[stat * BUCKETS + v];
+      if (seen >= Math.max(1, target)) {
+        return v;
+      }
+    }
+    return BUCKETS - 1;
+  }
+
+  public Summary getSalary() {
+    return salary;
+  }
+
+  public Summary getSavings() {
+    return savings;
+  }
+
+  public Summary getStudentLoans() {
+    return studentLoans;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(careers).append(" careers, ").append(shifts).append(" shifts\n");
+    for (int i = 0; i < STAT_COUNT; i++) {
+      sb.append(String.format("  %-13s mean %5.1f  p10 %3d  p50 %3d  p90 %3d%n", STAT_NAMES[i],
+          getMean(i), getPercentile(i, 0.1), getPercentile(i, 0.5), getPercentile(i, 0.9)));
+    }
+    sb.append("  Salary        ").append(salary).append('\n');
+    sb.append("  Savings       ").append(savings).append('\n');
+    sb.append("  Student Loans ").append(studentLoans).append('\n');
+    return sb.toString();
+  }
+
+  // Amounts come in as cents and the total stays in cents, so it is exact
+  // and does not depend on the order careers were merged in
+  public static class Summary {
+    private long count;
+    private long sum;
+    private double sumOfSquares;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    void add(long cents) {
+      count++;
+      sum += cents;
+      double dollars = Financials.toDollars(cents);
+      sumOfSquares += dollars * dollars;
+      min = Math.min(min, cents);
+      max = Math.max(max, cents);
+    }
+
+    void merge(Summary other) {
+      count += other.count;
+      sum += other.sum;
+      sumOfSquares += other.sumOfSquares;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+    }
+
+    public long getTotalCents() {
+      return sum;
+    }
+
+    public double getMean() {
+      return count == 0 ? 0 : Financials.toDollars(sum) / count;
+    }
+
+    public double getStandardDeviation() {
+      if (count == 0) {
+        return 0;
+      }
+      double mean = getMean();
+      return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+    }
+
+    public double getMin() {
+      return count == 0 ? Double.POSITIVE_INFINITY : Financials.toDollars(min);
+    }
+
+    public double getMax() {
+      return count == 0 ? Double.NEGATIVE_INFINITY : Financials.toDollars(max);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("mean $%.2f  sd $%.2f  min $%.2f  max $%.2f",
+          getMean(), getStandardDeviation(), getMin(), getMax());
+    }
+  }
+}
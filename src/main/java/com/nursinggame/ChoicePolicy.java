@@ -0,0 +1,13 @@
+package com.nursinggame;
+
+// Decides every choice a player would otherwise type in at the console
+public interface ChoicePolicy {
+  // Zero-based index into scenario.getOptions()
+  int chooseOption(Scenario scenario, Nurse nurse);
+
+  boolean leaveEarly(Nurse nurse);
+
+  boolean workOvertime(Nurse nurse);
+
+  boolean continueToNextShift(Nurse nurse);
+}
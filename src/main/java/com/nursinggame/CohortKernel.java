@@ -0,0 +1,36 @@
+package com.nursinggame;
+
+// The loops behind StatsTable's bulk updates. The scalar kernel runs
+// everywhere; builds made with the "vector" Maven profile also contain
+// VectorCohortKernel, which runs the same lane arithmetic several rows at
+// a time with the incubating Vector API. It is used only when started with
+// -Dnursinggame.vector=true and --add-modules jdk.incubator.vector.
+interface CohortKernel {
+  String VECTOR_KERNEL = "com.nursinggame.VectorCohortKernel";
+
+  void apply(long[] rows, long increases, long decreases);
+
+  void apply(long[] rows, int[] indices, int count, long increases, long decreases);
+
+  static CohortKernel select() {
+    if (!Boolean.getBoolean("nursinggame.vector")) {
+      return new ScalarCohortKernel();
+    }
+    CohortKernel vector = loadVector();
+    if (vector == null) {
+      System.err.println("Vector kernel unavailable (build with -Pvector and run with "
+          + "--add-modules jdk.incubator.vector); using the scalar kernel");
+      return new ScalarCohortKernel();
+    }
+    return vector;
+  }
+
+  // Returns null when this build or runtime has no vector support
+  static CohortKernel loadVector() {
+    try {
+      return (CohortKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,267 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Live, rolling aggregates of the decisions players make, for class
+// dashboards. Sessions publish each decision into a DecisionRingBuffer and
+// move on (a full buffer drops the event rather than slowing anyone down);
+// one daemon thread drains it into per specialization, scenario and option
+// cells: how often the option was chosen, the summed change to each stat
+// from its outcome, and how often it led to a follow-up.
+//
+// The cells are kept per time bucket, and the oldest bucket is cleared as
+// a new one starts, so queries cover roughly the last BUCKETS buckets.
+// Only the consumer thread writes cells; queries read them as they are, so
+// a query never pauses a session (it may see a decision's count before
+// its stat changes, which a dashboard can live with).
+public final class DecisionAnalytics {
+  static final int DEFAULT_CAPACITY = 1 << 16;
+  static final long DEFAULT_BUCKET_MILLIS = 60_000;
+  static final int DEFAULT_BUCKETS = 10;
+
+  private static final Nurse.Specialization[] SPECIALIZATIONS = Nurse.Specialization.values();
+  private static final int COUNT = 0;
+  private static final int FOLLOW_UPS = 1;
+  private static final int STAT_CHANGES = 2;
+  private static final int FIELDS = STAT_CHANGES + StatsTable.STAT_COUNT;
+  // A published event's first word holds the scenario id in bits 0-31,
+  // the choice in 32-47, the specialization in 48-55 and whether there
+  // is a follow-up in bit 56
+  private static final int MAX_CHOICE = 0xFFFF;
+  // The consumer parks this long when it finds nothing, doubling up to
+  // the maximum while it stays idle
+  private static final long IDLE_PARK_NANOS = 1_000_000;
+  private static final long MAX_IDLE_PARK_NANOS = 100_000_000;
+
+  private static final class Holder {
+    static final DecisionAnalytics SHARED = new DecisionAnalytics(ScenarioCatalog.shared(), DEFAULT_CAPACITY,
+        DEFAULT_BUCKET_MILLIS, DEFAULT_BUCKETS).start();
+  }
+
+  private final ScenarioCatalog catalog;
+  private final int idLimit;
+  private final int maxOptions;
+  private final long bucketMillis;
+  private final int buckets;
+  private final int bucketCells;
+  private final DecisionRingBuffer ring;
+  private final AtomicLongArray cells;
+  private final DecisionRingBuffer.Consumer aggregator = this::aggregate;
+  // The bucket the consumer is filling, as a count of bucketMillis since
+  // the epoch
+  private long currentBucket;
+  private volatile boolean running;
+
+  public static DecisionAnalytics shared() {
+    return Holder.SHARED;
+  }
+
+  DecisionAnalytics(ScenarioCatalog catalog, int capacity, long bucketMillis, int buckets) {
+    this.catalog = catalog;
+    this.idLimit = catalog.getIdLimit();
+    int options = 1;
+    for (int id = 0; id < idLimit; id++) {
+      Scenario scenario = catalog.getScenario(id);
+      if (scenario != null) {
+        options = Math.max(options, scenario.getOptionCount());
+      }
+    }
+    this.maxOptions = options;
+    this.bucketMillis = bucketMillis;
+    this.buckets = buckets;
+    this.bucketCells = SPECIALIZATIONS.length * idLimit * maxOptions * FIELDS;
+    this.ring = new DecisionRingBuffer(capacity);
+    this.cells = new AtomicLongArray(buckets * bucketCells);
+    this.currentBucket = System.currentTimeMillis() / bucketMillis;
+  }
+
+  // Starts the consumer thread
+  DecisionAnalytics start() {
+    running = true;
+    Thread consumer = new Thread(this::consume, "decision-analytics");
+    consumer.setDaemon(true);
+    consumer.start();
+    return this;
+  }
+
+  void stop() {
+    running = false;
+  }
+
+  // Called by the engine after a choice's outcome is applied, with the
+  // nurse's packed stats from just before and just after it. Never blocks;
+  // false if the event was dropped.
+  boolean publish(Nurse.Specialization specialization, Scenario scenario, int choice, long statsBefore,
+      long statsAfter) {
+    int id = scenario.getId();
+    if (catalog.getScenario(id) != scenario || choice < 0 || choice >= maxOptions || choice > MAX_CHOICE) {
+      return false;
+    }
+    long meta = id | (long) choice << 32 | (long) specialization.ordinal() << 48
+        | (scenario.getFollowUp(choice) != null ? 1L << 56 : 0);
+    return ring.offer(meta, statsBefore, statsAfter);
+  }
+
+  private void consume() {
+    long park = IDLE_PARK_NANOS;
+    while (running) {
+      advanceTo(System.currentTimeMillis() / bucketMillis);
+      if (drain() == 0) {
+        LockSupport.parkNanos(park);
+        park = Math.min(park * 2, MAX_IDLE_PARK_NANOS);
+      } else {
+        park = IDLE_PARK_NANOS;
+      }
+    }
+  }
+
+  // Aggregates whatever has been published; only the consumer thread (or
+  // a caller that never started one) may drain
+  int drain() {
+    return ring.poll(aggregator);
+  }
+
+  // Clears every bucket that time has moved past, oldest first
+  void advanceTo(long bucket) {
+    long stale = Math.min(bucket - currentBucket, buckets);
+    for (long b = 1; b <= stale; b++) {
+      int offset = (int) Math.floorMod(currentBucket + b, (long) buckets) * bucketCells;
+      for (int i = 0; i < bucketCells; i++) {
+        cells.lazySet(offset + i, 0);
+      }
+    }
+    currentBucket = Math.max(currentBucket, bucket);
+  }
+
+  private void aggregate(long meta, long statsBefore, long statsAfter) {
+    int id = (int) meta;
+    int choice = (int) (meta >>> 32) & MAX_CHOICE;
+    int specialization = (int) (meta >>> 48) & 0xFF;
+    int cell = (int) Math.floorMod(currentBucket, (long) buckets) * bucketCells + cell(specialization, id, choice);
+    add(cell + COUNT, 1);
+    if ((meta >>> 56 & 1) != 0) {
+      add(cell + FOLLOW_UPS, 1);
+    }
+    for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+      int change = StatsTable.lane(statsAfter, stat) - StatsTable.lane(statsBefore, stat);
+      if (change != 0) {
+        add(cell + STAT_CHANGES + stat, change);
+      }
+    }
+  }
+
+  // Single writer, so a plain read-modify-write is safe
+  private void add(int index, long amount) {
+    cells.lazySet(index, cells.get(index) + amount);
+  }
+
+  private int cell(int specialization, int id, int option) {
+    return ((specialization * idLimit + id) * maxOptions + option) * FIELDS;
+  }
+
+  // Sum of one field over the window, for one specialization (or all of
+  // them when null)
+  private long sum(Nurse.Specialization specialization, int id, int option, int field) {
+    if (id < 0 || id >= idLimit || option < 0 || option >= maxOptions) {
+      return 0;
+    }
+    int first = specialization == null ? 0 : specialization.ordinal();
+    int last = specialization == null ? SPECIALIZATIONS.length - 1 : first;
+    long total = 0;
+    for (int bucket = 0; bucket < buckets; bucket++) {
+      for (int s = first; s <= last; s++) {
+        total += cells.get(bucket * bucketCells + cell(s, id, option) + field);
+      }
+    }
+    return total;
+  }
+
+  public long getChoiceCount(Nurse.Specialization specialization, int scenarioId, int option) {
+    return sum(specialization, scenarioId, option, COUNT);
+  }
+
+  public long getDecisionCount(Nurse.Specialization specialization, int scenarioId) {
+    long total = 0;
+    for (int option = 0; option < maxOptions; option++) {
+      total += getChoiceCount(specialization, scenarioId, option);
+    }
+    return total;
+  }
+
+  // Share of this scenario's decisions that picked the option
+  public double getChoiceShare(Nurse.Specialization specialization, int scenarioId, int option) {
+    long decisions = getDecisionCount(specialization, scenarioId);
+    return decisions == 0 ? 0 : (double) getChoiceCount(specialization, scenarioId, option) / decisions;
+  }
+
+  // Mean change to a StatsTable stat from the option's outcome
+  public double getMeanStatChange(Nurse.Specialization specialization, int scenarioId, int option, int stat) {
+    long count = getChoiceCount(specialization, scenarioId, option);
+    return count == 0 ? 0 : (double) sum(specialization, scenarioId, option, STAT_CHANGES + stat) / count;
+  }
+
+  // Share of this scenario's decisions that led to a follow-up
+  public double getFollowUpRate(Nurse.Specialization specialization, int scenarioId) {
+    long decisions = 0;
+    long followUps = 0;
+    for (int option = 0; option < maxOptions; option++) {
+      decisions += sum(specialization, scenarioId, option, COUNT);
+      followUps += sum(specialization, scenarioId, option, FOLLOW_UPS);
+    }
+    return decisions == 0 ? 0 : (double) followUps / decisions;
+  }
+
+  public long getPublished() {
+    return ring.getAccepted();
+  }
+
+  public long getDropped() {
+    return ring.getDropped();
+  }
+
+  // Plain-text dashboard: per specialization and scenario, each option's
+  // share and mean stat changes, and the follow-up rate
+  public void writeTo(Appendable out) throws IOException {
+    out.append(String.format("Last %d min: %d decisions published, %d dropped%n",
+        buckets * bucketMillis / 60_000, getPublished(), getDropped()));
+    for (Nurse.Specialization specialization : SPECIALIZATIONS) {
+      boolean header = false;
+      for (int id = 0; id < idLimit; id++) {
+        long decisions = getDecisionCount(specialization, id);
+        if (decisions == 0) {
+          continue;
+        }
+        if (!header) {
+          out.append(String.format("%n=== %s ===%n%-36s %8s %9s %6s %6s %6s %6s %6s %6s %6s%n",
+              specialization.getDisplayName(), "Scenario / option", "Chosen", "Follow-up", "Share",
+              "Know", "Care", "Eff", "Stress", "Rep", "Energy"));
+          header = true;
+        }
+        Scenario scenario = catalog.getScenario(id);
+        out.append(String.format("%-36.36s %8d %8.0f%%%n", scenario.getTitle(), decisions,
+            100 * getFollowUpRate(specialization, id)));
+        for (int option = 0; option < scenario.getOptionCount(); option++) {
+          out.append(String.format("  %-34.34s %8d %9s %5.0f%%", (option + 1) + ". " + scenario.getOption(option),
+              getChoiceCount(specialization, id, option), "", 100 * getChoiceShare(specialization, id, option)));
+          for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+            out.append(String.format(" %+6.1f", getMeanStatChange(specialization, id, option, stat)));
+          }
+          out.append(System.lineSeparator());
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    try {
+      writeTo(sb);
+    } catch (IOException e) {
+      // StringBuilder does not throw
+    }
+    return sb.toString();
+  }
+}
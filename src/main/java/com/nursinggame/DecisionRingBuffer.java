@@ -0,0 +1,100 @@
+package com.nursinggame;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded lock-free queue of decision events from many sessions to one
+// consumer (DecisionAnalytics). Each slot has a sequence number, as in
+// Vyukov's bounded MPMC queue: a producer claims the next position with
+// one CAS, writes the slot's words with plain stores and publishes them by
+// setting the sequence; the consumer reads a slot once its sequence says
+// it is published and hands it back the same way. When the consumer falls
+// a whole buffer behind, offer() drops the event instead of waiting, so
+// gameplay never blocks on analytics.
+//
+// An event is WORDS longs: the caller packs them and the consumer unpacks.
+final class DecisionRingBuffer {
+  static final int WORDS = 3;
+
+  private final int mask;
+  private final long[] slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  // Only the consumer moves the head
+  private long head;
+
+  DecisionRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.slots = new long[capacity * WORDS];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  // False if the buffer was full and the event was dropped
+  boolean offer(long word0, long word1, long word2) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) position & mask;
+      long sequence = sequences.get(index);
+      if (sequence == position) {
+        if (tail.compareAndSet(position, position + 1)) {
+          int slot = index * WORDS;
+          slots[slot] = word0;
+          slots[slot + 1] = word1;
+          slots[slot + 2] = word2;
+          sequences.lazySet(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (sequence < position) {
+        // The consumer has not freed this slot yet: the buffer is full
+        dropped.increment();
+        return false;
+      } else {
+        // Another producer took this position first
+        position = tail.get();
+      }
+    }
+  }
+
+  interface Consumer {
+    void accept(long word0, long word1, long word2);
+  }
+
+  // Hands every published event to the consumer, in order; returns how
+  // many there were. Only one thread may poll.
+  int poll(Consumer consumer) {
+    int count = 0;
+    while (true) {
+      int index = (int) head & mask;
+      if (sequences.get(index) != head + 1) {
+        return count;
+      }
+      int slot = index * WORDS;
+      consumer.accept(slots[slot], slots[slot + 1], slots[slot + 2]);
+      sequences.lazySet(index, head + mask + 1);
+      head++;
+      count++;
+    }
+  }
+
+  // Events offered and not dropped, whether or not polled yet
+  long getAccepted() {
+    return tail.get();
+  }
+
+  long getDropped() {
+    return dropped.sum();
+  }
+
+  int getCapacity() {
+    return mask + 1;
+  }
+}
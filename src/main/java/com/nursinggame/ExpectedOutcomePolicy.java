@@ -0,0 +1,25 @@
+package com.nursinggame;
+
+// Picks the option with the best expected outcome, follow-ups and mistake
+// odds included, from the catalog's precomputed table; otherwise plays
+// like GreedyChoicePolicy
+public class ExpectedOutcomePolicy extends GreedyChoicePolicy {
+  private final ExpectedOutcomeTable table;
+
+  public ExpectedOutcomePolicy() {
+    this(ScenarioCatalog.shared());
+  }
+
+  public ExpectedOutcomePolicy(ScenarioCatalog catalog) {
+    this.table = catalog.getExpectedOutcomes();
+  }
+
+  @Override
+  public int chooseOption(Scenario scenario, Nurse nurse) {
+    // Scenarios built in code or from another catalog are not in the table
+    if (!table.covers(scenario)) {
+      return super.chooseOption(scenario, nurse);
+    }
+    return table.getBestOption(scenario, nurse.getStats().getEfficiency());
+  }
+}
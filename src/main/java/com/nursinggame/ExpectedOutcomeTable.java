@@ -0,0 +1,133 @@
+package com.nursinggame;
+
+// Expected change to every stat and to savings from playing a scenario
+// with a given option, for each efficiency the nurse can have when it
+// starts. The expectation covers what processScenario does: the chance of
+// a mistake from the efficiency bands, the option's own outcome, and any
+// follow-up scenario, played at the efficiency the option leaves behind
+// and answered with its own best option. Efficiency is the only stat that
+// changes mistake odds and mistakes never change it, so the efficiency
+// along a follow-up chain is exact and the table needs no sampling.
+//
+// Changes are nominal, before clamping to 0..100. Built once per catalog
+// (see ScenarioCatalog.getExpectedOutcomes), so lookups are array reads.
+final class ExpectedOutcomeTable {
+  // Field indices: the StatsTable stat indices, then savings
+  static final int FINANCIAL = StatsTable.STAT_COUNT;
+  static final int FIELDS = StatsTable.STAT_COUNT + 1;
+
+  private static final int EFFICIENCY_LEVELS = StatsTable.MAX_STAT + 1;
+
+  private final int maxOptions;
+  // [id][option][efficiency][field]
+  private final float[] deltas;
+  // [id][option][efficiency], the value the options are ranked by
+  private final float[] scores;
+  // [id][efficiency]. Ints, because catalogs built in code are not held
+  // to the file format's limit on options.
+  private final int[] bestOptions;
+  // The scenarios built so far, by id
+  private final Scenario[] scenarios;
+
+  ExpectedOutcomeTable(ScenarioCatalog catalog) {
+    int idLimit = catalog.getIdLimit();
+    int options = 1;
+    for (int id = 0; id < idLimit; id++) {
+      Scenario scenario = catalog.getScenario(id);
+      if (scenario != null) {
+        options = Math.max(options, scenario.getOptionCount());
+      }
+    }
+    this.maxOptions = options;
+    this.deltas = new float[idLimit * maxOptions * EFFICIENCY_LEVELS * FIELDS];
+    this.scores = new float[idLimit * maxOptions * EFFICIENCY_LEVELS];
+    this.bestOptions = new int[idLimit * EFFICIENCY_LEVELS];
+    this.scenarios = new Scenario[idLimit];
+    for (int id = 0; id < idLimit; id++) {
+      Scenario scenario = catalog.getScenario(id);
+      if (scenario != null) {
+        build(scenario);
+      }
+    }
+  }
+
+  // Follow-ups are built first; the catalog already rejects cycles
+  private void build(Scenario scenario) {
+    int id = scenario.getId();
+    if (scenarios[id] != null) {
+      return;
+    }
+    int optionCount = scenario.getOptionCount();
+    for (int option = 0; option < optionCount; option++) {
+      Scenario followUp = scenario.getFollowUp(option);
+      if (followUp != null) {
+        build(followUp);
+      }
+    }
+
+    for (int efficiency = 0; efficiency < EFFICIENCY_LEVELS; efficiency++) {
+      float mistakeChance = SimulationEngine.mistakeChance(efficiency) / 100f;
+      int best = 0;
+      for (int option = 0; option < optionCount; option++) {
+        ScenarioOutcome outcome = scenario.previewOutcome(option);
+        int row = row(id, option, efficiency);
+        deltas[row + StatsTable.KNOWLEDGE] = outcome.getKnowledgeChange();
+        deltas[row + StatsTable.PATIENT_CARE] = outcome.getPatientCareChange()
+            - mistakeChance * SimulationEngine.MISTAKE_PATIENT_CARE;
+        deltas[row + StatsTable.EFFICIENCY] = outcome.getEfficiencyChange();
+        deltas[row + StatsTable.STRESS] = outcome.getStressChange()
+            + mistakeChance * SimulationEngine.MISTAKE_STRESS;
+        deltas[row + StatsTable.REPUTATION] = -mistakeChance * SimulationEngine.MISTAKE_REPUTATION;
+        deltas[row + FINANCIAL] = (float) outcome.getFinancialChange();
+
+        Scenario followUp = scenario.getFollowUp(option);
+        if (followUp != null) {
+          int nextEfficiency = Math.max(StatsTable.MIN_STAT,
+              Math.min(StatsTable.MAX_STAT, efficiency + outcome.getEfficiencyChange()));
+          int nextId = followUp.getId();
+          int next = row(nextId, bestOptions[nextId * EFFICIENCY_LEVELS + nextEfficiency], nextEfficiency);
+          for (int field = 0; field < FIELDS; field++) {
+            deltas[row + field] += deltas[next + field];
+          }
+        }
+
+        float score = score(row);
+        scores[(id * maxOptions + option) * EFFICIENCY_LEVELS + efficiency] = score;
+        if (score > scores[(id * maxOptions + best) * EFFICIENCY_LEVELS + efficiency]) {
+          best = option;
+        }
+      }
+      bestOptions[id * EFFICIENCY_LEVELS + efficiency] = best;
+    }
+    scenarios[id] = scenario;
+  }
+
+  // The same weighting as GreedyChoicePolicy.score
+  private float score(int row) {
+    return deltas[row + StatsTable.KNOWLEDGE] + deltas[row + StatsTable.PATIENT_CARE]
+        + deltas[row + StatsTable.EFFICIENCY] - deltas[row + StatsTable.STRESS];
+  }
+
+  private int row(int id, int option, int efficiency) {
+    return ((id * maxOptions + option) * EFFICIENCY_LEVELS + efficiency) * FIELDS;
+  }
+
+  // True when the table was built from the catalog this scenario belongs to
+  boolean covers(Scenario scenario) {
+    int id = scenario.getId();
+    return id >= 0 && id < scenarios.length && scenarios[id] == scenario;
+  }
+
+  // Expected change to one field (a StatsTable stat index or FINANCIAL)
+  float getExpectedChange(Scenario scenario, int option, int efficiency, int field) {
+    return deltas[row(scenario.getId(), option, efficiency) + field];
+  }
+
+  float getScore(Scenario scenario, int option, int efficiency) {
+    return scores[(scenario.getId() * maxOptions + option) * EFFICIENCY_LEVELS + efficiency];
+  }
+
+  int getBestOption(Scenario scenario, int efficiency) {
+    return bestOptions[scenario.getId() * EFFICIENCY_LEVELS + efficiency];
+  }
+}
@@ -0,0 +1,247 @@
+package com.nursinggame;
+
+// "What if" projection of a nurse's finances over a career: salary with
+// yearly raises, pay including night differentials, monthly expenses and
+// an amortized student loan. The loan gets a minimum payment plus a share
+// of what is left of the month's pay after expenses, so better paid
+// careers clear it sooner. The salary, and so the payment, only changes
+// between years, so a year's pay is a closed form and the loan balance
+// after k monthly payments P is B(1+r)^k - P((1+r)^k - 1)/r. A 40-year
+// timeline is 40 steps rather than 6,000 shifts, cheap enough to redraw a
+// chart on every change.
+//
+// Pay follows Financials: every shift pays salary / SHIFTS_PER_YEAR and a
+// night shift pays the specialization's night differential on top of that
+// (see Nurse.applyShiftEffects). Raises are added at the end of each year,
+// as increaseSalary does. Money is in cents; the loan rate is yearly.
+public final class FinancialProjection {
+  private static final int MONTHS_PER_YEAR = 12;
+  private static final int WEEKS_PER_YEAR = 52;
+  private static final int SHIFTS_PER_WEEK = Financials.SHIFTS_PER_YEAR / WEEKS_PER_YEAR;
+
+  static final long DEFAULT_ANNUAL_RAISE = 1_000_00;
+  static final double DEFAULT_LOAN_RATE = 0.055;
+  static final long DEFAULT_MONTHLY_LOAN_PAYMENT = 350_00;
+  static final double DEFAULT_LOAN_PAYMENT_SHARE = 0.25;
+  static final long DEFAULT_MONTHLY_EXPENSES = 3_000_00;
+
+  private final long startingSalary;
+  private final long startingSavings;
+  private final long startingLoans;
+  private final int nightDifferentialPercent;
+  private int nightShiftsPerWeek;
+  private long annualRaise;
+  private double loanRate;
+  private long monthlyLoanPayment;
+  private double loanPaymentShare;
+  private long monthlyExpenses;
+
+  // Starts from the nurse's current finances; night shift nurses work
+  // every shift at night until told otherwise
+  public FinancialProjection(Nurse nurse) {
+    Financials financials = nurse.getFinancials();
+    this.startingSalary = financials.getSalaryCents();
+    this.startingSavings = financials.getSavingsCents();
+    this.startingLoans = financials.getStudentLoansCents();
+    this.nightDifferentialPercent = Nurse.nightDifferentialPercent(nurse.getSpecialization());
+    this.nightShiftsPerWeek = financials.hasNightShiftDifferential() ? SHIFTS_PER_WEEK : 0;
+    this.annualRaise = DEFAULT_ANNUAL_RAISE;
+    this.loanRate = DEFAULT_LOAN_RATE;
+    this.monthlyLoanPayment = DEFAULT_MONTHLY_LOAN_PAYMENT;
+    this.loanPaymentShare = DEFAULT_LOAN_PAYMENT_SHARE;
+    this.monthlyExpenses = DEFAULT_MONTHLY_EXPENSES;
+  }
+
+  public void setNightShiftsPerWeek(int nightShiftsPerWeek) {
+    if (nightShiftsPerWeek < 0 || nightShiftsPerWeek > SHIFTS_PER_WEEK) {
+      throw new IllegalArgumentException("Night shifts per week must be 0 to " + SHIFTS_PER_WEEK);
+    }
+    this.nightShiftsPerWeek = nightShiftsPerWeek;
+  }
+
+  public void setAnnualRaise(double raise) {
+    this.annualRaise = Financials.toCents(raise);
+  }
+
+  public void setLoanRate(double yearlyRate) {
+    this.loanRate = yearlyRate;
+  }
+
+  public void setMonthlyLoanPayment(double payment) {
+    this.monthlyLoanPayment = Financials.toCents(payment);
+  }
+
+  // Share (0 to 1) of the month's pay left after expenses and the minimum
+  // payment that also goes to the loan
+  public void setLoanPaymentShare(double share) {
+    if (share < 0 || share > 1) {
+      throw new IllegalArgumentException("Loan payment share must be 0 to 1");
+    }
+    this.loanPaymentShare = share;
+  }
+
+  public void setMonthlyExpenses(double expenses) {
+    this.monthlyExpenses = Financials.toCents(expenses);
+  }
+
+  public Timeline project(int years) {
+    if (years < 1) {
+      throw new IllegalArgumentException("Years must be at least 1");
+    }
+    Timeline timeline = new Timeline(years);
+    int nightShifts = nightShiftsPerWeek * WEEKS_PER_YEAR;
+    int dayShifts = Financials.SHIFTS_PER_YEAR - nightShifts;
+    double monthlyRate = loanRate / MONTHS_PER_YEAR;
+    double yearGrowth = Math.pow(1 + monthlyRate, MONTHS_PER_YEAR);
+
+    long salary = startingSalary;
+    long savings = startingSavings;
+    long loans = startingLoans;
+    for (int year = 0; year < years; year++) {
+      long paycheck = Financials.shiftPaycheck(salary);
+      long pay = dayShifts * paycheck + nightShifts * Financials.nightPaycheck(paycheck, nightDifferentialPercent);
+
+      long loanPaid = 0;
+      long loansBefore = loans;
+      if (loans > 0) {
+        long spare = pay / MONTHS_PER_YEAR - monthlyExpenses - monthlyLoanPayment;
+        long payment = monthlyLoanPayment + Math.max(0, Math.round(spare * loanPaymentShare));
+        double left = balanceAfter(loans, payment, monthlyRate, yearGrowth, MONTHS_PER_YEAR);
+        if (left > 0) {
+          loanPaid = MONTHS_PER_YEAR * payment;
+          loans = Math.round(left);
+        } else {
+          // The last payment is whatever is left after the month's interest
+          int month = payoffMonth(loans, payment, monthlyRate);
+          double owed = balanceAfter(loans, payment, monthlyRate, Math.pow(1 + monthlyRate, month - 1), month - 1);
+          loanPaid = (month - 1) * payment + Math.round(owed * (1 + monthlyRate));
+          loans = 0;
+          timeline.debtFreeMonth = year * MONTHS_PER_YEAR + month;
+        }
+      }
+      savings += pay - MONTHS_PER_YEAR * monthlyExpenses - loanPaid;
+
+      timeline.salary[year] = salary;
+      timeline.pay[year] = pay;
+      timeline.loanPaid[year] = loanPaid;
+      timeline.interest[year] = loanPaid - (loansBefore - loans);
+      timeline.loans[year] = loans;
+      timeline.savings[year] = savings;
+      salary += annualRaise;
+    }
+    return timeline;
+  }
+
+  // Loan balance after `months` payments, given growth = (1 + rate)^months;
+  // zero or less once it has been paid off
+  private static double balanceAfter(long loans, long payment, double rate, double growth, int months) {
+    if (rate == 0) {
+      return loans - (double) months * payment;
+    }
+    return loans * growth - payment * (growth - 1) / rate;
+  }
+
+  // The month (1-12) of the payment that clears the loan, for a balance
+  // known to be cleared within the year
+  private static int payoffMonth(long loans, long payment, double rate) {
+    double months = rate == 0
+        ? (double) loans / payment
+        : Math.log(payment / (payment - rate * loans)) / Math.log(1 + rate);
+    // Allow for rounding when the last payment is exactly the balance
+    return Math.max(1, Math.min(MONTHS_PER_YEAR, (int) Math.ceil(months - 1e-9)));
+  }
+
+  // End-of-year figures, in cents, indexed by year from 0
+  public static final class Timeline {
+    private final long[] salary;
+    private final long[] pay;
+    private final long[] loanPaid;
+    private final long[] interest;
+    private final long[] loans;
+    private final long[] savings;
+    private int debtFreeMonth = -1;
+
+    private Timeline(int years) {
+      this.salary = new long[years];
+      this.pay = new long[years];
+      this.loanPaid = new long[years];
+      this.interest = new long[years];
+      this.loans = new long[years];
+      this.savings = new long[years];
+    }
+
+    public int getYears() {
+      return salary.length;
+    }
+
+    public long getSalaryCents(int year) {
+      return salary[year];
+    }
+
+    public long getPayCents(int year) {
+      return pay[year];
+    }
+
+    public long getLoanPaidCents(int year) {
+      return loanPaid[year];
+    }
+
+    public long getInterestCents(int year) {
+      return interest[year];
+    }
+
+    public long getStudentLoansCents(int year) {
+      return loans[year];
+    }
+
+    public long getSavingsCents(int year) {
+      return savings[year];
+    }
+
+    // Months from the start until the loan is paid off, or -1 if it is not
+    // paid off within the projection (or there was none to begin with)
+    public int getDebtFreeMonth() {
+      return debtFreeMonth;
+    }
+  }
+
+  private static String months(int months) {
+    return months < 0 ? "never" : String.format("%dy %2dm", months / MONTHS_PER_YEAR, months % MONTHS_PER_YEAR);
+  }
+
+  public static void main(String[] args) {
+    int years = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+    double payment = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_MONTHLY_LOAN_PAYMENT / 100.0;
+    double ratePercent = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_LOAN_RATE * 100;
+    double share = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_LOAN_PAYMENT_SHARE;
+    if (years < 1 || share < 0 || share > 1) {
+      System.out.println("Usage: --project [years >= 1] [monthly payment] [rate %] [share 0-1]");
+      return;
+    }
+
+    System.out.printf("%d years, loans at %.2f%%: $%.2f/month plus %.0f%% of what is left after $%.2f/month expenses%n",
+        years, ratePercent, payment, share * 100, DEFAULT_MONTHLY_EXPENSES / 100.0);
+    System.out.printf("%-18s %-11s %-6s %10s %14s %14s%n", "Specialization", "Experience", "Shift", "Debt-free",
+        "Interest paid", "Final savings");
+    for (Nurse.Specialization specialization : Nurse.Specialization.values()) {
+      for (boolean isNewGrad : new boolean[] {true, false}) {
+        for (boolean nightShift : new boolean[] {false, true}) {
+          Nurse nurse = SimulationEngine.createNurse("Projection", specialization, isNewGrad, nightShift);
+          FinancialProjection projection = new FinancialProjection(nurse);
+          projection.setMonthlyLoanPayment(payment);
+          projection.setLoanRate(ratePercent / 100);
+          projection.setLoanPaymentShare(share);
+          Timeline timeline = projection.project(years);
+          long interest = 0;
+          for (int year = 0; year < years; year++) {
+            interest += timeline.getInterestCents(year);
+          }
+          System.out.printf("%-18s %-11s %-6s %10s %14.2f %14.2f%n", specialization.getDisplayName(),
+              isNewGrad ? "New grad" : "Experienced", nightShift ? "Night" : "Day",
+              months(timeline.getDebtFreeMonth()), interest / 100.0,
+              Financials.toDollars(timeline.getSavingsCents(years - 1)));
+        }
+      }
+    }
+  }
+}
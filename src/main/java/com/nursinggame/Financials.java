@@ -1,49 +1,122 @@
 package com.nursinggame;
 
+// Money is kept in whole cents, so a career's ledger is exact however many
+// shifts it runs and however careers are added up. The per-shift amounts
+// are derived from the salary once, when it changes, instead of on every
+// paycheck. The double methods take and return dollars.
 public class Financials {
-  private double salary;
-  private double savings;
-  private double expenses;
-  private double studentLoans;
-  private double balance;
+  private long salary;
+  private long savings;
+  private long expenses;
+  private long studentLoans;
+  private long balance;
   private boolean isNightShift;
-  private static final double NIGHT_SHIFT_DIFFERENTIAL = 1.2;
+  private static final int NIGHT_SHIFT_DIFFERENTIAL_PERCENT = 120;
+  static final int SHIFTS_PER_YEAR = 52 * 3; // Assuming 3 shifts per week
+  private static final int NO_NIGHT_PAYCHECK = -1;
+
+  // Derived from salary (and the night differential) by refreshRates()
+  private long dailyPay; // salary / 365
+  private long shiftPay; // Daily pay, with the night differential if any
+  private long shiftPaycheck; // salary / SHIFTS_PER_YEAR
+  // The differential nightPaycheck was worked out for; NO_NIGHT_PAYCHECK
+  // until one has been since the salary last changed
+  private int nightPaycheckPercent;
+  private long nightPaycheck;
 
   public Financials(double startingSalary) {
-    this.salary = startingSalary;
-    this.savings = 1000.0;
-    this.expenses = 0.0;
-    this.studentLoans = 30000.0;
-    this.balance = 0.0;
+    this.salary = toCents(startingSalary);
+    this.savings = 1000_00;
+    this.expenses = 0;
+    this.studentLoans = 30000_00;
+    this.balance = 0;
     this.isNightShift = false;
+    refreshRates();
+  }
+
+  static long toCents(double dollars) {
+    return Math.round(dollars * 100);
+  }
+
+  static double toDollars(long cents) {
+    return cents / 100.0;
+  }
+
+  // Nearest cent, halves rounded up
+  private static long divide(long cents, long divisor) {
+    return Math.floorDiv(cents + divisor / 2, divisor);
+  }
+
+  // Per-shift paycheck for a yearly salary, both in cents
+  static long shiftPaycheck(long salary) {
+    return divide(salary, SHIFTS_PER_YEAR);
+  }
+
+  static long nightPaycheck(long shiftPaycheck, int differentialPercent) {
+    return divide(shiftPaycheck * differentialPercent, 100);
+  }
+
+  private void refreshRates() {
+    dailyPay = divide(salary, 365);
+    shiftPay = isNightShift ? divide(dailyPay * NIGHT_SHIFT_DIFFERENTIAL_PERCENT, 100) : dailyPay;
+    shiftPaycheck = shiftPaycheck(salary);
+    nightPaycheckPercent = NO_NIGHT_PAYCHECK;
+  }
+
+  private void setSalary(long salary) {
+    if (salary != this.salary) {
+      this.salary = salary;
+      refreshRates();
+    }
   }
 
   public double calculateShiftPay() {
-    double basePay = salary / 365.0; // Daily rate
-    return isNightShift ? basePay * NIGHT_SHIFT_DIFFERENTIAL : basePay;
+    return toDollars(shiftPay);
+  }
+
+  public long getShiftPayCents() {
+    return shiftPay;
   }
 
   public void adjustSalaryForPartialShift() {
-    // Calculate half of the regular shift pay
-    double partialShiftPay = calculateShiftPay() / 2.0;
-    balance += partialShiftPay;
+    // Half of the regular shift pay
+    balance += shiftPay / 2;
   }
 
   public void processShiftPay() {
-    balance += calculateShiftPay();
+    balance += shiftPay;
   }
 
   public void receiveSalary() {
-    double paycheck = salary / 52 / 3; // Salary per shift (assuming 3 shifts per week)
-    savings += paycheck;
+    savings += shiftPaycheck;
   }
 
+  // The differential as a multiplier, e.g. 1.15 for +15%. Paychecks are
+  // worked out in whole percentages, so a finer one such as 1.125 is
+  // rejected rather than rounded.
   public void receiveNightShiftPay(double differential) {
-    double paycheck = (salary / 52 / 3) * differential;
-    savings += paycheck;
+    double percent = differential * 100;
+    long wholePercent = Math.round(percent);
+    if (Math.abs(percent - wholePercent) > 1e-6 || wholePercent < 0 || wholePercent > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Night differential " + differential + " is not a whole percentage");
+    }
+    receiveNightShiftPay((int) wholePercent);
+  }
+
+  // The differential is a whole percentage, e.g. 115 for +15%
+  public void receiveNightShiftPay(int differentialPercent) {
+    if (differentialPercent != nightPaycheckPercent) {
+      nightPaycheck = nightPaycheck(shiftPaycheck, differentialPercent);
+      nightPaycheckPercent = differentialPercent;
+    }
+    savings += nightPaycheck;
   }
 
   public boolean makePayment(double amount) {
+    return makePaymentCents(toCents(amount));
+  }
+
+  public boolean makePaymentCents(long amount) {
     if (savings >= amount) {
       savings -= amount;
       return true;
@@ -52,51 +125,94 @@ public class Financials {
   }
 
   public void payStudentLoans(double amount) {
-    if (makePayment(amount)) {
-      studentLoans = Math.max(0, studentLoans - amount);
+    long cents = toCents(amount);
+    if (makePaymentCents(cents)) {
+      studentLoans = Math.max(0, studentLoans - cents);
     }
   }
 
   public void increaseSalary(double raise) {
-    salary += raise;
+    setSalary(salary + toCents(raise));
   }
 
   // Salary adjustments
   public void adjustBaseSalary(double multiplier) {
-    this.salary *= multiplier;
+    setSalary(Math.round(salary * multiplier));
   }
 
   public void setNightShiftDifferential(boolean isNightShift) {
-    this.isNightShift = isNightShift;
+    if (isNightShift != this.isNightShift) {
+      this.isNightShift = isNightShift;
+      refreshRates();
+    }
   }
 
   public void applyOvertimePay() {
-    // Apply 1.5x overtime rate for the shift
-    double regularShiftPay = calculateShiftPay();
-    double overtimePay = regularShiftPay * 1.5;
-    salary += (overtimePay - regularShiftPay); // Add the overtime differential
+    // Apply 1.5x overtime rate for the shift: the extra half a shift's pay
+    // goes onto the salary
+    setSalary(salary + shiftPay / 2);
   }
 
   // Getters
   public double getSalary() {
-    return salary;
+    return toDollars(salary);
   }
 
   public double getSavings() {
-    return savings;
+    return toDollars(savings);
   }
 
   public double getExpenses() {
-    return expenses;
+    return toDollars(expenses);
   }
 
   public double getStudentLoans() {
+    return toDollars(studentLoans);
+  }
+
+  public double getBalance() {
+    return toDollars(balance);
+  }
+
+  public long getSalaryCents() {
+    return salary;
+  }
+
+  public long getSavingsCents() {
+    return savings;
+  }
+
+  public long getExpensesCents() {
+    return expenses;
+  }
+
+  public long getStudentLoansCents() {
     return studentLoans;
   }
 
+  public long getBalanceCents() {
+    return balance;
+  }
+
+  public boolean hasNightShiftDifferential() {
+    return isNightShift;
+  }
+
+  // Puts back every field from a saved session, in cents
+  void restore(long salary, long savings, long expenses, long studentLoans, long balance,
+      boolean isNightShift) {
+    this.salary = salary;
+    this.savings = savings;
+    this.expenses = expenses;
+    this.studentLoans = studentLoans;
+    this.balance = balance;
+    this.isNightShift = isNightShift;
+    refreshRates();
+  }
+
   @Override
   public String toString() {
     return String.format("Salary: $%.2f/year, Savings: $%.2f, Student Loans: $%.2f",
-        salary, savings, studentLoans);
+        getSalary(), getSavings(), getStudentLoans());
   }
-}
\ No newline at end of file
+}
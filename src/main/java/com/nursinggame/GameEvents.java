@@ -0,0 +1,153 @@
+package com.nursinggame;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Flight Recorder events for the engine's shift, scenario and break
+// lifecycle, so a recording of live sessions lines GC pauses and latency
+// spikes up with the scenarios being played (JfrSummary reports on them).
+// The engine only creates one while its type is enabled: once any
+// recording has run in the JVM, the JIT no longer removes an event that
+// was created but not committed, and a server profiled once would
+// allocate on every shift from then on. Stack traces are off: the call
+// path is always the engine's.
+final class GameEvents {
+  private static final String CATEGORY = "Nursing Game";
+
+  static final EventType SHIFT = EventType.getEventType(ShiftEvent.class);
+  static final EventType SCENARIO = EventType.getEventType(ScenarioEvent.class);
+  static final EventType BREAK = EventType.getEventType(BreakEvent.class);
+  static final EventType EARLY_DEPARTURE = EventType.getEventType(EarlyDepartureEvent.class);
+
+  private GameEvents() {
+  }
+
+  @Name("com.nursinggame.Shift")
+  @Label("Shift")
+  @Description("One shift of a career, from its start to its last scenario or early departure")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  static final class ShiftEvent extends Event {
+    @Label("Shift Number")
+    int shift;
+
+    @Label("Shift Type")
+    String shiftType;
+
+    @Label("Specialization")
+    String specialization;
+
+    @Label("New Grad")
+    boolean newGrad;
+
+    @Label("Left Early")
+    boolean leftEarly;
+
+    @Label("Stress")
+    int stress;
+
+    @Label("Efficiency")
+    int efficiency;
+  }
+
+  @Name("com.nursinggame.Scenario")
+  @Label("Scenario")
+  @Description("A scenario from its mistake roll to its chosen option's outcome; follow-ups are their own events")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  static final class ScenarioEvent extends Event {
+    @Label("Scenario Id")
+    int scenarioId;
+
+    @Label("Scenario")
+    String title;
+
+    @Label("Specialization")
+    String specialization;
+
+    @Label("Shift Number")
+    int shift;
+
+    @Label("Option")
+    @Description("The chosen option, numbered from 1 as the player sees them")
+    int option;
+
+    @Label("Mistake")
+    boolean mistake;
+
+    @Label("Decision Time")
+    @Description("Time spent waiting for the policy (for a player, their answer)")
+    @Timespan(Timespan.NANOSECONDS)
+    long decisionTime;
+
+    @Label("Knowledge Change")
+    int knowledgeChange;
+
+    @Label("Patient Care Change")
+    int patientCareChange;
+
+    @Label("Efficiency Change")
+    int efficiencyChange;
+
+    @Label("Stress Change")
+    int stressChange;
+
+    @Label("Reputation Change")
+    int reputationChange;
+
+    @Label("Energy Change")
+    int energyChange;
+
+    @Label("Financial Change")
+    double financialChange;
+  }
+
+  @Name("com.nursinggame.Break")
+  @Label("Break")
+  @Description("The mandatory break after consecutive shifts, taken or worked as overtime")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  static final class BreakEvent extends Event {
+    @Label("Shift Number")
+    int shift;
+
+    @Label("Specialization")
+    String specialization;
+
+    @Label("Resolution")
+    String resolution;
+
+    @Label("Stress")
+    int stress;
+
+    @Label("Efficiency")
+    int efficiency;
+  }
+
+  @Name("com.nursinggame.EarlyDeparture")
+  @Label("Early Departure")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  static final class EarlyDepartureEvent extends Event {
+    @Label("Shift Number")
+    int shift;
+
+    @Label("Specialization")
+    String specialization;
+
+    @Label("Full Shift Pay")
+    double fullShiftPay;
+
+    @Label("Partial Shift Pay")
+    double partialShiftPay;
+
+    @Label("Stress")
+    int stress;
+  }
+}
@@ -0,0 +1,26 @@
+package com.nursinggame;
+
+import java.util.NoSuchElementException;
+
+// Where a game session's text goes and where its answers come from.
+// Implementations batch output and only push it out when flushed; reading
+// a line always flushes first, so each screen leaves as a single write.
+public interface GameIO {
+  void print(CharSequence text);
+
+  void println(CharSequence text);
+
+  default void println() {
+    println("");
+  }
+
+  default void printf(String format, Object... args) {
+    print(String.format(format, args));
+  }
+
+  // Blocks until the player answers; throws NoSuchElementException once
+  // input has ended
+  String readLine() throws NoSuchElementException;
+
+  void flush();
+}
@@ -0,0 +1,190 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and latency histograms for live play. Engines report here only
+// when given a GameMetrics (GameLoop gives every session the shared one;
+// headless runs give none and pay one null check). Everything is a
+// LongAdder, so sessions on many threads record without locks or shared
+// cache lines, and a report is added up only when someone asks for it.
+// Each event touches one adder: shift counts come from the shift latency
+// histogram and scenario starts from the option counts.
+//
+// Shift processing time leaves out the time spent waiting for decisions
+// (for a player, reading the prompt and answering it), which is reported
+// separately; session I/O is the journal saving at shift boundaries.
+public final class GameMetrics {
+  private static final class Holder {
+    static final GameMetrics SHARED = new GameMetrics(ScenarioCatalog.shared());
+  }
+
+  private final ScenarioCatalog catalog;
+  private final int maxOptions;
+
+  private final LatencyHistogram shiftNanos = new LatencyHistogram();
+  private final LatencyHistogram selectionNanos = new LatencyHistogram();
+  private final LatencyHistogram outcomeNanos = new LatencyHistogram();
+  private final LatencyHistogram decisionNanos = new LatencyHistogram();
+  private final LatencyHistogram sessionIoNanos = new LatencyHistogram();
+
+  private final LongAdder sessions = new LongAdder();
+  private final LongAdder earlyDepartures = new LongAdder();
+  private final LongAdder breaks = new LongAdder();
+  private final LongAdder overtime = new LongAdder();
+  // Per scenario id: mistakes made; per id and option: times chosen
+  private final LongAdder[] scenarioMistakes;
+  private final LongAdder[] optionChoices;
+
+  public static GameMetrics shared() {
+    return Holder.SHARED;
+  }
+
+  GameMetrics(ScenarioCatalog catalog) {
+    this.catalog = catalog;
+    int idLimit = catalog.getIdLimit();
+    int options = 1;
+    for (int id = 0; id < idLimit; id++) {
+      Scenario scenario = catalog.getScenario(id);
+      if (scenario != null) {
+        options = Math.max(options, scenario.getOptionCount());
+      }
+    }
+    this.maxOptions = options;
+    this.scenarioMistakes = newAdders(idLimit);
+    this.optionChoices = newAdders(idLimit * maxOptions);
+  }
+
+  private static LongAdder[] newAdders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  void recordSession() {
+    sessions.increment();
+  }
+
+  void recordShift(long nanos) {
+    shiftNanos.record(nanos);
+  }
+
+  void recordSelection(long nanos) {
+    selectionNanos.record(nanos);
+  }
+
+  void recordOutcome(long nanos) {
+    outcomeNanos.record(nanos);
+  }
+
+  void recordDecision(long nanos) {
+    decisionNanos.record(nanos);
+  }
+
+  void recordSessionIo(long nanos) {
+    sessionIoNanos.record(nanos);
+  }
+
+  void recordEarlyDeparture() {
+    earlyDepartures.increment();
+  }
+
+  void recordBreak(boolean overtimeWorked) {
+    (overtimeWorked ? overtime : breaks).increment();
+  }
+
+  // Scenarios from another catalog are not counted per scenario
+  void recordScenario(Scenario scenario, int choice, boolean mistakeMade) {
+    int id = scenario.getId();
+    if (catalog.getScenario(id) != scenario || choice < 0 || choice >= maxOptions) {
+      return;
+    }
+    optionChoices[id * maxOptions + choice].increment();
+    if (mistakeMade) {
+      scenarioMistakes[id].increment();
+    }
+  }
+
+  // Plain-text report, one "name{labels} value" line per figure
+  public void writeTo(Appendable out) throws IOException {
+    counter(out, "sessions_total", sessions);
+    counter(out, "early_departures_total", earlyDepartures);
+    counter(out, "breaks_total", breaks);
+    counter(out, "overtime_total", overtime);
+    histogram(out, "shift_processing", shiftNanos);
+    histogram(out, "scenario_selection", selectionNanos);
+    histogram(out, "outcome_application", outcomeNanos);
+    histogram(out, "decision_wait", decisionNanos);
+    histogram(out, "session_io", sessionIoNanos);
+
+    long[] chosen = new long[maxOptions];
+    for (int id = 0; id < scenarioMistakes.length; id++) {
+      long started = 0;
+      for (int option = 0; option < maxOptions; option++) {
+        chosen[option] = optionChoices[id * maxOptions + option].sum();
+        started += chosen[option];
+      }
+      if (started == 0) {
+        continue;
+      }
+      String label = "{scenario=\"" + id + "\"}";
+      out.append("nursinggame_scenario_started_total").append(label).append(' ')
+          .append(Long.toString(started)).append('\n');
+      long mistakes = scenarioMistakes[id].sum();
+      out.append("nursinggame_scenario_mistakes_total").append(label).append(' ')
+          .append(Long.toString(mistakes)).append('\n');
+      out.append("nursinggame_scenario_mistake_rate").append(label).append(' ')
+          .append(String.format(Locale.ROOT, "%.4f", (double) mistakes / started)).append('\n');
+      for (int option = 0; option < maxOptions; option++) {
+        if (chosen[option] != 0) {
+          out.append("nursinggame_scenario_option_chosen_total{scenario=\"").append(Integer.toString(id))
+              .append("\",option=\"").append(Integer.toString(option + 1)).append("\"} ")
+              .append(Long.toString(chosen[option])).append('\n');
+        }
+      }
+    }
+  }
+
+  public void writeTo(Path path) throws IOException {
+    try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      writeTo(out);
+    }
+  }
+
+  private static void counter(Appendable out, String name, LongAdder adder) throws IOException {
+    out.append("nursinggame_").append(name).append(' ').append(Long.toString(adder.sum())).append('\n');
+  }
+
+  private static void histogram(Appendable out, String name, LatencyHistogram histogram) throws IOException {
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    String prefix = "nursinggame_" + name + "_nanos";
+    out.append(prefix).append("_count ").append(Long.toString(snapshot.getCount())).append('\n');
+    out.append(prefix).append("_sum ").append(Long.toString(snapshot.getTotal())).append('\n');
+    if (snapshot.getCount() == 0) {
+      return;
+    }
+    for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+      out.append(prefix).append("{quantile=\"").append(Double.toString(quantile)).append("\"} ")
+          .append(Long.toString(snapshot.getPercentile(quantile))).append('\n');
+    }
+    out.append(prefix).append("_max ").append(Long.toString(snapshot.getMax())).append('\n');
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    try {
+      writeTo(sb);
+    } catch (IOException e) {
+      // StringBuilder does not throw
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,72 @@
+package com.nursinggame;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// Where every career's random numbers come from. Each career gets its own
+// seeded generator (never shared between threads, so never contended),
+// wrapped in a BufferedRandom that draws ints in blocks. The algorithm is
+// L64X128MixRandom unless -Dnursinggame.rng names another one below; its
+// id goes into session journals so a replay uses the same one.
+public final class GameRandom {
+  private static final String[] ALGORITHMS = {"L64X128MixRandom", "SplittableRandom"};
+  private static final RandomGeneratorFactory<?>[] FACTORIES = new RandomGeneratorFactory<?>[ALGORITHMS.length];
+
+  static {
+    for (int i = 0; i < ALGORITHMS.length; i++) {
+      FACTORIES[i] = RandomGeneratorFactory.of(ALGORITHMS[i]);
+    }
+  }
+
+  private static final class Holder {
+    static final int CONFIGURED = algorithmId(System.getProperty("nursinggame.rng", ALGORITHMS[0]));
+  }
+
+  private GameRandom() {
+  }
+
+  static int algorithmId(String name) {
+    for (int i = 0; i < ALGORITHMS.length; i++) {
+      if (ALGORITHMS[i].equals(name)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unknown random algorithm " + name);
+  }
+
+  static String algorithmName(int algorithm) {
+    return ALGORITHMS[algorithm];
+  }
+
+  // The algorithm new careers use
+  static int configuredAlgorithm() {
+    return Holder.CONFIGURED;
+  }
+
+  public static RandomGenerator create(long seed) {
+    return create(configuredAlgorithm(), seed);
+  }
+
+  static RandomGenerator create(int algorithm, long seed) {
+    if (algorithm < 0 || algorithm >= ALGORITHMS.length) {
+      throw new IllegalArgumentException("Unknown random algorithm id " + algorithm);
+    }
+    return new BufferedRandom(FACTORIES[algorithm].create(seed));
+  }
+
+  // A fresh seed for an interactive career
+  static long newSeed() {
+    return new SplittableRandom().nextLong();
+  }
+
+  // The seed of career number `career` in a run seeded with `seed`: a
+  // fixed mix of the two, so any one career can be re-run on its own and
+  // its stream does not depend on how the run was split across threads
+  public static long careerSeed(long seed, long career) {
+    long z = seed + (career + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+    z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return z ^ (z >>> 33);
+  }
+}
@@ -0,0 +1,336 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Hosts independent game sessions over a line-based TCP protocol: the
+// server sends exactly what the console game prints, and each line the
+// client sends answers the current prompt. One selector thread does all
+// socket I/O and hands complete input lines to each session's AsyncGameIO;
+// the session's GameLoop runs on its own thread against the shared
+// scenario catalog and only parks while waiting for an answer.
+public class GameServer {
+  public static final int DEFAULT_PORT = 7070;
+  public static final int DEFAULT_MAX_SESSIONS = 10000;
+  // Platform threads only need a shallow stack for the game loop
+  private static final long SESSION_STACK_SIZE = 256 * 1024;
+  private static final int MAX_LINE_BYTES = 256;
+  // A client that stops reading is dropped rather than buffered forever
+  private static final int MAX_PENDING_OUTPUT_BYTES = 64 * 1024;
+
+  private final int port;
+  private final JournalStore journals;
+  private volatile DecisionAnalytics analytics;
+  private final Semaphore sessionSlots;
+  private final AtomicInteger activeSessions;
+  private final ExecutorService sessions;
+  private final ByteBuffer readBuffer;
+  private volatile Selector selector;
+
+  public GameServer(int port, int maxSessions) {
+    this(port, maxSessions, JournalStore.server());
+  }
+
+  // Sessions journal into their own store, keyed by career code (see
+  // JournalStore), or not at all with JournalStore.NONE
+  GameServer(int port, int maxSessions, JournalStore journals) {
+    this.port = port;
+    this.journals = journals;
+    this.sessionSlots = new Semaphore(maxSessions);
+    this.activeSessions = new AtomicInteger();
+    this.sessions = newSessionExecutor();
+    // Only the selector thread reads, so every connection shares one buffer
+    this.readBuffer = ByteBuffer.allocateDirect(8192);
+  }
+
+  // Sessions publish their decisions here; set it when something serves
+  // the figures, as main does with a metrics port. Until then no analytics
+  // thread is started.
+  void setAnalytics(DecisionAnalytics analytics) {
+    this.analytics = analytics;
+  }
+
+  // Uses a virtual thread per session when the runtime has them (JDK 21+),
+  // otherwise small-stack platform threads
+  static ExecutorService newSessionExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      AtomicInteger count = new AtomicInteger();
+      ThreadFactory threads = task -> {
+        Thread thread = new Thread(null, task, "session-" + count.incrementAndGet(), SESSION_STACK_SIZE);
+        thread.setDaemon(true);
+        return thread;
+      };
+      return Executors.newCachedThreadPool(threads);
+    }
+  }
+
+  public void serve() throws IOException {
+    // Load the catalog before accepting anyone so the first player doesn't wait
+    ScenarioCatalog.shared();
+
+    try (Selector selector = Selector.open(); ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(new InetSocketAddress(port), 1024);
+      server.configureBlocking(false);
+      server.register(selector, SelectionKey.OP_ACCEPT);
+      this.selector = selector;
+      System.out.println("Nursing game server listening on port " + port);
+      System.out.println(journals.isEnabled()
+          ? "Session journals, by career code, in " + journals.getDirectory()
+          : "Session journals are off");
+
+      while (selector.isOpen()) {
+        selector.select();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept(server, selector);
+            continue;
+          }
+          Session session = (Session) key.attachment();
+          if (key.isReadable()) {
+            session.onReadable();
+          }
+          if (key.isValid() && key.isWritable()) {
+            session.onWritable();
+          }
+        }
+      }
+    } finally {
+      sessions.shutdownNow();
+    }
+  }
+
+  public void stop() throws IOException {
+    Selector current = selector;
+    if (current != null) {
+      current.close();
+    }
+  }
+
+  public int getActiveSessions() {
+    return activeSessions.get();
+  }
+
+  private void accept(ServerSocketChannel server, Selector selector) throws IOException {
+    SocketChannel channel;
+    while ((channel = server.accept()) != null) {
+      if (!sessionSlots.tryAcquire()) {
+        rejectFull(channel);
+        continue;
+      }
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      Session session = new Session(channel);
+      session.key = channel.register(selector, SelectionKey.OP_READ, session);
+      activeSessions.incrementAndGet();
+      sessions.execute(session::run);
+    }
+  }
+
+  private static void rejectFull(SocketChannel channel) {
+    try (channel) {
+      channel.write(StandardCharsets.UTF_8.encode("Server is full, please try again later.\n"));
+    } catch (IOException e) {
+      // Client already gone
+    }
+  }
+
+  private class Session implements AsyncGameIO.OutputSink {
+    private final SocketChannel channel;
+    private final AsyncGameIO io;
+    private final ArrayDeque<ByteBuffer> pendingWrites;
+    private final AtomicBoolean closed;
+    private SelectionKey key;
+    private int pendingBytes;
+    private boolean finished;
+    // Bytes of a partially received input line
+    private byte[] line;
+    private int lineLength;
+
+    Session(SocketChannel channel) {
+      this.channel = channel;
+      this.io = new AsyncGameIO(this);
+      this.pendingWrites = new ArrayDeque<>(2);
+      this.closed = new AtomicBoolean();
+    }
+
+    void run() {
+      try {
+        GameLoop game = new GameLoop(io, journals);
+        game.setAnalytics(analytics);
+        game.start();
+      } catch (NoSuchElementException e) {
+        // Client disconnected mid-game
+      } catch (RuntimeException e) {
+        System.err.println("Session failed: " + e);
+      }
+      synchronized (this) {
+        finished = true;
+        if (pendingWrites.isEmpty()) {
+          close();
+        }
+      }
+    }
+
+    // Selector thread: split incoming bytes into lines for the game
+    void onReadable() {
+      int read;
+      try {
+        readBuffer.clear();
+        read = channel.read(readBuffer);
+      } catch (IOException e) {
+        read = -1;
+      }
+      if (read < 0) {
+        close();
+        return;
+      }
+      readBuffer.flip();
+      while (readBuffer.hasRemaining()) {
+        byte b = readBuffer.get();
+        if (b == '\n') {
+          int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+          String text = length == 0 ? "" : new String(line, 0, length, StandardCharsets.UTF_8);
+          lineLength = 0;
+          if (!io.offerLine(text)) {
+            close();
+            return;
+          }
+        } else {
+          if (line == null) {
+            line = new byte[MAX_LINE_BYTES];
+          }
+          if (lineLength == MAX_LINE_BYTES) {
+            close();
+            return;
+          }
+          line[lineLength++] = b;
+        }
+      }
+    }
+
+    // Session thread: send a batch now, or queue it for the selector if
+    // the socket buffer is full
+    @Override
+    public synchronized void write(String batch) {
+      if (closed.get()) {
+        return;
+      }
+      ByteBuffer bytes = StandardCharsets.UTF_8.encode(batch);
+      try {
+        if (pendingWrites.isEmpty()) {
+          channel.write(bytes);
+          if (!bytes.hasRemaining()) {
+            return;
+          }
+        }
+      } catch (IOException e) {
+        close();
+        return;
+      }
+      pendingBytes += bytes.remaining();
+      if (pendingBytes > MAX_PENDING_OUTPUT_BYTES) {
+        close();
+        return;
+      }
+      pendingWrites.add(bytes);
+      key.interestOpsOr(SelectionKey.OP_WRITE);
+      key.selector().wakeup();
+    }
+
+    // Selector thread: drain queued output
+    synchronized void onWritable() {
+      try {
+        while (!pendingWrites.isEmpty()) {
+          ByteBuffer head = pendingWrites.peek();
+          int written = channel.write(head);
+          pendingBytes -= written;
+          if (head.hasRemaining()) {
+            return;
+          }
+          pendingWrites.poll();
+        }
+      } catch (IOException e) {
+        close();
+        return;
+      }
+      key.interestOpsAnd(~SelectionKey.OP_WRITE);
+      if (finished) {
+        close();
+      }
+    }
+
+    void close() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+      io.endInput();
+      key.cancel();
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Nothing left to do with a broken connection
+      }
+      activeSessions.decrementAndGet();
+      sessionSlots.release();
+    }
+  }
+
+  // Serves GameMetrics.shared() as plain text at /metrics, and
+  // DecisionAnalytics.shared() at /analytics, on their own port
+  static HttpServer serveMetrics(int port) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.createContext("/metrics", exchange -> sendText(exchange, GameMetrics.shared().toString()));
+    server.createContext("/analytics", exchange -> sendText(exchange, DecisionAnalytics.shared().toString()));
+    server.start();
+    return server;
+  }
+
+  private static void sendText(HttpExchange exchange, String text) throws IOException {
+    byte[] body = text.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_SESSIONS;
+    GameServer server = new GameServer(port, maxSessions);
+    if (args.length > 2) {
+      serveMetrics(Integer.parseInt(args[2]));
+      server.setAnalytics(DecisionAnalytics.shared());
+    }
+    server.serve();
+  }
+}
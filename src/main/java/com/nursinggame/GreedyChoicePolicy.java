@@ -0,0 +1,41 @@
+package com.nursinggame;
+
+// Picks the option with the best immediate stat gain and never risks overtime
+public class GreedyChoicePolicy implements ChoicePolicy {
+  static final int LEAVE_EARLY_STRESS = 80;
+
+  @Override
+  public int chooseOption(Scenario scenario, Nurse nurse) {
+    int best = 0;
+    int bestScore = Integer.MIN_VALUE;
+    int optionCount = scenario.getOptionCount();
+    for (int i = 0; i < optionCount; i++) {
+      int score = score(scenario.previewOutcome(i));
+      if (score > bestScore) {
+        best = i;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  static int score(ScenarioOutcome outcome) {
+    return outcome.getKnowledgeChange() + outcome.getPatientCareChange()
+        + outcome.getEfficiencyChange() - outcome.getStressChange();
+  }
+
+  @Override
+  public boolean leaveEarly(Nurse nurse) {
+    return nurse.getStats().getStress() > LEAVE_EARLY_STRESS;
+  }
+
+  @Override
+  public boolean workOvertime(Nurse nurse) {
+    return false;
+  }
+
+  @Override
+  public boolean continueToNextShift(Nurse nurse) {
+    return true;
+  }
+}
@@ -0,0 +1,224 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// Turns a Flight Recorder file with GameEvents in it into a per-scenario
+// hot-spot report: how often each scenario ran, how long the engine spent
+// on it (decision time left out), how long players took to decide, its
+// mistake rate and usual option, its average stat changes, and how many
+// of its runs overlapped a GC pause. Scenarios that took the most engine
+// time in total come first.
+public class JfrSummary {
+  private static final String SHIFT_EVENT = "com.nursinggame.Shift";
+  private static final String SCENARIO_EVENT = "com.nursinggame.Scenario";
+  private static final String BREAK_EVENT = "com.nursinggame.Break";
+  private static final String EARLY_DEPARTURE_EVENT = "com.nursinggame.EarlyDeparture";
+  private static final String GC_EVENT = "jdk.GarbageCollection";
+  private static final String[] STAT_FIELDS = {
+      "knowledgeChange", "patientCareChange", "efficiencyChange", "stressChange", "reputationChange", "energyChange" };
+  private static final String[] STAT_LABELS = { "Know", "Care", "Eff", "Stress", "Rep", "Energy" };
+
+  private final TreeMap<Integer, ScenarioTotals> scenarios = new TreeMap<>();
+  private long shifts;
+  private long shiftNanos;
+  private long maxShiftNanos;
+  private long shiftsLeftEarly;
+  private long breaks;
+  private long overtime;
+  private long earlyDepartures;
+  // Start and end (epoch nanos) of every GC pause and every scenario run
+  private long[] gcPauses = new long[64];
+  private int gcPauseCount;
+  private long[] scenarioRuns = new long[1024];
+  private ScenarioTotals[] scenarioRunOwners = new ScenarioTotals[512];
+  private int scenarioRunCount;
+
+  private static final class ScenarioTotals {
+    final int id;
+    final String title;
+    long count;
+    long engineNanos;
+    long maxEngineNanos;
+    long decisionNanos;
+    long mistakes;
+    long gcOverlaps;
+    final long[] options = new long[8];
+    final long[] statChanges = new long[STAT_FIELDS.length];
+
+    ScenarioTotals(int id, String title) {
+      this.id = id;
+      this.title = title;
+    }
+  }
+
+  public void read(Path recording) throws IOException {
+    try (RecordingFile file = new RecordingFile(recording)) {
+      while (file.hasMoreEvents()) {
+        add(file.readEvent());
+      }
+    }
+    countGcOverlaps();
+  }
+
+  private void add(RecordedEvent event) {
+    switch (event.getEventType().getName()) {
+      case SCENARIO_EVENT -> addScenario(event);
+      case SHIFT_EVENT -> {
+        long nanos = event.getDuration().toNanos();
+        shifts++;
+        shiftNanos += nanos;
+        maxShiftNanos = Math.max(maxShiftNanos, nanos);
+        if (event.getBoolean("leftEarly")) {
+          shiftsLeftEarly++;
+        }
+      }
+      case BREAK_EVENT -> {
+        if (event.getString("resolution").equals("Overtime")) {
+          overtime++;
+        } else {
+          breaks++;
+        }
+      }
+      case EARLY_DEPARTURE_EVENT -> earlyDepartures++;
+      case GC_EVENT -> {
+        if (gcPauseCount * 2 == gcPauses.length) {
+          gcPauses = Arrays.copyOf(gcPauses, gcPauses.length * 2);
+        }
+        gcPauses[gcPauseCount * 2] = epochNanos(event.getStartTime());
+        gcPauses[gcPauseCount * 2 + 1] = epochNanos(event.getEndTime());
+        gcPauseCount++;
+      }
+      default -> {
+      }
+    }
+  }
+
+  private void addScenario(RecordedEvent event) {
+    int id = event.getInt("scenarioId");
+    ScenarioTotals totals = scenarios.computeIfAbsent(id, key -> new ScenarioTotals(key, event.getString("title")));
+    long decision = event.getDuration("decisionTime").toNanos();
+    long engine = Math.max(0, event.getDuration().toNanos() - decision);
+    totals.count++;
+    totals.engineNanos += engine;
+    totals.maxEngineNanos = Math.max(totals.maxEngineNanos, engine);
+    totals.decisionNanos += decision;
+    if (event.getBoolean("mistake")) {
+      totals.mistakes++;
+    }
+    int option = event.getInt("option");
+    if (option >= 1 && option <= totals.options.length) {
+      totals.options[option - 1]++;
+    }
+    for (int stat = 0; stat < STAT_FIELDS.length; stat++) {
+      totals.statChanges[stat] += event.getInt(STAT_FIELDS[stat]);
+    }
+
+    if (scenarioRunCount == scenarioRunOwners.length) {
+      scenarioRuns = Arrays.copyOf(scenarioRuns, scenarioRuns.length * 2);
+      scenarioRunOwners = Arrays.copyOf(scenarioRunOwners, scenarioRunOwners.length * 2);
+    }
+    scenarioRuns[scenarioRunCount * 2] = epochNanos(event.getStartTime());
+    scenarioRuns[scenarioRunCount * 2 + 1] = epochNanos(event.getEndTime());
+    scenarioRunOwners[scenarioRunCount++] = totals;
+  }
+
+  private static long epochNanos(Instant instant) {
+    return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+  }
+
+  // A scenario run overlaps a pause if the pause starts before the run
+  // ends and ends after it starts; with pauses sorted by start, the
+  // pauses starting before the run ends are a prefix, and it is enough to
+  // know the latest end among them
+  private void countGcOverlaps() {
+    if (gcPauseCount == 0) {
+      return;
+    }
+    long[][] pauses = new long[gcPauseCount][];
+    for (int i = 0; i < gcPauseCount; i++) {
+      pauses[i] = new long[] {gcPauses[i * 2], gcPauses[i * 2 + 1]};
+    }
+    Arrays.sort(pauses, Comparator.comparingLong(pause -> pause[0]));
+    long[] starts = new long[gcPauseCount];
+    long[] latestEnds = new long[gcPauseCount];
+    long latest = Long.MIN_VALUE;
+    for (int i = 0; i < gcPauseCount; i++) {
+      starts[i] = pauses[i][0];
+      latest = Math.max(latest, pauses[i][1]);
+      latestEnds[i] = latest;
+    }
+    for (int run = 0; run < scenarioRunCount; run++) {
+      long start = scenarioRuns[run * 2];
+      long end = scenarioRuns[run * 2 + 1];
+      // Pauses starting strictly before the run ends
+      int before = Arrays.binarySearch(starts, end);
+      before = before >= 0 ? lowestIndexOf(starts, before) : -before - 1;
+      if (before > 0 && latestEnds[before - 1] > start) {
+        scenarioRunOwners[run].gcOverlaps++;
+      }
+    }
+  }
+
+  private static int lowestIndexOf(long[] sorted, int index) {
+    while (index > 0 && sorted[index - 1] == sorted[index]) {
+      index--;
+    }
+    return index;
+  }
+
+  public void print(PrintStream out) {
+    out.printf("%d shifts (%d left early), mean %.1f us, max %.1f us; %d breaks, %d overtime, %d early departures;"
+        + " %d GC pauses%n", shifts, shiftsLeftEarly, shifts == 0 ? 0 : shiftNanos / 1e3 / shifts,
+        maxShiftNanos / 1e3, breaks, overtime, earlyDepartures, gcPauseCount);
+    out.println("Shift times include waiting for decisions; the scenario times below do not.");
+    out.println();
+
+    List<ScenarioTotals> hottest = new ArrayList<>(scenarios.values());
+    hottest.sort(Comparator.comparingLong((ScenarioTotals totals) -> totals.engineNanos).reversed());
+    out.printf("%4s %-32s %7s %9s %9s %10s %9s %7s %4s", "Id", "Scenario", "Runs", "Total ms", "Mean us",
+        "Max us", "Decide ms", "Mistake", "GC");
+    out.printf(" %8s", "Option");
+    for (String label : STAT_LABELS) {
+      out.printf(" %6s", label);
+    }
+    out.println();
+    for (ScenarioTotals totals : hottest) {
+      int usual = 0;
+      for (int option = 1; option < totals.options.length; option++) {
+        if (totals.options[option] > totals.options[usual]) {
+          usual = option;
+        }
+      }
+      out.printf("%4d %-32.32s %7d %9.2f %9.2f %10.2f %9.1f %6.1f%% %4d", totals.id, totals.title, totals.count,
+          totals.engineNanos / 1e6, totals.engineNanos / 1e3 / totals.count, totals.maxEngineNanos / 1e3,
+          totals.decisionNanos / 1e6 / totals.count, 100.0 * totals.mistakes / totals.count, totals.gcOverlaps);
+      out.printf(" %2d (%3.0f%%)", usual + 1, 100.0 * totals.options[usual] / totals.count);
+      for (long change : totals.statChanges) {
+        out.printf(" %+6.1f", (double) change / totals.count);
+      }
+      out.println();
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: --jfr-summary <recording.jfr>");
+      return;
+    }
+    JfrSummary summary = new JfrSummary();
+    summary.read(Paths.get(args[0]));
+    summary.print(System.out);
+  }
+}
@@ -0,0 +1,135 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Where GameLoop keeps session journals and how a player finds theirs
+// again. The console game runs for one local user, so its journals are
+// keyed by the name the player types. Server sessions are keyed by a
+// random career code handed to the player instead: a name is no secret,
+// and anyone who typed someone else's could resume or overwrite their
+// career. Server journals untouched for the retention period are deleted.
+final class JournalStore {
+  static final JournalStore NONE = new JournalStore(null, false, 0);
+
+  static final int CODE_LENGTH = 16;
+  // No 0/O or 1/I, so codes survive being read aloud or copied by hand
+  private static final String CODE_ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ";
+  private static final String SUFFIX = ".journal";
+  private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+  private static final SecureRandom CODES = new SecureRandom();
+
+  private final Path directory;
+  private final boolean byCode;
+  private final long retentionMillis;
+  private final AtomicLong lastPrune = new AtomicLong();
+
+  private JournalStore(Path directory, boolean byCode, long retentionMillis) {
+    this.directory = directory;
+    this.byCode = byCode;
+    this.retentionMillis = retentionMillis;
+  }
+
+  static JournalStore byName(Path directory) {
+    return new JournalStore(directory, false, 0);
+  }
+
+  static JournalStore byCode(Path directory, long retentionMillis) {
+    return new JournalStore(directory, true, retentionMillis);
+  }
+
+  // The console game's journals: -Dnursinggame.journalDir, else
+  // ~/.nursing-game/journals
+  static JournalStore console() {
+    return byName(SessionJournal.directory());
+  }
+
+  // The server's: -Dnursinggame.serverJournals=off turns them off, any
+  // other value moves them from ~/.nursing-game/server-journals, and
+  // -Dnursinggame.journalRetentionDays (default 30) sets how long an
+  // untouched one is kept
+  static JournalStore server() {
+    String configured = System.getProperty("nursinggame.serverJournals");
+    if ("off".equals(configured)) {
+      return NONE;
+    }
+    Path directory = configured != null ? Paths.get(configured)
+        : Paths.get(System.getProperty("user.home"), ".nursing-game", "server-journals");
+    long days = Long.getLong("nursinggame.journalRetentionDays", 30);
+    return byCode(directory, TimeUnit.DAYS.toMillis(days));
+  }
+
+  boolean isEnabled() {
+    return directory != null;
+  }
+
+  boolean usesCodes() {
+    return byCode;
+  }
+
+  Path getDirectory() {
+    return directory;
+  }
+
+  Path pathForName(String name) {
+    String safe = name.strip().replaceAll("[^A-Za-z0-9_-]", "_");
+    return directory.resolve((safe.isEmpty() ? "nurse" : safe) + SUFFIX);
+  }
+
+  // Null unless the text is a well-formed code; letters may be lower case
+  Path pathForCode(String code) {
+    String normalized = code.strip().toUpperCase(Locale.ROOT);
+    if (normalized.length() != CODE_LENGTH) {
+      return null;
+    }
+    for (int i = 0; i < CODE_LENGTH; i++) {
+      if (CODE_ALPHABET.indexOf(normalized.charAt(i)) < 0) {
+        return null;
+      }
+    }
+    return directory.resolve(normalized + SUFFIX);
+  }
+
+  // 80 random bits, so codes cannot be guessed or collide in practice
+  String newCode() {
+    char[] code = new char[CODE_LENGTH];
+    for (int i = 0; i < CODE_LENGTH; i++) {
+      code[i] = CODE_ALPHABET.charAt(CODES.nextInt(CODE_ALPHABET.length()));
+    }
+    return new String(code);
+  }
+
+  // Deletes code-keyed journals not written for the retention period,
+  // skipping any a session has open. Runs at most once an hour however
+  // often it is called.
+  void prune() {
+    if (!byCode || retentionMillis <= 0) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long last = lastPrune.get();
+    if (now - last < PRUNE_INTERVAL_MILLIS || !lastPrune.compareAndSet(last, now)) {
+      return;
+    }
+    try (DirectoryStream<Path> journals = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path path : journals) {
+        try {
+          if (now - Files.getLastModifiedTime(path).toMillis() > retentionMillis) {
+            SessionJournal.deleteIfClosed(path);
+          }
+        } catch (IOException e) {
+          // Gone already, or not ours to delete
+        }
+      }
+    } catch (IOException e) {
+      // No directory yet means nothing to prune
+    }
+  }
+}
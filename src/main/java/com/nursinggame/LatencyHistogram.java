@@ -0,0 +1,115 @@
+package com.nursinggame;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free histogram of nanosecond latencies with log-linear buckets, as
+// in HdrHistogram: every power of two is split into 8 buckets, so any
+// reported value is within 12.5% of what was recorded, from 0 ns to
+// Long.MAX_VALUE in 488 buckets. Each bucket is a LongAdder, so threads
+// recording at once add to their own cells instead of fighting over one
+// counter, and recording is a single add. The count and sum come from the
+// buckets too; the sum takes each bucket's midpoint, so it and the mean
+// are within 6.25%.
+final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final LongAdder[] buckets;
+
+  LatencyHistogram() {
+    this.buckets = new LongAdder[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  static int bucket(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) Math.max(0, nanos);
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long lowestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (bucket / SUB_BUCKETS - 1);
+  }
+
+  // Largest value that falls in the bucket
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    return lowestValue(bucket) + (1L << (bucket / SUB_BUCKETS - 1)) - 1;
+  }
+
+  void record(long nanos) {
+    buckets[bucket(nanos)].increment();
+  }
+
+  // A point-in-time copy; counts recorded while it is taken may or may not
+  // be in it
+  Snapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    long count = 0;
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      count += counts[i];
+      total += counts[i] * (lowestValue(i) + (highestValue(i) - lowestValue(i)) / 2);
+    }
+    return new Snapshot(counts, count, total);
+  }
+
+  static final class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long total;
+
+    private Snapshot(long[] counts, long count, long total) {
+      this.counts = counts;
+      this.count = count;
+      this.total = total;
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    long getTotal() {
+      return total;
+    }
+
+    double getMean() {
+      return count == 0 ? 0 : (double) total / count;
+    }
+
+    // Smallest bucket bound with at least the given fraction of values at
+    // or below it
+    long getPercentile(double fraction) {
+      long target = Math.max(1, (long) Math.ceil(fraction * count));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += counts[i];
+        if (seen >= target) {
+          return highestValue(i);
+        }
+      }
+      return 0;
+    }
+
+    long getMax() {
+      for (int i = BUCKETS - 1; i >= 0; i--) {
+        if (counts[i] != 0) {
+          return highestValue(i);
+        }
+      }
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Simulated students for load-testing GameServer: each connection answers
+// every prompt with a random valid choice and quits after a fixed number
+// of shifts
+public class LoadTestClient {
+  private final String host;
+  private final int port;
+  private final int sessions;
+  private final int shiftsPerSession;
+  private final long seed;
+
+  private final AtomicInteger completed = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private final LongAdder prompts = new LongAdder();
+  private final LongAdder responseNanos = new LongAdder();
+
+  public LoadTestClient(String host, int port, int sessions, int shiftsPerSession, long seed) {
+    this.host = host;
+    this.port = port;
+    this.sessions = sessions;
+    this.shiftsPerSession = shiftsPerSession;
+    this.seed = seed;
+  }
+
+  public void run() throws InterruptedException {
+    ExecutorService students = GameServer.newSessionExecutor();
+    CountDownLatch done = new CountDownLatch(sessions);
+    SplittableRandom seeds = new SplittableRandom(seed);
+    long start = System.nanoTime();
+
+    for (int i = 0; i < sessions; i++) {
+      int student = i;
+      SplittableRandom random = seeds.split();
+      students.execute(() -> {
+        try {
+          playSession(student, random);
+          completed.incrementAndGet();
+        } catch (IOException e) {
+          failed.incrementAndGet();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    students.shutdown();
+
+    double seconds = (System.nanoTime() - start) / 1e9;
+    long answered = prompts.sum();
+    System.out.printf("Sessions: %d completed, %d failed in %.2f s%n", completed.get(), failed.get(), seconds);
+    System.out.printf("Prompts answered: %d (%.0f/s), mean server response %.3f ms%n",
+        answered, answered / seconds, answered == 0 ? 0 : responseNanos.sum() / 1e6 / answered);
+  }
+
+  private void playSession(int student, SplittableRandom random) throws IOException {
+    try (Socket socket = new Socket()) {
+      socket.connect(new InetSocketAddress(host, port));
+      socket.setTcpNoDelay(true);
+      InputStream in = socket.getInputStream();
+      OutputStream out = socket.getOutputStream();
+
+      byte[] buffer = new byte[4096];
+      // Bytes of the current, not yet terminated line
+      StringBuilder lastLine = new StringBuilder();
+      int shiftsPlayed = 0;
+      long sentAt = System.nanoTime();
+
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        for (int i = 0; i < read; i++) {
+          if (buffer[i] == '\n') {
+            lastLine.setLength(0);
+          } else {
+            lastLine.append((char) (buffer[i] & 0xFF));
+          }
+        }
+        if (in.available() > 0) {
+          continue;
+        }
+
+        String answer = answer(lastLine.toString(), student, random, shiftsPlayed);
+        if (answer == null) {
+          continue;
+        }
+        if (lastLine.indexOf("Continue to next shift") >= 0) {
+          shiftsPlayed++;
+        }
+        prompts.increment();
+        responseNanos.add(System.nanoTime() - sentAt);
+        lastLine.setLength(0);
+        out.write((answer + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        sentAt = System.nanoTime();
+      }
+    }
+  }
+
+  // Returns null when the line is not (yet) a complete prompt
+  private String answer(String line, int student, SplittableRandom random, int shiftsPlayed) {
+    if (!line.endsWith(": ")) {
+      return null;
+    }
+    if (line.startsWith("Enter your name")) {
+      return "Student " + student;
+    }
+    if (line.startsWith("Enter your career code")) {
+      return "";
+    }
+    if (line.endsWith("(y/n): ")) {
+      if (line.contains("Continue to next shift")) {
+        return shiftsPlayed + 1 < shiftsPerSession ? "y" : "n";
+      }
+      return "n";
+    }
+    int open = line.lastIndexOf("(1-");
+    if (open >= 0 && line.endsWith("): ")) {
+      int max = Integer.parseInt(line.substring(open + 3, line.length() - 3));
+      return Integer.toString(1 + random.nextInt(max));
+    }
+    return null;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    String host = args.length > 0 ? args[0] : "localhost";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+    int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+    int shifts = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    new LoadTestClient(host, port, sessions, shifts, 42L).run();
+  }
+}
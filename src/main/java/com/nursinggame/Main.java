@@ -1,8 +1,53 @@
 package com.nursinggame;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 public class Main {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException, InterruptedException {
+    String[] rest = args.length > 0 ? Arrays.copyOfRange(args, 1, args.length) : args;
+    if (args.length > 0 && args[0].equals("--simulate")) {
+      MonteCarloRunner.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--server")) {
+      GameServer.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--load-test")) {
+      LoadTestClient.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--replay")) {
+      CareerReplay.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--export-csv")) {
+      SimulationExport.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--archive")) {
+      CareerArchive.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--solve")) {
+      ValueIterationSolver.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--jfr-summary")) {
+      JfrSummary.main(rest);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--project")) {
+      FinancialProjection.main(rest);
+      return;
+    }
     GameLoop game = new GameLoop();
     game.start();
+    String metricsFile = System.getProperty("nursinggame.metrics");
+    if (metricsFile != null) {
+      GameMetrics.shared().writeTo(Paths.get(metricsFile));
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+// Runs independent headless careers for every cohort (specialization x
+// experience level x starting shift) on a fork-join pool. Every career gets
+// its own generator seeded from the run's seed and its career number (see
+// GameRandom.careerSeed), so results depend only on the seed, any career
+// can be re-run alone, and threads never share a generator.
+public class MonteCarloRunner {
+  // Careers handled by one leaf task before it stops splitting
+  private static final int CAREERS_PER_TASK = 256;
+
+  public interface PolicyFactory {
+    ChoicePolicy create(RandomGenerator random);
+  }
+
+  private final int careersPerCohort;
+  private final int shiftsPerCareer;
+  private final long seed;
+  private final PolicyFactory policyFactory;
+  private final ScenarioCatalog catalog;
+  private ByteBuffer archive;
+  private SimulationExport export;
+
+  public MonteCarloRunner(int careersPerCohort, int shiftsPerCareer, long seed, PolicyFactory policyFactory) {
+    this.careersPerCohort = careersPerCohort;
+    this.shiftsPerCareer = shiftsPerCareer;
+    this.seed = seed;
+    this.policyFactory = policyFactory;
+    this.catalog = ScenarioCatalog.shared();
+  }
+
+  public static int cohortCount() {
+    return Nurse.Specialization.values().length * 4;
+  }
+
+  public static int cohortIndex(Nurse.Specialization specialization, boolean isNewGrad, boolean nightStart) {
+    return specialization.ordinal() * 4 + (isNewGrad ? 2 : 0) + (nightStart ? 1 : 0);
+  }
+
+  public static String cohortName(int cohort) {
+    Nurse.Specialization specialization = Nurse.Specialization.values()[cohort / 4];
+    return specialization.getDisplayName()
+        + ((cohort & 2) != 0 ? ", new grad" : ", experienced")
+        + ((cohort & 1) != 0 ? ", night start" : ", day start");
+  }
+
+  // Also saves every finished career into an archive from
+  // CareerArchive.create(), career i at CareerArchive.recordOffset(i)
+  void setArchive(ByteBuffer archive) {
+    this.archive = archive;
+  }
+
+  // Also streams every decision of every career into the export
+  void setExport(SimulationExport export) {
+    this.export = export;
+  }
+
+  // Returns one CareerStatistics per cohort, indexed by cohortIndex()
+  public CareerStatistics[] run() {
+    return run(ForkJoinPool.commonPool());
+  }
+
+  public CareerStatistics[] run(ForkJoinPool pool) {
+    long total = (long) careersPerCohort * cohortCount();
+    return pool.invoke(new CareerTask(0, total));
+  }
+
+  private CareerStatistics[] newResults() {
+    CareerStatistics[] results = new CareerStatistics[cohortCount()];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = new CareerStatistics();
+    }
+    return results;
+  }
+
+  private void runCareer(long career, CareerStatistics[] results) {
+    int cohort = (int) (career / careersPerCohort);
+    RandomGenerator random = GameRandom.create(GameRandom.careerSeed(seed, career));
+    Nurse.Specialization specialization = Nurse.Specialization.values()[cohort / 4];
+    boolean isNewGrad = (cohort & 2) != 0;
+    boolean nightStart = (cohort & 1) != 0;
+
+    Nurse nurse = SimulationEngine.createNurse("Simulated Nurse", specialization, isNewGrad, nightStart);
+    SimulationEngine engine = new SimulationEngine(nurse, catalog, isNewGrad,
+        nightStart ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST,
+        policyFactory.create(random), random);
+    if (export != null) {
+      export.block().startCareer(career, engine);
+    }
+    int shiftsWorked = engine.runCareer(shiftsPerCareer);
+    results[cohort].record(nurse, shiftsWorked);
+    if (archive != null) {
+      SaveGameCodec.encode(engine, archive, CareerArchive.recordOffset(career));
+    }
+  }
+
+  private class CareerTask extends RecursiveTask<CareerStatistics[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final long from;
+    private final long to;
+
+    CareerTask(long from, long to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected CareerStatistics[] compute() {
+      if (to - from <= CAREERS_PER_TASK) {
+        CareerStatistics[] results = newResults();
+        for (long career = from; career < to; career++) {
+          runCareer(career, results);
+        }
+        return results;
+      }
+
+      long mid = (from + to) >>> 1;
+      CareerTask left = new CareerTask(from, mid);
+      CareerTask right = new CareerTask(mid, to);
+      left.fork();
+      CareerStatistics[] results = right.compute();
+      CareerStatistics[] leftResults = left.join();
+      for (int i = 0; i < results.length; i++) {
+        results[i].merge(leftResults[i]);
+      }
+      return results;
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    int careersPerCohort = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+    int shifts = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+    MonteCarloRunner runner = new MonteCarloRunner(careersPerCohort, shifts, seed, RandomChoicePolicy::new);
+    MappedByteBuffer archive = null;
+    if (args.length > 3 && !args[3].equals("-")) {
+      archive = CareerArchive.create(Paths.get(args[3]), (long) careersPerCohort * cohortCount());
+      runner.setArchive(archive);
+    }
+    SimulationExport export = null;
+    if (args.length > 4) {
+      export = SimulationExport.create(Paths.get(args[4]), runner.catalog);
+      runner.setExport(export);
+    }
+
+    long startTime = System.nanoTime();
+    CareerStatistics[] results = runner.run();
+    double seconds = (System.nanoTime() - startTime) / 1e9;
+
+    for (int cohort = 0; cohort < results.length; cohort++) {
+      System.out.println("=== " + cohortName(cohort) + " ===");
+      System.out.println(results[cohort]);
+    }
+    System.out.printf("Simulated %d careers in %.2f s%n", (long) careersPerCohort * cohortCount(), seconds);
+    if (archive != null) {
+      archive.force();
+      System.out.printf("Archived them to %s (%d bytes)%n", args[3], archive.capacity());
+    }
+    if (export != null) {
+      export.close();
+      System.out.printf("Exported %d decisions to %s (%d bytes)%n", export.getRows(), args[4],
+          Files.size(Paths.get(args[4])));
+    }
+  }
+}
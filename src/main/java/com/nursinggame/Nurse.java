@@ -126,14 +126,18 @@ public class Nurse {
     // Apply night shift additional effects
     if (isNightShift) {
       stats.addStress(1); // Additional stress for night shift
-      if (specialization == Specialization.ER) {
-        financials.receiveNightShiftPay(1.25); // ER gets 25% night differential
-      } else {
-        financials.receiveNightShiftPay(1.15); // Others get 15% night differential
-      }
+      financials.receiveNightShiftPay(nightDifferentialPercent(specialization));
     }
   }
 
+  // Night shifts pay this percentage of a regular paycheck
+  static int nightDifferentialPercent(Specialization specialization) {
+    if (specialization == Specialization.ER) {
+      return 125; // ER gets 25% night differential
+    }
+    return 115; // Others get 15% night differential
+  }
+
   // Getters
   public String getName() {
     return name;
@@ -167,6 +171,7 @@ class SpecializationAttributes {
   final int efficiencyPerShiftModifier;
   final double reputationLossMultiplier;
   final String perksAndWeaknesses;
+  final StatModifiers startingModifiers;
 
   public SpecializationAttributes(
       double startingSalary,
@@ -181,68 +186,91 @@ class SpecializationAttributes {
     this.efficiencyPerShiftModifier = efficiencyPerShiftModifier;
     this.reputationLossMultiplier = reputationLossMultiplier;
     this.perksAndWeaknesses = perksAndWeaknesses;
+    this.startingModifiers = StatModifiers.parse(perksAndWeaknesses);
   }
 
   // Stat modifiers based on specialization descriptions
+  public StatModifiers getStartingModifiers() {
+    return startingModifiers;
+  }
+
   public int getKnowledgeModifier() {
-    if (perksAndWeaknesses.contains("Knowledge: +10%"))
-      return 10;
-    if (perksAndWeaknesses.contains("Knowledge: -10%"))
-      return -10;
-    if (perksAndWeaknesses.contains("Knowledge: +5%"))
-      return 5;
-    if (perksAndWeaknesses.contains("Knowledge: -5%"))
-      return -5;
-    return 0;
+    return startingModifiers.knowledge;
   }
 
   public int getPatientCareModifier() {
-    if (perksAndWeaknesses.contains("Patient Care: +10%"))
-      return 10;
-    if (perksAndWeaknesses.contains("Patient Care: -10%"))
-      return -10;
-    if (perksAndWeaknesses.contains("Patient Care: +5%"))
-      return 5;
-    if (perksAndWeaknesses.contains("Patient Care: -5%"))
-      return -5;
-    return 0;
+    return startingModifiers.patientCare;
   }
 
   public int getEfficiencyModifier() {
-    if (perksAndWeaknesses.contains("Efficiency: +15%"))
-      return 15;
-    if (perksAndWeaknesses.contains("Efficiency: +10%"))
-      return 10;
-    if (perksAndWeaknesses.contains("Efficiency: +5%"))
-      return 5;
-    if (perksAndWeaknesses.contains("Efficiency: -5%"))
-      return -5;
-    return 0;
+    return startingModifiers.efficiency;
   }
 
   public int getStressModifier() {
-    if (perksAndWeaknesses.contains("Stress: +15%"))
-      return 15;
-    if (perksAndWeaknesses.contains("Stress: +10%"))
-      return 10;
-    if (perksAndWeaknesses.contains("Stress: +5%"))
-      return 5;
-    if (perksAndWeaknesses.contains("Stress: -5%"))
-      return -5;
-    if (perksAndWeaknesses.contains("Stress: -10%"))
-      return -10;
-    return 0;
+    return startingModifiers.stress;
   }
 
   public int getReputationModifier() {
-    if (perksAndWeaknesses.contains("Reputation: +10%"))
-      return 10;
-    if (perksAndWeaknesses.contains("Reputation: -10%"))
-      return -10;
-    if (perksAndWeaknesses.contains("Reputation: +5%"))
-      return 5;
-    if (perksAndWeaknesses.contains("Reputation: -5%"))
-      return -5;
-    return 0;
-  }
-}
\ No newline at end of file
+    return startingModifiers.reputation;
+  }
+}
+
+// Starting stat percentages from a specialization's "Starting Stats Impact"
+// lines, parsed once when the Specialization enum is initialized
+final class StatModifiers {
+  private static final String IMPACT_HEADER = "Starting Stats Impact:";
+
+  final int knowledge;
+  final int patientCare;
+  final int efficiency;
+  final int stress;
+  final int reputation;
+
+  StatModifiers(int knowledge, int patientCare, int efficiency, int stress, int reputation) {
+    this.knowledge = knowledge;
+    this.patientCare = patientCare;
+    this.efficiency = efficiency;
+    this.stress = stress;
+    this.reputation = reputation;
+  }
+
+  static StatModifiers parse(String perksAndWeaknesses) {
+    // The strengths and challenges above the section mention the same
+    // stats, so every label is looked up from the section header on
+    int section = perksAndWeaknesses.indexOf(IMPACT_HEADER);
+    if (section < 0) {
+      return new StatModifiers(0, 0, 0, 0, 0);
+    }
+    return new StatModifiers(
+        percentAfter(perksAndWeaknesses, section, "Knowledge: "),
+        percentAfter(perksAndWeaknesses, section, "Patient Care: "),
+        percentAfter(perksAndWeaknesses, section, "Efficiency: "),
+        percentAfter(perksAndWeaknesses, section, "Stress: "),
+        percentAfter(perksAndWeaknesses, section, "Reputation: "));
+  }
+
+  // Reads a signed "+10%" style value following the label, or 0 if absent
+  private static int percentAfter(String text, int from, String label) {
+    int start = text.indexOf(label, from);
+    if (start < 0) {
+      return 0;
+    }
+    int end = text.indexOf('%', start);
+    if (end < 0) {
+      return 0;
+    }
+    try {
+      return Integer.parseInt(text.substring(start + label.length(), end).trim());
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  void applyTo(Stats stats) {
+    stats.setKnowledge(stats.getKnowledge() + knowledge);
+    stats.setPatientCare(stats.getPatientCare() + patientCare);
+    stats.setEfficiency(stats.getEfficiency() + efficiency);
+    stats.setStress(stats.getStress() + stress);
+    stats.setReputation(stats.getReputation() + reputation);
+  }
+}
@@ -0,0 +1,40 @@
+package com.nursinggame;
+
+import java.util.random.RandomGenerator;
+
+// Picks options uniformly at random; useful as a "typical student" baseline
+public class RandomChoicePolicy implements ChoicePolicy {
+  private final RandomGenerator random;
+  private final double leaveEarlyChance;
+  private final double overtimeChance;
+
+  public RandomChoicePolicy(RandomGenerator random) {
+    this(random, 0.05, 0.5);
+  }
+
+  public RandomChoicePolicy(RandomGenerator random, double leaveEarlyChance, double overtimeChance) {
+    this.random = random;
+    this.leaveEarlyChance = leaveEarlyChance;
+    this.overtimeChance = overtimeChance;
+  }
+
+  @Override
+  public int chooseOption(Scenario scenario, Nurse nurse) {
+    return random.nextInt(scenario.getOptionCount());
+  }
+
+  @Override
+  public boolean leaveEarly(Nurse nurse) {
+    return random.nextDouble() < leaveEarlyChance;
+  }
+
+  @Override
+  public boolean workOvertime(Nurse nurse) {
+    return random.nextDouble() < overtimeChance;
+  }
+
+  @Override
+  public boolean continueToNextShift(Nurse nurse) {
+    return true;
+  }
+}
@@ -0,0 +1,184 @@
+package com.nursinggame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.random.RandomGenerator;
+
+// Fixed-width binary save of one career: the nurse (specialization, packed
+// stats, financials, name) and the engine's progress. A record is written
+// with absolute puts straight into the caller's buffer, so saving creates
+// no objects and records can be filled in any order, e.g. by parallel
+// simulation tasks writing into one mapped archive (see CareerArchive).
+//
+// Record layout (80 bytes; 6 and 7 are padding):
+//   0 version, 1 specialization, 2 flags, 3 current shift,
+//   4 consecutive shifts, 5 name length, 8 packed stats, 16 shift,
+//   20 salary, 28 savings, 36 expenses, 44 student loans, 52 balance
+//   (money as whole cents), 60 name (UTF-8, cut to 20 bytes)
+final class SaveGameCodec {
+  static final byte VERSION = 2;
+  static final int RECORD_BYTES = 80;
+
+  private static final int VERSION_FIELD = 0;
+  private static final int SPECIALIZATION = 1;
+  private static final int FLAGS = 2;
+  private static final int CURRENT_SHIFT = 3;
+  private static final int CONSECUTIVE_SHIFTS = 4;
+  private static final int NAME_LENGTH = 5;
+  private static final int STATS = 8;
+  private static final int SHIFT = 16;
+  private static final int SALARY = 20;
+  private static final int SAVINGS = 28;
+  private static final int EXPENSES = 36;
+  private static final int STUDENT_LOANS = 44;
+  private static final int BALANCE = 52;
+  private static final int NAME = 60;
+  private static final int MAX_NAME_BYTES = RECORD_BYTES - NAME;
+
+  private static final int FLAG_NEW_GRAD = 1;
+  private static final int FLAG_NIGHT_DIFFERENTIAL = 2;
+  private static final int FLAG_SHIFT_IN_PROGRESS = 4;
+
+  private static final Nurse.Specialization[] SPECIALIZATIONS = Nurse.Specialization.values();
+  private static final GameLoop.ShiftType[] SHIFT_TYPES = GameLoop.ShiftType.values();
+
+  private SaveGameCodec() {
+  }
+
+  // Writes the record at the buffer's position and moves past it
+  static void encode(SimulationEngine engine, ByteBuffer out) {
+    encode(engine, out, out.position());
+    out.position(out.position() + RECORD_BYTES);
+  }
+
+  static void encode(SimulationEngine engine, ByteBuffer out, int offset) {
+    Nurse nurse = engine.getNurse();
+    Financials financials = nurse.getFinancials();
+    int flags = (engine.isNewGrad() ? FLAG_NEW_GRAD : 0)
+        | (financials.hasNightShiftDifferential() ? FLAG_NIGHT_DIFFERENTIAL : 0)
+        | (engine.isShiftInProgress() ? FLAG_SHIFT_IN_PROGRESS : 0);
+
+    out.put(offset + VERSION_FIELD, VERSION);
+    out.put(offset + SPECIALIZATION, (byte) nurse.getSpecialization().ordinal());
+    out.put(offset + FLAGS, (byte) flags);
+    out.put(offset + CURRENT_SHIFT, (byte) engine.getCurrentShift().ordinal());
+    out.put(offset + CONSECUTIVE_SHIFTS, (byte) engine.getConsecutiveShifts());
+    out.put(offset + NAME_LENGTH, (byte) putName(nurse.getName(), out, offset + NAME));
+    out.put(offset + 6, (byte) 0);
+    out.put(offset + 7, (byte) 0);
+    out.putLong(offset + STATS, nurse.getStats().getPacked());
+    out.putInt(offset + SHIFT, engine.getShift());
+    out.putLong(offset + SALARY, financials.getSalaryCents());
+    out.putLong(offset + SAVINGS, financials.getSavingsCents());
+    out.putLong(offset + EXPENSES, financials.getExpensesCents());
+    out.putLong(offset + STUDENT_LOANS, financials.getStudentLoansCents());
+    out.putLong(offset + BALANCE, financials.getBalanceCents());
+  }
+
+  // Encodes the name as UTF-8 a character at a time, stopping before the
+  // first character that no longer fits; returns the bytes written
+  private static int putName(String name, ByteBuffer out, int offset) {
+    int length = 0;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (Character.isSurrogate(c)) {
+        c = '?';
+      }
+      int width = c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+      if (length + width > MAX_NAME_BYTES) {
+        break;
+      }
+      if (width == 1) {
+        out.put(offset + length, (byte) c);
+      } else if (width == 2) {
+        out.put(offset + length, (byte) (0xC0 | c >> 6));
+        out.put(offset + length + 1, (byte) (0x80 | c & 0x3F));
+      } else {
+        out.put(offset + length, (byte) (0xE0 | c >> 12));
+        out.put(offset + length + 1, (byte) (0x80 | c >> 6 & 0x3F));
+        out.put(offset + length + 2, (byte) (0x80 | c & 0x3F));
+      }
+      length += width;
+    }
+    for (int i = length; i < MAX_NAME_BYTES; i++) {
+      out.put(offset + i, (byte) 0);
+    }
+    return length;
+  }
+
+  // Reads the record at the buffer's position into a new engine ready to
+  // play on, and moves past it
+  static SimulationEngine decode(ByteBuffer in, ScenarioCatalog catalog, ChoicePolicy policy,
+      RandomGenerator random) {
+    SimulationEngine engine = decode(in, in.position(), catalog, policy, random);
+    in.position(in.position() + RECORD_BYTES);
+    return engine;
+  }
+
+  static SimulationEngine decode(ByteBuffer in, int offset, ScenarioCatalog catalog, ChoicePolicy policy,
+      RandomGenerator random) {
+    Nurse nurse = decodeNurse(in, offset);
+    int currentShift = in.get(offset + CURRENT_SHIFT);
+    int consecutiveShifts = in.get(offset + CONSECUTIVE_SHIFTS);
+    if (currentShift < 0 || currentShift >= SHIFT_TYPES.length
+        || consecutiveShifts < 0 || consecutiveShifts > SimulationEngine.MAX_CONSECUTIVE_SHIFTS
+        || in.getInt(offset + SHIFT) < 1) {
+      throw damaged(offset, "shift fields out of range");
+    }
+    int flags = in.get(offset + FLAGS);
+    SimulationEngine engine = new SimulationEngine(nurse, catalog, (flags & FLAG_NEW_GRAD) != 0,
+        SHIFT_TYPES[currentShift], policy, random);
+    engine.restore(in.getInt(offset + SHIFT), consecutiveShifts, (flags & FLAG_SHIFT_IN_PROGRESS) != 0);
+    return engine;
+  }
+
+  // Just the nurse, for callers that only look at the outcome of a career.
+  // A record cut short or with fields no encoder writes is rejected with
+  // an IllegalArgumentException rather than decoded into a broken nurse.
+  static Nurse decodeNurse(ByteBuffer in, int offset) {
+    if (offset < 0 || offset > in.limit() - RECORD_BYTES) {
+      throw damaged(offset, "record is truncated");
+    }
+    byte version = in.get(offset + VERSION_FIELD);
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported save version " + version);
+    }
+    int specialization = in.get(offset + SPECIALIZATION);
+    int nameLength = in.get(offset + NAME_LENGTH);
+    long stats = in.getLong(offset + STATS);
+    if (specialization < 0 || specialization >= SPECIALIZATIONS.length) {
+      throw damaged(offset, "unknown specialization " + specialization);
+    }
+    if (nameLength < 0 || nameLength > MAX_NAME_BYTES) {
+      throw damaged(offset, "name length " + nameLength);
+    }
+    if ((stats & ~StatsTable.LANES) != 0) {
+      throw damaged(offset, "stats out of range");
+    }
+    for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+      if (StatsTable.lane(stats, stat) > StatsTable.MAX_STAT) {
+        throw damaged(offset, "stats out of range");
+      }
+    }
+    byte[] name = new byte[nameLength];
+    in.get(offset + NAME, name);
+    Nurse nurse = new Nurse(new String(name, StandardCharsets.UTF_8), SPECIALIZATIONS[specialization]);
+    nurse.getStats().setPacked(stats);
+    nurse.getFinancials().restore(in.getLong(offset + SALARY), in.getLong(offset + SAVINGS),
+        in.getLong(offset + EXPENSES), in.getLong(offset + STUDENT_LOANS), in.getLong(offset + BALANCE),
+        (in.get(offset + FLAGS) & FLAG_NIGHT_DIFFERENTIAL) != 0);
+    return nurse;
+  }
+
+  private static IllegalArgumentException damaged(int offset, String problem) {
+    return new IllegalArgumentException("Save record at " + offset + " is damaged: " + problem);
+  }
+
+  static int decodeShift(ByteBuffer in, int offset) {
+    return in.getInt(offset + SHIFT);
+  }
+
+  static boolean decodeNewGrad(ByteBuffer in, int offset) {
+    return (in.get(offset + FLAGS) & FLAG_NEW_GRAD) != 0;
+  }
+}
@@ -0,0 +1,19 @@
+package com.nursinggame;
+
+// StatsTable.addClamped one row at a time
+final class ScalarCohortKernel implements CohortKernel {
+  @Override
+  public void apply(long[] rows, long increases, long decreases) {
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = StatsTable.addClamped(rows[i], increases, decreases);
+    }
+  }
+
+  @Override
+  public void apply(long[] rows, int[] indices, int count, long increases, long decreases) {
+    for (int i = 0; i < count; i++) {
+      int nurse = indices[i];
+      rows[nurse] = StatsTable.addClamped(rows[nurse], increases, decreases);
+    }
+  }
+}
@@ -1,76 +1,121 @@
 package com.nursinggame;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-public class Scenario {
-  private String title;
-  private String description;
-  private List<String> options;
-  private List<ScenarioOutcome> outcomes;
-  private int difficulty;
-  private Map<Integer, Scenario> followUpScenarios;
-  private List<Nurse.Specialization> requiredSpecializations;
-  private boolean isFollowUp;
+// Immutable once built, so one instance is safely shared by every session
+public final class Scenario {
+  private final int id;
+  private final String title;
+  private final String description;
+  private final List<String> options;
+  private final ScenarioOutcome[] outcomes;
+  private final int difficulty;
+  // Follow-up per option index, null where there is none
+  private final Scenario[] followUpScenarios;
+  private final List<Nurse.Specialization> requiredSpecializations;
+  private final int specializationMask;
+
+  private Scenario(Builder builder) {
+    this.id = builder.id;
+    this.title = builder.title;
+    this.description = builder.description;
+    this.difficulty = builder.difficulty;
+    this.options = List.copyOf(builder.options);
+    this.outcomes = builder.outcomes.toArray(new ScenarioOutcome[0]);
+    this.followUpScenarios = new Scenario[outcomes.length];
+    for (int i = 0; i < builder.followUps.size(); i++) {
+      int optionIndex = builder.followUpOptions.get(i);
+      if (optionIndex >= 0 && optionIndex < outcomes.length) {
+        followUpScenarios[optionIndex] = builder.followUps.get(i);
+      }
+    }
+    this.requiredSpecializations = List.copyOf(builder.requiredSpecializations);
+    int mask = 0;
+    for (Nurse.Specialization specialization : requiredSpecializations) {
+      mask |= 1 << specialization.ordinal();
+    }
+    this.specializationMask = mask;
+  }
+
+  public static class Builder {
+    private final int id;
+    private final String title;
+    private final String description;
+    private final int difficulty;
+    private final List<String> options = new ArrayList<>();
+    private final List<ScenarioOutcome> outcomes = new ArrayList<>();
+    private final List<Integer> followUpOptions = new ArrayList<>();
+    private final List<Scenario> followUps = new ArrayList<>();
+    private final List<Nurse.Specialization> requiredSpecializations = new ArrayList<>();
+
+    public Builder(String title, String description, int difficulty) {
+      this(-1, title, description, difficulty);
+    }
 
-  public Scenario(String title, String description, int difficulty) {
-    this.title = title;
-    this.description = description;
-    this.difficulty = difficulty;
-    this.options = new ArrayList<>();
-    this.outcomes = new ArrayList<>();
-    this.followUpScenarios = new HashMap<>();
-    this.requiredSpecializations = new ArrayList<>();
-    this.isFollowUp = false;
-  }
+    public Builder(int id, String title, String description, int difficulty) {
+      this.id = id;
+      this.title = title;
+      this.description = description;
+      this.difficulty = difficulty;
+    }
 
-  public Scenario addOption(String option, ScenarioOutcome outcome) {
-    options.add(option);
-    outcomes.add(outcome);
-    return this;
-  }
+    public Builder addOption(String option, ScenarioOutcome outcome) {
+      options.add(option);
+      outcomes.add(outcome);
+      return this;
+    }
 
-  public Scenario addFollowUp(int optionIndex, Scenario followUp) {
-    followUp.isFollowUp = true;
-    followUpScenarios.put(optionIndex, followUp);
-    return this;
-  }
+    public Builder addFollowUp(int optionIndex, Scenario followUp) {
+      followUpOptions.add(optionIndex);
+      followUps.add(followUp);
+      return this;
+    }
 
-  public Scenario addRequiredSpecialization(Nurse.Specialization specialization) {
-    requiredSpecializations.add(specialization);
-    return this;
+    public Builder addRequiredSpecialization(Nurse.Specialization specialization) {
+      requiredSpecializations.add(specialization);
+      return this;
+    }
+
+    public Scenario build() {
+      return new Scenario(this);
+    }
   }
 
   public boolean isApplicableToNurse(Nurse nurse) {
-    if (requiredSpecializations.isEmpty()) {
-      return true; // Scenario applies to all specializations
-    }
-    return requiredSpecializations.contains(nurse.getSpecialization());
+    return isApplicableTo(nurse.getSpecialization());
+  }
+
+  public boolean isApplicableTo(Nurse.Specialization specialization) {
+    // An empty mask means the scenario applies to all specializations
+    return specializationMask == 0 || (specializationMask & (1 << specialization.ordinal())) != 0;
   }
 
   public ScenarioResult selectOption(int choice, Nurse nurse) {
-    if (choice >= 0 && choice < outcomes.size()) {
-      ScenarioOutcome outcome = outcomes.get(choice);
+    if (choice >= 0 && choice < outcomes.length) {
+      ScenarioOutcome outcome = outcomes[choice];
       if (nurse != null) {
         outcome.apply(nurse);
       }
 
       // Check if there's a follow-up scenario
-      Scenario followUp = followUpScenarios.get(choice);
-      return new ScenarioResult(outcome, followUp);
+      return new ScenarioResult(outcome, followUpScenarios[choice]);
     }
     return new ScenarioResult(null, null);
   }
 
   public ScenarioOutcome previewOutcome(int choice) {
-    if (choice >= 0 && choice < outcomes.size()) {
-      return outcomes.get(choice);
+    if (choice >= 0 && choice < outcomes.length) {
+      return outcomes[choice];
     }
     return null;
   }
 
+  // Stable catalog id, or -1 for scenarios built in code
+  public int getId() {
+    return id;
+  }
+
   public String getTitle() {
     return title;
   }
@@ -80,7 +125,15 @@ public class Scenario {
   }
 
   public List<String> getOptions() {
-    return new ArrayList<>(options);
+    return options;
+  }
+
+  public int getOptionCount() {
+    return outcomes.length;
+  }
+
+  public String getOption(int choice) {
+    return options.get(choice);
   }
 
   public int getDifficulty() {
@@ -88,7 +141,15 @@ public class Scenario {
   }
 
   public boolean hasFollowUp(int choice) {
-    return followUpScenarios.containsKey(choice);
+    return getFollowUp(choice) != null;
+  }
+
+  Scenario getFollowUp(int choice) {
+    return choice >= 0 && choice < followUpScenarios.length ? followUpScenarios[choice] : null;
+  }
+
+  List<Nurse.Specialization> getRequiredSpecializations() {
+    return requiredSpecializations;
   }
 
   @Override
@@ -103,86 +164,3 @@ public class Scenario {
     return sb.toString();
   }
 }
-
-class ScenarioResult {
-  private final ScenarioOutcome outcome;
-  private final Scenario followUpScenario;
-
-  public ScenarioResult(ScenarioOutcome outcome, Scenario followUpScenario) {
-    this.outcome = outcome;
-    this.followUpScenario = followUpScenario;
-  }
-
-  public ScenarioOutcome getOutcome() {
-    return outcome;
-  }
-
-  public Scenario getFollowUpScenario() {
-    return followUpScenario;
-  }
-
-  public boolean hasFollowUp() {
-    return followUpScenario != null;
-  }
-}
-
-class ScenarioOutcome {
-  private String description;
-  private int knowledgeChange;
-  private int patientCareChange;
-  private int efficiencyChange;
-  private int stressChange;
-  private double financialChange;
-
-  public ScenarioOutcome(String description, int knowledgeChange, int patientCareChange,
-      int efficiencyChange, int stressChange, double financialChange) {
-    this.description = description;
-    this.knowledgeChange = knowledgeChange;
-    this.patientCareChange = patientCareChange;
-    this.efficiencyChange = efficiencyChange;
-    this.stressChange = stressChange;
-    this.financialChange = financialChange;
-  }
-
-  public void apply(Nurse nurse) {
-    Stats stats = nurse.getStats();
-    Financials financials = nurse.getFinancials();
-
-    if (knowledgeChange != 0)
-      stats.improveKnowledge(knowledgeChange);
-    if (patientCareChange != 0)
-      stats.improvePatientCare(patientCareChange);
-    if (efficiencyChange != 0)
-      stats.improveEfficiency(efficiencyChange);
-    if (stressChange > 0)
-      stats.addStress(stressChange);
-    if (stressChange < 0)
-      stats.reduceStress(-stressChange);
-    if (financialChange != 0)
-      financials.makePayment(-financialChange);
-  }
-
-  public String getDescription() {
-    return description;
-  }
-
-  public int getKnowledgeChange() {
-    return knowledgeChange;
-  }
-
-  public int getPatientCareChange() {
-    return patientCareChange;
-  }
-
-  public int getEfficiencyChange() {
-    return efficiencyChange;
-  }
-
-  public int getStressChange() {
-    return stressChange;
-  }
-
-  public double getFinancialChange() {
-    return financialChange;
-  }
-}
\ No newline at end of file
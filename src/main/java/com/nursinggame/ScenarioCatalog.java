@@ -0,0 +1,188 @@
+package com.nursinggame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Every scenario for both experience levels. Immutable after construction:
+// all sessions in the process share the instance from shared() instead of
+// building their own copy of the scenario graph.
+public final class ScenarioCatalog {
+  private static final int LEVELS = 2;
+  private static final int SHIFT_KINDS = 2;
+
+  // Placed scenarios in file order, indexed by listIndex()
+  private final List<List<Scenario>> placedScenarios;
+  // Scenarios applicable to each (level, day/night, specialization), indexed by poolIndex()
+  private final Scenario[][] pools;
+  // Every scenario in the catalog, including follow-ups, indexed by id
+  private final Scenario[] scenariosById;
+  // Built on first use. A reloaded catalog is a new instance, so it never
+  // sees a table built from the old scenarios.
+  private volatile ExpectedOutcomeTable expectedOutcomes;
+  private volatile ScenarioWeights scenarioWeights;
+
+  private static final class Holder {
+    static final ScenarioCatalog SHARED = new ScenarioCatalog(ScenarioCatalogFile.load());
+  }
+
+  public static ScenarioCatalog shared() {
+    return Holder.SHARED;
+  }
+
+  ScenarioCatalog(List<ScenarioCatalogFile.Definition> definitions) {
+    this.scenariosById = buildScenarios(definitions);
+
+    List<List<Scenario>> placed = new ArrayList<>();
+    for (int i = 0; i < LEVELS * SHIFT_KINDS; i++) {
+      placed.add(new ArrayList<>());
+    }
+    for (ScenarioCatalogFile.Definition definition : definitions) {
+      if (definition.placement != ScenarioCatalogFile.FOLLOW_UP_ONLY) {
+        boolean night = definition.placement == ScenarioCatalogFile.NIGHT;
+        placed.get(listIndex(definition.newGrad, night)).add(scenariosById[definition.id]);
+      }
+    }
+    for (int i = 0; i < placed.size(); i++) {
+      placed.set(i, List.copyOf(placed.get(i)));
+    }
+    this.placedScenarios = List.copyOf(placed);
+    this.pools = buildPools();
+  }
+
+  private static Scenario[] buildScenarios(List<ScenarioCatalogFile.Definition> definitions) {
+    int maxId = 0;
+    for (ScenarioCatalogFile.Definition definition : definitions) {
+      maxId = Math.max(maxId, definition.id);
+    }
+
+    ScenarioCatalogFile.Definition[] definitionsById = new ScenarioCatalogFile.Definition[maxId + 1];
+    for (ScenarioCatalogFile.Definition definition : definitions) {
+      if (definitionsById[definition.id] != null) {
+        throw new IllegalArgumentException("Duplicate scenario id " + definition.id);
+      }
+      definitionsById[definition.id] = definition;
+    }
+
+    Scenario[] byId = new Scenario[maxId + 1];
+    boolean[] inProgress = new boolean[maxId + 1];
+    for (ScenarioCatalogFile.Definition definition : definitions) {
+      build(definition.id, definitionsById, byId, inProgress);
+    }
+    return byId;
+  }
+
+  // Scenarios are immutable, so follow-ups have to be built before the
+  // scenarios that lead to them
+  private static Scenario build(int id, ScenarioCatalogFile.Definition[] definitionsById, Scenario[] byId,
+      boolean[] inProgress) {
+    if (byId[id] != null) {
+      return byId[id];
+    }
+    if (inProgress[id]) {
+      throw new IllegalArgumentException("Scenario " + id + " is its own follow-up");
+    }
+    inProgress[id] = true;
+
+    ScenarioCatalogFile.Definition definition = definitionsById[id];
+    Scenario.Builder builder = new Scenario.Builder(definition.id, definition.title, definition.description,
+        definition.difficulty);
+    for (int i = 0; i < definition.options.size(); i++) {
+      ScenarioCatalogFile.OptionDefinition option = definition.options.get(i);
+      builder.addOption(option.text, new ScenarioOutcome(option.outcome, option.knowledgeChange,
+          option.patientCareChange, option.efficiencyChange, option.stressChange, option.financialChange));
+      if (option.followUpId >= 0) {
+        if (option.followUpId >= definitionsById.length || definitionsById[option.followUpId] == null) {
+          throw new IllegalArgumentException(
+              "Scenario " + id + " has a follow-up to unknown scenario " + option.followUpId);
+        }
+        builder.addFollowUp(i, build(option.followUpId, definitionsById, byId, inProgress));
+      }
+    }
+    for (Nurse.Specialization specialization : Nurse.Specialization.values()) {
+      if ((definition.specializationMask & (1 << specialization.ordinal())) != 0) {
+        builder.addRequiredSpecialization(specialization);
+      }
+    }
+
+    byId[id] = builder.build();
+    inProgress[id] = false;
+    return byId[id];
+  }
+
+  private Scenario[][] buildPools() {
+    Nurse.Specialization[] specializations = Nurse.Specialization.values();
+    Scenario[][] result = new Scenario[poolCount()][];
+    for (int level = 0; level < LEVELS; level++) {
+      boolean isNewGrad = level == 1;
+      for (int kind = 0; kind < SHIFT_KINDS; kind++) {
+        boolean night = kind == 1;
+        for (Nurse.Specialization specialization : specializations) {
+          result[poolIndex(isNewGrad, night, specialization)] = placedScenarios.get(listIndex(isNewGrad, night))
+              .stream()
+              .filter(s -> s.isApplicableTo(specialization))
+              .toArray(Scenario[]::new);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static int listIndex(boolean isNewGrad, boolean nightShift) {
+    return (isNewGrad ? SHIFT_KINDS : 0) + (nightShift ? 1 : 0);
+  }
+
+  static int poolIndex(boolean isNewGrad, boolean nightShift, Nurse.Specialization specialization) {
+    return listIndex(isNewGrad, nightShift) * Nurse.Specialization.values().length + specialization.ordinal();
+  }
+
+  static int poolCount() {
+    return LEVELS * SHIFT_KINDS * Nurse.Specialization.values().length;
+  }
+
+  // Shared array; callers must not modify it
+  Scenario[] getPool(boolean isNewGrad, boolean nightShift, Nurse.Specialization specialization) {
+    return pools[poolIndex(isNewGrad, nightShift, specialization)];
+  }
+
+  public List<Scenario> getDayScenarios(boolean isNewGrad) {
+    return placedScenarios.get(listIndex(isNewGrad, false));
+  }
+
+  public List<Scenario> getNightScenarios(boolean isNewGrad) {
+    return placedScenarios.get(listIndex(isNewGrad, true));
+  }
+
+  public List<Scenario> getScenarios(boolean isNewGrad, GameLoop.ShiftType shiftType) {
+    return placedScenarios.get(listIndex(isNewGrad, shiftType.isNightShift()));
+  }
+
+  // Returns null for ids not in the catalog
+  public Scenario getScenario(int id) {
+    return id >= 0 && id < scenariosById.length ? scenariosById[id] : null;
+  }
+
+  // Building twice in a race is harmless: both tables are identical
+  ExpectedOutcomeTable getExpectedOutcomes() {
+    ExpectedOutcomeTable table = expectedOutcomes;
+    if (table == null) {
+      table = new ExpectedOutcomeTable(this);
+      expectedOutcomes = table;
+    }
+    return table;
+  }
+
+  // Same as getExpectedOutcomes
+  ScenarioWeights getScenarioWeights() {
+    ScenarioWeights weights = scenarioWeights;
+    if (weights == null) {
+      weights = new ScenarioWeights(this);
+      scenarioWeights = weights;
+    }
+    return weights;
+  }
+
+  // One past the largest scenario id, for sizing per-scenario tables
+  public int getIdLimit() {
+    return scenariosById.length;
+  }
+}
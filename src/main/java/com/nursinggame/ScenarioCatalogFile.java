@@ -0,0 +1,403 @@
+package com.nursinggame;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+// Reads the scenario catalog from the scenarios.txt resource. The parsed
+// catalog is also written to a binary snapshot keyed by the resource's
+// checksum; later starts memory-map that snapshot instead of parsing text.
+// The snapshot lives in the user's own ~/.nursing-game and is only used if
+// that user owns it and nobody else can write it.
+final class ScenarioCatalogFile {
+  static final String RESOURCE = "/scenarios.txt";
+  static final int MAX_ID = 0xFFFF;
+  // The snapshot stores these in a byte each and text in 64 KiB
+  static final int MAX_DIFFICULTY = Byte.MAX_VALUE;
+  static final int MAX_OPTIONS = Byte.MAX_VALUE;
+  static final int MAX_TEXT_BYTES = 0xFFFF;
+
+  static final int FOLLOW_UP_ONLY = 0;
+  static final int DAY = 1;
+  static final int NIGHT = 2;
+
+  private static final int MAGIC = 0x4E475343; // "NGSC"
+  private static final short VERSION = 1;
+
+  private ScenarioCatalogFile() {
+  }
+
+  static final class Definition {
+    int id;
+    boolean newGrad;
+    int placement = FOLLOW_UP_ONLY;
+    int difficulty;
+    int specializationMask;
+    String title;
+    String description;
+    final List<OptionDefinition> options = new ArrayList<>();
+  }
+
+  static final class OptionDefinition {
+    String text;
+    String outcome;
+    int knowledgeChange;
+    int patientCareChange;
+    int efficiencyChange;
+    int stressChange;
+    double financialChange;
+    int followUpId = -1;
+  }
+
+  static List<Definition> load() {
+    byte[] source = readResource();
+    CRC32 crc = new CRC32();
+    crc.update(source);
+    long checksum = crc.getValue();
+
+    Path cache = cachePath();
+    List<Definition> definitions = readCache(cache, checksum);
+    if (definitions == null) {
+      definitions = parse(source);
+      writeCache(cache, checksum, definitions);
+    }
+    return definitions;
+  }
+
+  static Path cachePath() {
+    String configured = System.getProperty("nursinggame.scenarioCache");
+    if (configured != null) {
+      return Paths.get(configured);
+    }
+    return Paths.get(System.getProperty("user.home"), ".nursing-game", "scenarios.bin");
+  }
+
+  private static byte[] readResource() {
+    try (InputStream in = ScenarioCatalogFile.class.getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        throw new IllegalStateException("Scenario catalog resource " + RESOURCE + " not found");
+      }
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static List<Definition> parse(byte[] source) {
+    List<Definition> definitions = new ArrayList<>();
+    Definition current = null;
+    OptionDefinition option = null;
+    int lineNumber = 0;
+
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        line = line.strip();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        int space = line.indexOf(' ');
+        String key = space < 0 ? line : line.substring(0, space);
+        String value = space < 0 ? "" : line.substring(space + 1).strip();
+
+        if (key.equals("scenario")) {
+          if (current != null) {
+            throw error(lineNumber, "missing 'end' before new scenario");
+          }
+          current = new Definition();
+          current.id = parseId(value, lineNumber);
+          option = null;
+          continue;
+        }
+        if (current == null) {
+          throw error(lineNumber, "'" + key + "' outside a scenario block");
+        }
+
+        switch (key) {
+          case "level" -> current.newGrad = switch (value) {
+            case "NEW_GRAD" -> true;
+            case "EXPERIENCED" -> false;
+            default -> throw error(lineNumber, "unknown level " + value);
+          };
+          case "shift" -> current.placement = switch (value) {
+            case "DAY" -> DAY;
+            case "NIGHT" -> NIGHT;
+            default -> throw error(lineNumber, "unknown shift " + value);
+          };
+          case "difficulty" -> current.difficulty = parseInt(value, lineNumber);
+          case "requires" -> {
+            try {
+              current.specializationMask |= 1 << Nurse.Specialization.valueOf(value).ordinal();
+            } catch (IllegalArgumentException e) {
+              throw error(lineNumber, "unknown specialization " + value);
+            }
+          }
+          case "title" -> current.title = value;
+          case "description" -> current.description = value;
+          case "option" -> {
+            option = new OptionDefinition();
+            option.text = value;
+            current.options.add(option);
+          }
+          case "outcome" -> {
+            if (option == null || option.outcome != null) {
+              throw error(lineNumber, "outcome without a preceding option");
+            }
+            String[] parts = value.split(" ", 6);
+            if (parts.length < 6) {
+              throw error(lineNumber, "outcome needs five numbers and a description");
+            }
+            option.knowledgeChange = parseInt(parts[0], lineNumber);
+            option.patientCareChange = parseInt(parts[1], lineNumber);
+            option.efficiencyChange = parseInt(parts[2], lineNumber);
+            option.stressChange = parseInt(parts[3], lineNumber);
+            try {
+              option.financialChange = Double.parseDouble(parts[4]);
+            } catch (NumberFormatException e) {
+              throw error(lineNumber, "bad financial change " + parts[4]);
+            }
+            option.outcome = parts[5];
+          }
+          case "followup" -> {
+            String[] parts = value.split(" ");
+            if (parts.length != 2) {
+              throw error(lineNumber, "followup needs an option number and a scenario id");
+            }
+            int optionNumber = parseInt(parts[0], lineNumber);
+            if (optionNumber < 1 || optionNumber > current.options.size()) {
+              throw error(lineNumber, "followup refers to missing option " + optionNumber);
+            }
+            current.options.get(optionNumber - 1).followUpId = parseId(parts[1], lineNumber);
+          }
+          case "end" -> {
+            validate(current, lineNumber);
+            definitions.add(current);
+            current = null;
+            option = null;
+          }
+          default -> throw error(lineNumber, "unknown key '" + key + "'");
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (current != null) {
+      throw error(lineNumber, "scenario " + current.id + " is missing 'end'");
+    }
+    return definitions;
+  }
+
+  private static void validate(Definition definition, int lineNumber) {
+    if (definition.title == null || definition.description == null) {
+      throw error(lineNumber, "scenario " + definition.id + " needs a title and description");
+    }
+    if (definition.difficulty < 0 || definition.difficulty > MAX_DIFFICULTY) {
+      throw error(lineNumber, "scenario " + definition.id + " difficulty must be between 0 and " + MAX_DIFFICULTY);
+    }
+    if (definition.options.isEmpty()) {
+      throw error(lineNumber, "scenario " + definition.id + " has no options");
+    }
+    if (definition.options.size() > MAX_OPTIONS) {
+      throw error(lineNumber, "scenario " + definition.id + " has more than " + MAX_OPTIONS + " options");
+    }
+    if (!isText(definition.title) || !isText(definition.description)) {
+      throw error(lineNumber, "scenario " + definition.id + " text is longer than " + MAX_TEXT_BYTES + " bytes");
+    }
+    for (OptionDefinition option : definition.options) {
+      if (option.outcome == null) {
+        throw error(lineNumber, "scenario " + definition.id + " option '" + option.text + "' has no outcome");
+      }
+      if (!isText(option.text) || !isText(option.outcome)) {
+        throw error(lineNumber, "scenario " + definition.id + " text is longer than " + MAX_TEXT_BYTES + " bytes");
+      }
+      if (!isStatDelta(option.knowledgeChange) || !isStatDelta(option.patientCareChange)
+          || !isStatDelta(option.efficiencyChange) || !isStatDelta(option.stressChange)) {
+        throw error(lineNumber, "scenario " + definition.id + " stat changes must be between -100 and 100");
+      }
+    }
+  }
+
+  private static boolean isStatDelta(int value) {
+    return value >= -100 && value <= 100;
+  }
+
+  private static boolean isText(String value) {
+    return value.length() <= MAX_TEXT_BYTES / 3 || value.getBytes(StandardCharsets.UTF_8).length <= MAX_TEXT_BYTES;
+  }
+
+  private static int parseId(String value, int lineNumber) {
+    int id = parseInt(value, lineNumber);
+    if (id < 1 || id > MAX_ID) {
+      throw error(lineNumber, "scenario id must be between 1 and " + MAX_ID);
+    }
+    return id;
+  }
+
+  private static int parseInt(String value, int lineNumber) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw error(lineNumber, "expected a number but found '" + value + "'");
+    }
+  }
+
+  private static IllegalArgumentException error(int lineNumber, String message) {
+    return new IllegalArgumentException(RESOURCE + " line " + lineNumber + ": " + message);
+  }
+
+  // Returns null when the snapshot is missing, stale, unreadable or not
+  // trusted
+  static List<Definition> readCache(Path cache, long checksum) {
+    try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+      if (!isTrusted(cache)) {
+        return null;
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION || buffer.getLong() != checksum) {
+        return null;
+      }
+      int count = buffer.getInt();
+      List<Definition> definitions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        Definition definition = new Definition();
+        definition.id = buffer.getShort() & 0xFFFF;
+        definition.newGrad = buffer.get() != 0;
+        definition.placement = buffer.get();
+        definition.difficulty = buffer.get();
+        definition.specializationMask = buffer.get();
+        definition.title = getString(buffer);
+        definition.description = getString(buffer);
+        int optionCount = buffer.get();
+        for (int j = 0; j < optionCount; j++) {
+          OptionDefinition option = new OptionDefinition();
+          option.text = getString(buffer);
+          option.outcome = getString(buffer);
+          option.knowledgeChange = buffer.get();
+          option.patientCareChange = buffer.get();
+          option.efficiencyChange = buffer.get();
+          option.stressChange = buffer.get();
+          option.financialChange = buffer.getDouble();
+          option.followUpId = buffer.getInt();
+          definition.options.add(option);
+        }
+        validate(definition, 0);
+        definitions.add(definition);
+      }
+      return definitions;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      // A truncated or foreign file is treated like a missing one
+      return null;
+    }
+  }
+
+  // Owned by this user and writable by nobody else, where the file system
+  // can tell
+  private static boolean isTrusted(Path cache) throws IOException {
+    try {
+      UserPrincipal self = cache.getFileSystem().getUserPrincipalLookupService()
+          .lookupPrincipalByName(System.getProperty("user.name"));
+      if (!Files.getOwner(cache).equals(self)) {
+        return false;
+      }
+    } catch (UnsupportedOperationException e) {
+      // No owners on this file system
+    }
+    try {
+      Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(cache);
+      return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+          && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    } catch (UnsupportedOperationException e) {
+      return true;
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  // Best effort: the game still works if the snapshot cannot be written
+  static void writeCache(Path cache, long checksum, List<Definition> definitions) {
+    try {
+      Path parent = cache.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      Path temp = Files.createTempFile(parent, "scenarios", ".tmp");
+      try {
+        writeSnapshot(temp, checksum, definitions);
+        try {
+          Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      System.err.println("Could not write scenario cache " + cache + ": " + e.getMessage());
+    }
+  }
+
+  private static void writeSnapshot(Path temp, long checksum, List<Definition> definitions) throws IOException {
+    try (OutputStream file = Files.newOutputStream(temp);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+      out.writeLong(checksum);
+      out.writeInt(definitions.size());
+      for (Definition definition : definitions) {
+        out.writeShort(definition.id);
+        out.writeByte(definition.newGrad ? 1 : 0);
+        out.writeByte(definition.placement);
+        out.writeByte(definition.difficulty);
+        out.writeByte(definition.specializationMask);
+        putString(out, definition.title);
+        putString(out, definition.description);
+        out.writeByte(definition.options.size());
+        for (OptionDefinition option : definition.options) {
+          putString(out, option.text);
+          putString(out, option.outcome);
+          out.writeByte(option.knowledgeChange);
+          out.writeByte(option.patientCareChange);
+          out.writeByte(option.efficiencyChange);
+          out.writeByte(option.stressChange);
+          out.writeDouble(option.financialChange);
+          out.writeInt(option.followUpId);
+        }
+      }
+    }
+  }
+
+  private static void putString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+}
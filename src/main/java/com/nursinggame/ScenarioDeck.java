@@ -0,0 +1,43 @@
+package com.nursinggame;
+
+import java.util.random.RandomGenerator;
+
+// Draws scenarios from one pool without replacement using a partial
+// Fisher-Yates shuffle over an index array. The array stays a permutation
+// of the pool between shifts, so reset() and draw() never allocate.
+class ScenarioDeck implements ScenarioSelector {
+  private final Scenario[] pool;
+  private final int[] order;
+  private int drawn;
+
+  ScenarioDeck(Scenario[] pool) {
+    this.pool = pool;
+    this.order = new int[pool.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    this.drawn = 0;
+  }
+
+  @Override
+  public void reset() {
+    drawn = 0;
+  }
+
+  @Override
+  public Scenario draw(RandomGenerator random) {
+    int remaining = order.length - drawn;
+    if (remaining <= 0) {
+      return null;
+    }
+    int pick = drawn + random.nextInt(remaining);
+    int index = order[pick];
+    order[pick] = order[drawn];
+    order[drawn++] = index;
+    return pool[index];
+  }
+
+  int size() {
+    return pool.length;
+  }
+}
@@ -0,0 +1,71 @@
+package com.nursinggame;
+
+final class ScenarioOutcome {
+  private final String description;
+  private final int knowledgeChange;
+  private final int patientCareChange;
+  private final int efficiencyChange;
+  private final int stressChange;
+  private final double financialChange;
+  private final long financialChangeCents;
+  // Stat changes packed for StatsTable.addClamped
+  private final long statIncreases;
+  private final long statDecreases;
+
+  public ScenarioOutcome(String description, int knowledgeChange, int patientCareChange,
+      int efficiencyChange, int stressChange, double financialChange) {
+    this.description = description;
+    this.knowledgeChange = knowledgeChange;
+    this.patientCareChange = patientCareChange;
+    this.efficiencyChange = efficiencyChange;
+    this.stressChange = stressChange;
+    this.financialChange = financialChange;
+    this.financialChangeCents = Financials.toCents(financialChange);
+
+    int[] changes = new int[StatsTable.STAT_COUNT];
+    changes[StatsTable.KNOWLEDGE] = knowledgeChange;
+    changes[StatsTable.PATIENT_CARE] = patientCareChange;
+    changes[StatsTable.EFFICIENCY] = efficiencyChange;
+    changes[StatsTable.STRESS] = stressChange;
+    this.statIncreases = StatsTable.packChanges(changes, 1);
+    this.statDecreases = StatsTable.packChanges(changes, -1);
+  }
+
+  public void apply(Nurse nurse) {
+    nurse.getStats().applyChanges(statIncreases, statDecreases);
+    if (financialChangeCents != 0)
+      nurse.getFinancials().makePaymentCents(-financialChangeCents);
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public int getKnowledgeChange() {
+    return knowledgeChange;
+  }
+
+  public int getPatientCareChange() {
+    return patientCareChange;
+  }
+
+  public int getEfficiencyChange() {
+    return efficiencyChange;
+  }
+
+  public int getStressChange() {
+    return stressChange;
+  }
+
+  public double getFinancialChange() {
+    return financialChange;
+  }
+
+  long getStatIncreases() {
+    return statIncreases;
+  }
+
+  long getStatDecreases() {
+    return statDecreases;
+  }
+}
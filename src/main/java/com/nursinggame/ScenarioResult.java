@@ -0,0 +1,23 @@
+package com.nursinggame;
+
+final class ScenarioResult {
+  private final ScenarioOutcome outcome;
+  private final Scenario followUpScenario;
+
+  public ScenarioResult(ScenarioOutcome outcome, Scenario followUpScenario) {
+    this.outcome = outcome;
+    this.followUpScenario = followUpScenario;
+  }
+
+  public ScenarioOutcome getOutcome() {
+    return outcome;
+  }
+
+  public Scenario getFollowUpScenario() {
+    return followUpScenario;
+  }
+
+  public boolean hasFollowUp() {
+    return followUpScenario != null;
+  }
+}
@@ -0,0 +1,14 @@
+package com.nursinggame;
+
+import java.util.random.RandomGenerator;
+
+// Picks the scenarios of one shift from a pool, never the same one twice
+// between resets: ScenarioDeck uniformly, WeightedScenarioDeck adapted to
+// the nurse.
+interface ScenarioSelector {
+  // Called at the start of every shift
+  void reset();
+
+  // Returns null once every scenario in the pool has been drawn since reset()
+  Scenario draw(RandomGenerator random);
+}
@@ -0,0 +1,110 @@
+package com.nursinggame;
+
+// How strongly WeightedScenarioDeck favours each scenario, before recency.
+// A scenario's base weight depends on two things about the nurse at the
+// start of a shift:
+//  - its difficulty against a target that rises with knowledge from the
+//    catalog's easiest difficulty to its hardest, weighted
+//    1 / (1 + distance);
+//  - the weak stats (knowledge, patient care or efficiency below
+//    WEAK_STAT, stress above 100 - WEAK_STAT) that one of its options
+//    improves, each adding WEAK_STAT_BOOST to a weight of 1.
+// So a pool's weights only change when the target or the set of weak
+// stats does, and there are few of those: each (pool, weak stats, target)
+// gets one alias table, all built up front so that no shift allocates one,
+// and shared by every session. Built once per catalog (see
+// ScenarioCatalog.getScenarioWeights).
+final class ScenarioWeights {
+  static final int WEAK_STAT = 40;
+  static final double WEAK_STAT_BOOST = 1.0;
+
+  // Knowledge, patient care, efficiency and stress can be weak
+  private static final int WEAK_MASKS = 1 << (StatsTable.STRESS + 1);
+
+  private final int[] difficulties;
+  // Bit per StatsTable stat that at least one option improves
+  private final int[] improvements;
+  private final int minDifficulty;
+  private final int targets;
+  // Null for an empty pool
+  private final AliasTable[] tables;
+
+  ScenarioWeights(ScenarioCatalog catalog) {
+    int idLimit = catalog.getIdLimit();
+    this.difficulties = new int[idLimit];
+    this.improvements = new int[idLimit];
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (int id = 0; id < idLimit; id++) {
+      Scenario scenario = catalog.getScenario(id);
+      if (scenario == null) {
+        continue;
+      }
+      difficulties[id] = scenario.getDifficulty();
+      min = Math.min(min, scenario.getDifficulty());
+      max = Math.max(max, scenario.getDifficulty());
+      for (int option = 0; option < scenario.getOptionCount(); option++) {
+        ScenarioOutcome outcome = scenario.previewOutcome(option);
+        if (outcome.getKnowledgeChange() > 0) {
+          improvements[id] |= 1 << StatsTable.KNOWLEDGE;
+        }
+        if (outcome.getPatientCareChange() > 0) {
+          improvements[id] |= 1 << StatsTable.PATIENT_CARE;
+        }
+        if (outcome.getEfficiencyChange() > 0) {
+          improvements[id] |= 1 << StatsTable.EFFICIENCY;
+        }
+        if (outcome.getStressChange() < 0) {
+          improvements[id] |= 1 << StatsTable.STRESS;
+        }
+      }
+    }
+    this.minDifficulty = min == Integer.MAX_VALUE ? 0 : min;
+    this.targets = max == Integer.MIN_VALUE ? 1 : max - min + 1;
+    this.tables = new AliasTable[ScenarioCatalog.poolCount() * WEAK_MASKS * targets];
+    for (boolean isNewGrad : new boolean[] {false, true}) {
+      for (boolean nightShift : new boolean[] {false, true}) {
+        for (Nurse.Specialization specialization : Nurse.Specialization.values()) {
+          Scenario[] pool = catalog.getPool(isNewGrad, nightShift, specialization);
+          if (pool.length == 0) {
+            continue;
+          }
+          int poolIndex = ScenarioCatalog.poolIndex(isNewGrad, nightShift, specialization);
+          for (int key = 0; key < WEAK_MASKS * targets; key++) {
+            double[] weights = new double[pool.length];
+            for (int i = 0; i < pool.length; i++) {
+              weights[i] = weight(pool[i], key);
+            }
+            tables[poolIndex * WEAK_MASKS * targets + key] = new AliasTable(weights);
+          }
+        }
+      }
+    }
+  }
+
+  // Identifies the nurse's weak stats and difficulty target; equal keys
+  // mean equal weights
+  int key(long stats) {
+    int knowledge = StatsTable.lane(stats, StatsTable.KNOWLEDGE);
+    int weak = (knowledge < WEAK_STAT ? 1 << StatsTable.KNOWLEDGE : 0)
+        | (StatsTable.lane(stats, StatsTable.PATIENT_CARE) < WEAK_STAT ? 1 << StatsTable.PATIENT_CARE : 0)
+        | (StatsTable.lane(stats, StatsTable.EFFICIENCY) < WEAK_STAT ? 1 << StatsTable.EFFICIENCY : 0)
+        | (StatsTable.lane(stats, StatsTable.STRESS) > StatsTable.MAX_STAT - WEAK_STAT ? 1 << StatsTable.STRESS : 0);
+    int target = (knowledge * (targets - 1) + StatsTable.MAX_STAT / 2) / StatsTable.MAX_STAT;
+    return target * WEAK_MASKS + weak;
+  }
+
+  double weight(Scenario scenario, int key) {
+    int id = scenario.getId();
+    int target = minDifficulty + key / WEAK_MASKS;
+    int weak = key % WEAK_MASKS;
+    double difficulty = 1.0 / (1 + Math.abs(difficulties[id] - target));
+    return difficulty * (1 + WEAK_STAT_BOOST * Integer.bitCount(improvements[id] & weak));
+  }
+
+  // The table for a catalog pool, indexed like the pool; null for an
+  // empty pool
+  AliasTable table(int poolIndex, int key) {
+    return tables[poolIndex * WEAK_MASKS * targets + key];
+  }
+}
@@ -0,0 +1,42 @@
+package com.nursinggame;
+
+// Replays a fixed list of answers in the order the game asks for them:
+// option indexes for scenarios, 1/0 for yes/no questions. Quits once the
+// script runs out.
+public class ScriptedChoicePolicy implements ChoicePolicy {
+  private final int[] script;
+  private int position;
+
+  public ScriptedChoicePolicy(int... script) {
+    this.script = script;
+    this.position = 0;
+  }
+
+  private int next() {
+    return position < script.length ? script[position++] : 0;
+  }
+
+  public boolean isExhausted() {
+    return position >= script.length;
+  }
+
+  @Override
+  public int chooseOption(Scenario scenario, Nurse nurse) {
+    return next();
+  }
+
+  @Override
+  public boolean leaveEarly(Nurse nurse) {
+    return next() == 1;
+  }
+
+  @Override
+  public boolean workOvertime(Nurse nurse) {
+    return next() == 1;
+  }
+
+  @Override
+  public boolean continueToNextShift(Nurse nurse) {
+    return !isExhausted() && next() == 1;
+  }
+}
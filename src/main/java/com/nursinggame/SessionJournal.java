@@ -0,0 +1,427 @@
+package com.nursinggame;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+// Append-only record of one career: every state change the engine makes
+// is a fixed-width 16-byte event written into a memory-mapped file, so an
+// append is a handful of stores with no system call. Two snapshot slots
+// hold the nurse and engine state as of a recent shift boundary; resuming
+// loads the newer slot and replays the events recorded after it. The
+// header also keeps the career's RNG seed, so CareerReplay can re-run the
+// whole career from the start instead.
+//
+// A journal is open in at most one session of the process at a time, and
+// holds at most MAX_EVENTS events; past that it stops recording.
+//
+// File layout: 128-byte header, two 80-byte snapshot slots, then events.
+final class SessionJournal implements SessionRecorder {
+  static final byte SHIFT_START = 1;
+  static final byte DECISION = 2;
+  static final byte EARLY_DEPARTURE = 3;
+  static final byte BREAK = 4;
+  static final byte SHIFT_ADVANCE = 5;
+  static final byte SHIFT_ABANDONED = 6;
+
+  static final int EVENT_BYTES = 16;
+  static final int SNAPSHOT_INTERVAL_SHIFTS = 10;
+
+  private static final int MAGIC = 0x4E474A4C; // "NGJL"
+  private static final short VERSION = 4;
+  private static final int HEADER_BYTES = 128;
+  private static final int MAX_NAME_BYTES = HEADER_BYTES - 28;
+  private static final int SNAPSHOT_BYTES = 80;
+  private static final int EVENTS_START = HEADER_BYTES + 2 * SNAPSHOT_BYTES;
+  private static final int INITIAL_EVENT_CAPACITY = 1024;
+  // A mapping and its offsets are ints, so the file stays under 2 GiB
+  static final int MAX_EVENTS = (Integer.MAX_VALUE - EVENTS_START) / EVENT_BYTES;
+  private static final long MAX_FILE_BYTES = EVENTS_START + (long) MAX_EVENTS * EVENT_BYTES;
+
+  // Journals open in this process, so two sessions never share one
+  private static final Set<Path> OPEN = ConcurrentHashMap.newKeySet();
+
+  // Event fields
+  private static final int EVENT_TYPE = 0;
+  private static final int EVENT_CHOICE = 1;
+  private static final int EVENT_FLAGS = 2;
+  private static final int EVENT_ROLL = 3;
+  private static final int EVENT_SCENARIO = 4;
+  private static final int EVENT_SHIFT = 8;
+  private static final int EVENT_SEQUENCE = 12;
+  private static final int FLAG_MISTAKE = 1;
+
+  // Header fields
+  private static final int HEADER_SPECIALIZATION = 6;
+  private static final int HEADER_NEW_GRAD = 7;
+  private static final int HEADER_CREATED = 8;
+  private static final int HEADER_SEED = 16;
+  private static final int HEADER_FLAGS = 24;
+  private static final int HEADER_RANDOM_ALGORITHM = 25;
+  private static final int HEADER_NAME_LENGTH = 26;
+  private static final int HEADER_NAME = 28;
+  private static final int FLAG_NIGHT_PREFERENCE = 1;
+  // Set once a resume fell back to a snapshot; the seed no longer
+  // reproduces the events after that point
+  private static final int FLAG_NOT_REPLAYABLE = 2;
+  // Scenarios are drawn by WeightedScenarioDeck rather than uniformly
+  private static final int FLAG_WEIGHTED_SELECTION = 4;
+
+  private final Path path;
+  private final Path claim;
+  private MappedByteBuffer buffer;
+  private int eventCount;
+  private long snapshotGeneration;
+  private int lastSnapshotShift;
+  private boolean failed;
+  private boolean closed;
+
+  private SessionJournal(Path path, Path claim, MappedByteBuffer buffer) {
+    this.path = path;
+    this.claim = claim;
+    this.buffer = buffer;
+  }
+
+  // Where journals live: -Dnursinggame.journalDir, else ~/.nursing-game/journals
+  static Path directory() {
+    String configured = System.getProperty("nursinggame.journalDir");
+    if (configured != null) {
+      return Paths.get(configured);
+    }
+    return Paths.get(System.getProperty("user.home"), ".nursing-game", "journals");
+  }
+
+  // Marks the journal as in use by this process until close()
+  private static Path claim(Path path) throws IOException {
+    Path claim = path.toAbsolutePath().normalize();
+    if (!OPEN.add(claim)) {
+      throw new IOException(path + " is already open in another session");
+    }
+    return claim;
+  }
+
+  // Deletes the journal unless a session has it open
+  static boolean deleteIfClosed(Path path) throws IOException {
+    Path claim = path.toAbsolutePath().normalize();
+    if (!OPEN.add(claim)) {
+      return false;
+    }
+    try {
+      return Files.deleteIfExists(path);
+    } finally {
+      OPEN.remove(claim);
+    }
+  }
+
+  // Starts a new journal for an engine that has not played yet, replacing
+  // any earlier journal at the same path that no session has open. The
+  // seed, its GameRandom algorithm and the shift preference are what
+  // CareerReplay needs to rebuild the career from scratch.
+  static SessionJournal create(Path path, SimulationEngine engine, long seed, int randomAlgorithm,
+      boolean preferNightShift) throws IOException {
+    Path claim = claim(path);
+    SessionJournal journal;
+    try {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+      Files.deleteIfExists(path);
+      journal = new SessionJournal(path, claim, map(path, EVENTS_START + INITIAL_EVENT_CAPACITY * EVENT_BYTES));
+    } catch (IOException | RuntimeException e) {
+      OPEN.remove(claim);
+      throw e;
+    }
+
+    Nurse nurse = engine.getNurse();
+    MappedByteBuffer header = journal.buffer;
+    header.putInt(0, MAGIC);
+    header.putShort(4, VERSION);
+    header.put(HEADER_SPECIALIZATION, (byte) nurse.getSpecialization().ordinal());
+    header.put(HEADER_NEW_GRAD, (byte) (engine.isNewGrad() ? 1 : 0));
+    header.putLong(HEADER_CREATED, System.currentTimeMillis());
+    header.putLong(HEADER_SEED, seed);
+    header.put(HEADER_FLAGS, (byte) ((preferNightShift ? FLAG_NIGHT_PREFERENCE : 0)
+        | (engine.isWeightedSelection() ? FLAG_WEIGHTED_SELECTION : 0)));
+    header.put(HEADER_RANDOM_ALGORITHM, (byte) randomAlgorithm);
+    byte[] name = nurse.getName().getBytes(StandardCharsets.UTF_8);
+    int nameLength = Math.min(name.length, MAX_NAME_BYTES);
+    header.putShort(HEADER_NAME_LENGTH, (short) nameLength);
+    header.put(HEADER_NAME, name, 0, nameLength);
+
+    journal.snapshot(engine);
+    engine.setRecorder(journal);
+    return journal;
+  }
+
+  // Fails if another session of this process has the journal open
+  static SessionJournal open(Path path) throws IOException {
+    Path claim = claim(path);
+    try {
+      return open(path, claim);
+    } catch (IOException | RuntimeException e) {
+      OPEN.remove(claim);
+      throw e;
+    }
+  }
+
+  private static SessionJournal open(Path path, Path claim) throws IOException {
+    long size = Files.size(path);
+    if (size < EVENTS_START || size > MAX_FILE_BYTES) {
+      throw new IOException(path + " is not a session journal");
+    }
+    SessionJournal journal = new SessionJournal(path, claim, map(path, size));
+    if (journal.buffer.getInt(0) != MAGIC || journal.buffer.getShort(4) != VERSION) {
+      throw new IOException(path + " is not a session journal");
+    }
+    journal.snapshotGeneration = Math.max(journal.buffer.getLong(HEADER_BYTES),
+        journal.buffer.getLong(HEADER_BYTES + SNAPSHOT_BYTES));
+    if (journal.snapshotGeneration == 0) {
+      throw new IOException(path + " has no snapshot");
+    }
+
+    // A record only counts once its sequence number is in place, so the
+    // log ends at the first slot without one
+    int capacity = (int) ((size - EVENTS_START) / EVENT_BYTES);
+    int count = 0;
+    while (count < capacity && journal.buffer.getInt(eventOffset(count) + EVENT_SEQUENCE) == count + 1) {
+      count++;
+    }
+    journal.eventCount = count;
+    return journal;
+  }
+
+  private static MappedByteBuffer map(Path path, long size) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      // The mapping stays valid after the channel closes, so sessions
+      // don't hold a file descriptor each
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private static int eventOffset(int index) {
+    return EVENTS_START + index * EVENT_BYTES;
+  }
+
+  private int latestSnapshotOffset() {
+    long first = buffer.getLong(HEADER_BYTES);
+    long second = buffer.getLong(HEADER_BYTES + SNAPSHOT_BYTES);
+    return first >= second ? HEADER_BYTES : HEADER_BYTES + SNAPSHOT_BYTES;
+  }
+
+  // Rebuilds the career from the latest snapshot and the events after it;
+  // the returned engine records into this journal from then on
+  SimulationEngine resume(ScenarioCatalog catalog, ChoicePolicy policy, RandomGenerator random) {
+    boolean isNewGrad = isNewGrad();
+    Nurse nurse = new Nurse(getName(), getSpecialization());
+
+    int slot = latestSnapshotOffset();
+    int snapshotEvents = buffer.getInt(slot + 8);
+    GameLoop.ShiftType currentShift = GameLoop.ShiftType.values()[buffer.get(slot + 16)];
+    nurse.getStats().setPacked(buffer.getLong(slot + 24));
+    nurse.getFinancials().restore(buffer.getLong(slot + 32), buffer.getLong(slot + 40),
+        buffer.getLong(slot + 48), buffer.getLong(slot + 56), buffer.getLong(slot + 64),
+        buffer.get(slot + 19) != 0);
+
+    SimulationEngine engine = new SimulationEngine(nurse, catalog, isNewGrad, currentShift, policy, random);
+    engine.setWeightedSelection(usesWeightedSelection());
+    engine.restore(buffer.getInt(slot + 12), buffer.get(slot + 17), buffer.get(slot + 18) != 0);
+    lastSnapshotShift = engine.getShift();
+
+    for (int i = snapshotEvents; i < eventCount; i++) {
+      replay(engine, catalog, eventOffset(i));
+    }
+    engine.setRecorder(this);
+    return engine;
+  }
+
+  private void replay(SimulationEngine engine, ScenarioCatalog catalog, int offset) {
+    byte type = buffer.get(offset + EVENT_TYPE);
+    int choice = buffer.get(offset + EVENT_CHOICE);
+    switch (type) {
+      case SHIFT_START -> engine.startShift();
+      case DECISION -> {
+        int scenarioId = buffer.getShort(offset + EVENT_SCENARIO) & 0xFFFF;
+        Scenario scenario = catalog.getScenario(scenarioId);
+        if (scenario == null) {
+          throw new IllegalStateException(path + " refers to unknown scenario " + scenarioId);
+        }
+        engine.applyMistake((buffer.get(offset + EVENT_FLAGS) & FLAG_MISTAKE) != 0);
+        engine.applyChoice(scenario, choice);
+      }
+      case EARLY_DEPARTURE -> engine.handleEarlyDeparture();
+      case BREAK -> engine.applyBreak(choice);
+      case SHIFT_ADVANCE -> engine.advanceShift();
+      case SHIFT_ABANDONED -> {
+        // The snapshot path has no partial shift to close
+      }
+      default -> throw new IllegalStateException(path + " has unknown event type " + type);
+    }
+  }
+
+  @Override
+  public void append(byte type, int shift, int scenarioId, int choice, boolean mistakeMade, int mistakeRoll) {
+    if (failed) {
+      return;
+    }
+    if (eventCount == MAX_EVENTS) {
+      stopRecording("it holds the most events a journal can");
+      return;
+    }
+    int offset = eventOffset(eventCount);
+    if (offset + EVENT_BYTES > buffer.capacity() && !grow()) {
+      return;
+    }
+    buffer.put(offset + EVENT_TYPE, type);
+    buffer.put(offset + EVENT_CHOICE, (byte) choice);
+    buffer.put(offset + EVENT_FLAGS, (byte) (mistakeMade ? FLAG_MISTAKE : 0));
+    buffer.put(offset + EVENT_ROLL, (byte) mistakeRoll);
+    // Scenarios built in code have no id and are stored as 0
+    buffer.putShort(offset + EVENT_SCENARIO, (short) Math.max(scenarioId, 0));
+    buffer.putInt(offset + EVENT_SHIFT, shift);
+    // Written last: marks the record as complete
+    buffer.putInt(offset + EVENT_SEQUENCE, ++eventCount);
+  }
+
+  // Doubles the room for events, up to MAX_EVENTS. A journal that cannot
+  // grow stops recording rather than interrupting the game.
+  private boolean grow() {
+    try {
+      buffer = map(path, Math.min((long) buffer.capacity() * 2 - EVENTS_START, MAX_FILE_BYTES));
+      return true;
+    } catch (IOException e) {
+      stopRecording(e.getMessage());
+      return false;
+    }
+  }
+
+  private void stopRecording(String reason) {
+    failed = true;
+    System.err.println("Session journal " + path + " stopped recording: " + reason);
+  }
+
+  @Override
+  public void shiftBoundary(SimulationEngine engine) {
+    if (engine.getShift() - lastSnapshotShift >= SNAPSHOT_INTERVAL_SHIFTS) {
+      snapshot(engine);
+    }
+  }
+
+  // Overwrites the older slot; the generation goes in last so a
+  // half-written slot is never the newest
+  void snapshot(SimulationEngine engine) {
+    if (failed) {
+      return;
+    }
+    int slot = snapshotGeneration == 0 || latestSnapshotOffset() != HEADER_BYTES
+        ? HEADER_BYTES : HEADER_BYTES + SNAPSHOT_BYTES;
+    Nurse nurse = engine.getNurse();
+    Financials financials = nurse.getFinancials();
+    buffer.putInt(slot + 8, eventCount);
+    buffer.putInt(slot + 12, engine.getShift());
+    buffer.put(slot + 16, (byte) engine.getCurrentShift().ordinal());
+    buffer.put(slot + 17, (byte) engine.getConsecutiveShifts());
+    buffer.put(slot + 18, (byte) (engine.isShiftInProgress() ? 1 : 0));
+    buffer.put(slot + 19, (byte) (financials.hasNightShiftDifferential() ? 1 : 0));
+    buffer.putLong(slot + 24, nurse.getStats().getPacked());
+    buffer.putLong(slot + 32, financials.getSalaryCents());
+    buffer.putLong(slot + 40, financials.getSavingsCents());
+    buffer.putLong(slot + 48, financials.getExpensesCents());
+    buffer.putLong(slot + 56, financials.getStudentLoansCents());
+    buffer.putLong(slot + 64, financials.getBalanceCents());
+    buffer.putLong(slot, ++snapshotGeneration);
+    lastSnapshotShift = engine.getShift();
+  }
+
+  int getEventCount() {
+    return eventCount;
+  }
+
+  byte getEventType(int index) {
+    return buffer.get(eventOffset(index) + EVENT_TYPE);
+  }
+
+  int getEventChoice(int index) {
+    return buffer.get(eventOffset(index) + EVENT_CHOICE);
+  }
+
+  int getEventShift(int index) {
+    return buffer.getInt(eventOffset(index) + EVENT_SHIFT);
+  }
+
+  // True when the recorded event is exactly the one described
+  boolean eventMatches(int index, byte type, int shift, int scenarioId, int choice, boolean mistakeMade,
+      int mistakeRoll) {
+    int offset = eventOffset(index);
+    return buffer.get(offset + EVENT_TYPE) == type
+        && buffer.getInt(offset + EVENT_SHIFT) == shift
+        && (buffer.getShort(offset + EVENT_SCENARIO) & 0xFFFF) == Math.max(scenarioId, 0)
+        && buffer.get(offset + EVENT_CHOICE) == (byte) choice
+        && buffer.get(offset + EVENT_FLAGS) == (byte) (mistakeMade ? FLAG_MISTAKE : 0)
+        && buffer.get(offset + EVENT_ROLL) == (byte) mistakeRoll;
+  }
+
+  String getName() {
+    byte[] name = new byte[buffer.getShort(HEADER_NAME_LENGTH)];
+    buffer.get(HEADER_NAME, name);
+    return new String(name, StandardCharsets.UTF_8);
+  }
+
+  Nurse.Specialization getSpecialization() {
+    return Nurse.Specialization.values()[buffer.get(HEADER_SPECIALIZATION)];
+  }
+
+  boolean isNewGrad() {
+    return buffer.get(HEADER_NEW_GRAD) != 0;
+  }
+
+  long getSeed() {
+    return buffer.getLong(HEADER_SEED);
+  }
+
+  int getRandomAlgorithm() {
+    return buffer.get(HEADER_RANDOM_ALGORITHM);
+  }
+
+  boolean prefersNightShift() {
+    return (buffer.get(HEADER_FLAGS) & FLAG_NIGHT_PREFERENCE) != 0;
+  }
+
+  boolean usesWeightedSelection() {
+    return (buffer.get(HEADER_FLAGS) & FLAG_WEIGHTED_SELECTION) != 0;
+  }
+
+  boolean isReplayable() {
+    return (buffer.get(HEADER_FLAGS) & FLAG_NOT_REPLAYABLE) == 0;
+  }
+
+  void markNotReplayable() {
+    buffer.put(HEADER_FLAGS, (byte) (buffer.get(HEADER_FLAGS) | FLAG_NOT_REPLAYABLE));
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  // Pushes everything written so far to the storage device; appends alone
+  // survive a crashed process but not a crashed machine
+  void force() {
+    buffer.force();
+  }
+
+  // Stops recording and lets another session open the journal. The
+  // mapping itself goes when it is garbage collected.
+  void close() {
+    if (!closed) {
+      closed = true;
+      failed = true;
+      OPEN.remove(claim);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.nursinggame;
+
+// Receives every state change SimulationEngine makes, as SessionJournal
+// events: the journal stores them, a CareerReplay checks them against a
+// recording.
+interface SessionRecorder {
+  void append(byte type, int shift, int scenarioId, int choice, boolean mistakeMade, int mistakeRoll);
+
+  // Called after each break or shift advance
+  default void shiftBoundary(SimulationEngine engine) {
+  }
+}
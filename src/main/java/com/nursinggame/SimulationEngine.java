@@ -0,0 +1,549 @@
+package com.nursinggame;
+
+import java.util.random.RandomGenerator;
+
+// Shift, scenario and break rules of the game with no console I/O. GameLoop
+// drives it interactively; batch runs drive it with a scripted or bot policy.
+public class SimulationEngine {
+  public static final int MAX_CONSECUTIVE_SHIFTS = 3;
+
+  // How a due break was resolved, as recorded in the session journal
+  static final int BREAK_TAKEN = 0;
+  static final int OVERTIME_WORKED = 1;
+  static final int OVERTIME_REFUSED = 2;
+
+  // What a mistake costs (see applyMistake)
+  static final int MISTAKE_PATIENT_CARE = 10;
+  static final int MISTAKE_REPUTATION = 5;
+  static final int MISTAKE_STRESS = 10;
+
+  // What a break and an early departure give back
+  static final int BREAK_STRESS_RELIEF = 10;
+  static final int BREAK_EFFICIENCY_GAIN = 20;
+  static final int DEPARTURE_STRESS_RELIEF = 15;
+  static final int DEPARTURE_EFFICIENCY_GAIN = 10;
+
+  // What overtime worked in place of a break and an early departure cost
+  static final int OVERTIME_EFFICIENCY_COST = 15;
+  static final int OVERTIME_STRESS = 20;
+  static final int DEPARTURE_REPUTATION = 5;
+
+  private final Nurse nurse;
+  private final ScenarioCatalog catalog;
+  private final boolean isNewGrad;
+  private final ChoicePolicy policy;
+  private final RandomGenerator random;
+  private SimulationListener listener;
+  private SessionRecorder recorder;
+  private GameMetrics metrics;
+  private DecisionAnalytics analytics;
+  // Time this shift spent waiting on the policy (e.g. the player), which
+  // is left out of the shift's processing time
+  private long policyNanos;
+  private int shift;
+  private GameLoop.ShiftType currentShift;
+  private int consecutiveShifts;
+  // True between the start of a shift and its break or advance
+  private boolean shiftInProgress;
+  // Which of the shift's four scenarios is being played
+  private int scenarioSlot;
+  private final Scenario[] shiftScenarios;
+  private ScenarioSelector dayDeck;
+  private ScenarioSelector nightDeck;
+  private boolean weightedSelection;
+
+  public SimulationEngine(Nurse nurse, ScenarioCatalog catalog, boolean isNewGrad, GameLoop.ShiftType startShift,
+      ChoicePolicy policy, RandomGenerator random) {
+    this.nurse = nurse;
+    this.catalog = catalog;
+    this.isNewGrad = isNewGrad;
+    this.policy = policy;
+    this.random = random;
+    this.listener = SimulationListener.NONE;
+    this.shift = 1;
+    this.currentShift = startShift;
+    this.consecutiveShifts = 0;
+    this.shiftScenarios = new Scenario[4];
+    setWeightedSelection(WeightedScenarioDeck.configured());
+  }
+
+  // Creates a nurse with the same starting adjustments as the interactive game
+  public static Nurse createNurse(String name, Nurse.Specialization specialization, boolean isNewGrad,
+      boolean preferNightShift) {
+    Nurse nurse = new Nurse(name, specialization);
+    adjustStartingStats(nurse, isNewGrad, preferNightShift);
+    return nurse;
+  }
+
+  static void adjustStartingStats(Nurse nurse, boolean isNewGrad, boolean preferNightShift) {
+    Stats stats = nurse.getStats();
+    Financials financials = nurse.getFinancials();
+
+    // Base stat adjustments for experience level
+    if (isNewGrad) {
+      stats.setKnowledge(40); // New grads start with lower knowledge
+      stats.setPatientCare(45);
+      stats.setEfficiency(40);
+      stats.setEnergy(80); // Higher energy as new grad
+      stats.setReputation(30); // Lower starting reputation
+      financials.adjustBaseSalary(0.8); // 80% of base specialty salary
+    } else {
+      stats.setKnowledge(60); // Experienced nurses start with higher knowledge
+      stats.setPatientCare(60);
+      stats.setEfficiency(55);
+      stats.setEnergy(60); // Lower energy but more endurance
+      stats.setReputation(70); // Higher starting reputation
+      financials.adjustBaseSalary(1.2); // 120% of base specialty salary
+    }
+
+    // Apply specialty stat impacts (parsed once in the Specialization enum)
+    nurse.getSpecialization().getAttributes().getStartingModifiers().applyTo(stats);
+
+    // Shift preference adjustments
+    if (preferNightShift) {
+      stats.setKnowledge(stats.getKnowledge() + 10); // More independence in decision making
+      stats.setEfficiency(stats.getEfficiency() + 10); // Fewer interruptions
+      stats.setPatientCare(stats.getPatientCare() - 5); // Less patient interaction
+      stats.setEnergy(stats.getEnergy() - 15); // Fighting natural sleep cycle
+      financials.setNightShiftDifferential(true); // +20% night differential
+    } else {
+      stats.setPatientCare(stats.getPatientCare() + 10); // More direct patient interaction
+      stats.setKnowledge(stats.getKnowledge() + 5); // More procedures and teaching
+      stats.setEfficiency(stats.getEfficiency() - 5); // More interruptions
+      stats.setEnergy(stats.getEnergy() + 10); // Natural sleep cycle
+    }
+
+    // Ensure all stats are within bounds
+    stats.normalizeStats();
+  }
+
+  public void setListener(SimulationListener listener) {
+    this.listener = listener == null ? SimulationListener.NONE : listener;
+  }
+
+  // Weighted selection adapts to the nurse (see WeightedScenarioDeck);
+  // uniform draws every scenario in the pool alike. Switch before the
+  // first shift: the draws depend on it, so journals record it.
+  void setWeightedSelection(boolean weighted) {
+    this.weightedSelection = weighted;
+    if (weighted) {
+      dayDeck = new WeightedScenarioDeck(catalog, isNewGrad, false, nurse);
+      nightDeck = new WeightedScenarioDeck(catalog, isNewGrad, true, nurse);
+    } else {
+      dayDeck = new ScenarioDeck(catalog.getPool(isNewGrad, false, nurse.getSpecialization()));
+      nightDeck = new ScenarioDeck(catalog.getPool(isNewGrad, true, nurse.getSpecialization()));
+    }
+  }
+
+  boolean isWeightedSelection() {
+    return weightedSelection;
+  }
+
+  // Reports every state change from now on; null stops recording
+  void setRecorder(SessionRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  // Reports counters and timings from now on; null stops reporting
+  void setMetrics(GameMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // Publishes every decision to the analytics from now on; null stops
+  void setAnalytics(DecisionAnalytics analytics) {
+    this.analytics = analytics;
+  }
+
+  // Puts a freshly constructed engine back at a snapshot's position
+  void restore(int shift, int consecutiveShifts, boolean shiftInProgress) {
+    this.shift = shift;
+    this.consecutiveShifts = consecutiveShifts;
+    this.shiftInProgress = shiftInProgress;
+  }
+
+  // Plays shifts until the policy quits or maxShifts have been completed;
+  // returns the number of shifts worked
+  public int runCareer(int maxShifts) {
+    while (shift <= maxShifts) {
+      runShift();
+      if (!finishShift()) {
+        break;
+      }
+    }
+    return shift - 1;
+  }
+
+  public void runShift() {
+    GameEvents.ShiftEvent event = null;
+    if (GameEvents.SHIFT.isEnabled()) {
+      event = new GameEvents.ShiftEvent();
+      event.begin();
+    }
+    boolean leftEarly;
+    if (metrics == null) {
+      leftEarly = playShift();
+    } else {
+      policyNanos = 0;
+      long start = System.nanoTime();
+      leftEarly = playShift();
+      metrics.recordShift(System.nanoTime() - start - policyNanos);
+    }
+    if (event != null && event.shouldCommit()) {
+      event.shift = shift;
+      event.shiftType = currentShift.getDescription();
+      event.specialization = nurse.getSpecialization().getDisplayName();
+      event.newGrad = isNewGrad;
+      event.leftEarly = leftEarly;
+      event.stress = nurse.getStats().getStress();
+      event.efficiency = nurse.getStats().getEfficiency();
+      event.commit();
+    }
+  }
+
+  // Returns true if the nurse left part way through
+  private boolean playShift() {
+    startShift();
+
+    // Scenarios are drawn without replacement, so all four differ
+    ScenarioSelector deck = currentShift.isNightShift() ? nightDeck : dayDeck;
+    deck.reset();
+
+    // First half of shift (2 different scenarios)
+    shiftScenarios[0] = draw(deck);
+    shiftScenarios[1] = draw(deck);
+    scenarioSlot = 0;
+    processScenario(shiftScenarios[0]);
+    scenarioSlot = 1;
+    processScenario(shiftScenarios[1]);
+
+    if (leaveEarly()) {
+      handleEarlyDeparture();
+      return true;
+    }
+
+    // Second half of shift (2 more different scenarios)
+    shiftScenarios[2] = draw(deck);
+    shiftScenarios[3] = draw(deck);
+    scenarioSlot = 2;
+    processScenario(shiftScenarios[2]);
+    scenarioSlot = 3;
+    processScenario(shiftScenarios[3]);
+    return false;
+  }
+
+  // Takes the mandatory break or moves on to the next shift; returns false
+  // once the policy decides to stop playing
+  public boolean finishShift() {
+    if (consecutiveShifts >= MAX_CONSECUTIVE_SHIFTS) {
+      listener.onBreakDue();
+      takeBreak();
+      return true;
+    }
+    if (!policy.continueToNextShift(nurse)) {
+      return false;
+    }
+    advanceShift();
+    return true;
+  }
+
+  void processScenario(Scenario scenario) {
+    if (scenario == null) {
+      listener.onNoScenario();
+      return;
+    }
+
+    GameEvents.ScenarioEvent event = null;
+    if (GameEvents.SCENARIO.isEnabled()) {
+      event = new GameEvents.ScenarioEvent();
+      event.begin();
+    }
+    long statsBefore = nurse.getStats().getPacked();
+
+    // Check for mistake probability based on efficiency
+    int efficiency = nurse.getStats().getEfficiency();
+    int mistakeRoll = -1;
+    boolean mistakeMade = false;
+
+    int mistakeChance = mistakeChance(efficiency);
+    if (mistakeChance > 0) {
+      mistakeRoll = random.nextInt(100);
+      mistakeMade = mistakeRoll < mistakeChance;
+    }
+
+    listener.onScenarioStarted(scenario, mistakeMade);
+    applyMistake(mistakeMade);
+
+    boolean timed = metrics != null || event != null;
+    long start = timed ? System.nanoTime() : 0;
+    int choice = policy.chooseOption(scenario, nurse);
+    long chosen = timed ? System.nanoTime() : 0;
+    long beforeChoice = analytics != null ? nurse.getStats().getPacked() : 0;
+    ScenarioOutcome outcome = applyChoice(scenario, choice);
+    if (analytics != null) {
+      analytics.publish(nurse.getSpecialization(), scenario, choice, beforeChoice, nurse.getStats().getPacked());
+    }
+    if (metrics != null) {
+      policyNanos += chosen - start;
+      metrics.recordDecision(chosen - start);
+      metrics.recordOutcome(System.nanoTime() - chosen);
+      metrics.recordScenario(scenario, choice, mistakeMade);
+    }
+    listener.onOptionChosen(scenario, choice, outcome);
+    if (recorder != null) {
+      recorder.append(SessionJournal.DECISION, shift, scenario.getId(), choice, mistakeMade, mistakeRoll);
+    }
+    if (event != null && event.shouldCommit()) {
+      long statsAfter = nurse.getStats().getPacked();
+      event.scenarioId = scenario.getId();
+      event.title = scenario.getTitle();
+      event.specialization = nurse.getSpecialization().getDisplayName();
+      event.shift = shift;
+      event.option = choice + 1;
+      event.mistake = mistakeMade;
+      event.decisionTime = chosen - start;
+      event.knowledgeChange = statChange(statsBefore, statsAfter, StatsTable.KNOWLEDGE);
+      event.patientCareChange = statChange(statsBefore, statsAfter, StatsTable.PATIENT_CARE);
+      event.efficiencyChange = statChange(statsBefore, statsAfter, StatsTable.EFFICIENCY);
+      event.stressChange = statChange(statsBefore, statsAfter, StatsTable.STRESS);
+      event.reputationChange = statChange(statsBefore, statsAfter, StatsTable.REPUTATION);
+      event.energyChange = statChange(statsBefore, statsAfter, StatsTable.ENERGY);
+      event.financialChange = outcome.getFinancialChange();
+      event.commit();
+    }
+
+    // Handle follow-up scenario if it exists
+    Scenario followUp = scenario.getFollowUp(choice);
+    if (followUp != null) {
+      listener.onFollowUp(followUp);
+      processScenario(followUp);
+    }
+  }
+
+  private static int statChange(long before, long after, int stat) {
+    return StatsTable.lane(after, stat) - StatsTable.lane(before, stat);
+  }
+
+  private Scenario draw(ScenarioSelector deck) {
+    if (metrics == null) {
+      return deck.draw(random);
+    }
+    long start = System.nanoTime();
+    Scenario scenario = deck.draw(random);
+    metrics.recordSelection(System.nanoTime() - start);
+    return scenario;
+  }
+
+  private boolean leaveEarly() {
+    if (metrics == null) {
+      return policy.leaveEarly(nurse);
+    }
+    long start = System.nanoTime();
+    boolean leave = policy.leaveEarly(nurse);
+    long waited = System.nanoTime() - start;
+    policyNanos += waited;
+    metrics.recordDecision(waited);
+    return leave;
+  }
+
+  // Lets the recorder save at a shift boundary, timed as session I/O
+  private void shiftBoundary() {
+    if (metrics == null) {
+      recorder.shiftBoundary(this);
+      return;
+    }
+    long start = System.nanoTime();
+    recorder.shiftBoundary(this);
+    metrics.recordSessionIo(System.nanoTime() - start);
+  }
+
+  // Percent chance of a mistake on a scenario started at this efficiency
+  static int mistakeChance(int efficiency) {
+    if (efficiency < 30) {
+      return 40; // High chance of mistake
+    } else if (efficiency < 50) {
+      return 20; // Medium chance of mistake
+    } else if (efficiency < 70) {
+      return 10; // Low chance of mistake
+    }
+    return 0;
+  }
+
+  // The state changes below are shared by live play and journal replay
+
+  // Events that no policy call precedes are reported before they take
+  // effect, so a replay can stop on them with the state as it was live
+
+  void startShift() {
+    if (recorder != null) {
+      recorder.append(SessionJournal.SHIFT_START, shift, 0, currentShift.ordinal(), false, -1);
+    }
+    shiftInProgress = true;
+    // Apply specialization-specific shift effects
+    nurse.applyShiftEffects(currentShift.isNightShift());
+  }
+
+  // Ends a shift that was cut off part way, e.g. by a player who left and
+  // later resumed; the next finishShift() closes it as usual
+  void abandonShift() {
+    if (recorder != null) {
+      recorder.append(SessionJournal.SHIFT_ABANDONED, shift, 0, 0, false, -1);
+    }
+  }
+
+  void applyMistake(boolean mistakeMade) {
+    if (mistakeMade) {
+      nurse.getStats().decreasePatientCare(MISTAKE_PATIENT_CARE);
+      nurse.getStats().decreaseReputation(MISTAKE_REPUTATION);
+      nurse.getStats().increaseStress(MISTAKE_STRESS);
+    }
+  }
+
+  // Same as Scenario.selectOption, without allocating a ScenarioResult
+  ScenarioOutcome applyChoice(Scenario scenario, int choice) {
+    ScenarioOutcome outcome = scenario.previewOutcome(choice);
+    if (outcome == null) {
+      throw new IllegalStateException("Policy chose invalid option " + choice + " for " + scenario.getTitle());
+    }
+    outcome.apply(nurse);
+    return outcome;
+  }
+
+  void advanceShift() {
+    shiftInProgress = false;
+    shift++;
+    consecutiveShifts++;
+    // Cycle through shifts
+    currentShift = switch (currentShift) {
+      case DAY_FIRST -> GameLoop.ShiftType.DAY_SECOND;
+      case DAY_SECOND -> GameLoop.ShiftType.NIGHT_FIRST;
+      case NIGHT_FIRST -> GameLoop.ShiftType.NIGHT_SECOND;
+      case NIGHT_SECOND -> GameLoop.ShiftType.DAY_FIRST;
+    };
+    if (recorder != null) {
+      recorder.append(SessionJournal.SHIFT_ADVANCE, shift, 0, currentShift.ordinal(), false, -1);
+      shiftBoundary();
+    }
+  }
+
+  private void takeBreak() {
+    GameEvents.BreakEvent event = null;
+    if (GameEvents.BREAK.isEnabled()) {
+      event = new GameEvents.BreakEvent();
+      event.begin();
+    }
+    int resolution;
+    // Check if efficiency is too low for overtime
+    if (nurse.getStats().getEfficiency() < 30) {
+      listener.onOvertimeRefused();
+      resolution = OVERTIME_REFUSED;
+    } else if (policy.workOvertime(nurse)) {
+      resolution = OVERTIME_WORKED;
+    } else {
+      resolution = BREAK_TAKEN;
+    }
+    applyBreak(resolution);
+    if (event != null && event.shouldCommit()) {
+      event.shift = shift;
+      event.specialization = nurse.getSpecialization().getDisplayName();
+      event.resolution = resolution == OVERTIME_WORKED ? "Overtime"
+          : resolution == OVERTIME_REFUSED ? "Overtime refused" : "Break";
+      event.stress = nurse.getStats().getStress();
+      event.efficiency = nurse.getStats().getEfficiency();
+      event.commit();
+    }
+  }
+
+  void applyBreak(int resolution) {
+    if (recorder != null) {
+      recorder.append(SessionJournal.BREAK, shift, 0, resolution, false, -1);
+    }
+    shiftInProgress = false;
+    if (metrics != null) {
+      metrics.recordBreak(resolution == OVERTIME_WORKED);
+    }
+    if (resolution == OVERTIME_WORKED) {
+      nurse.getStats().decreaseEfficiency(OVERTIME_EFFICIENCY_COST);
+      nurse.getStats().increaseStress(OVERTIME_STRESS);
+      nurse.getFinancials().applyOvertimePay();
+      consecutiveShifts = 0; // Reset consecutive shifts after overtime
+      listener.onOvertime();
+    } else {
+      consecutiveShifts = 0;
+      nurse.getStats().reduceStress(BREAK_STRESS_RELIEF);
+      nurse.getStats().increaseEfficiency(BREAK_EFFICIENCY_GAIN);
+      listener.onBreak();
+    }
+    if (recorder != null) {
+      shiftBoundary();
+    }
+  }
+
+  void handleEarlyDeparture() {
+    GameEvents.EarlyDepartureEvent event = null;
+    if (GameEvents.EARLY_DEPARTURE.isEnabled()) {
+      event = new GameEvents.EarlyDepartureEvent();
+      event.begin();
+    }
+    // Get the full shift pay before reduction
+    long fullShiftPay = nurse.getFinancials().getShiftPayCents();
+    long partialShiftPay = fullShiftPay / 2;
+
+    // Reduce pay by 50%
+    nurse.getFinancials().adjustSalaryForPartialShift();
+    // Decrease reputation
+    nurse.getStats().decreaseReputation(DEPARTURE_REPUTATION);
+    // Reduce stress and increase energy from rest
+    nurse.getStats().reduceStress(DEPARTURE_STRESS_RELIEF);
+    nurse.getStats().increaseEfficiency(DEPARTURE_EFFICIENCY_GAIN);
+
+    listener.onEarlyDeparture(Financials.toDollars(fullShiftPay), Financials.toDollars(partialShiftPay));
+    if (metrics != null) {
+      metrics.recordEarlyDeparture();
+    }
+    if (recorder != null) {
+      recorder.append(SessionJournal.EARLY_DEPARTURE, shift, 0, 0, false, -1);
+    }
+    if (event != null && event.shouldCommit()) {
+      event.shift = shift;
+      event.specialization = nurse.getSpecialization().getDisplayName();
+      event.fullShiftPay = Financials.toDollars(fullShiftPay);
+      event.partialShiftPay = Financials.toDollars(partialShiftPay);
+      event.stress = nurse.getStats().getStress();
+      event.commit();
+    }
+  }
+
+  // Getters
+  public Nurse getNurse() {
+    return nurse;
+  }
+
+  public ScenarioCatalog getCatalog() {
+    return catalog;
+  }
+
+  public int getShift() {
+    return shift;
+  }
+
+  public GameLoop.ShiftType getCurrentShift() {
+    return currentShift;
+  }
+
+  public int getConsecutiveShifts() {
+    return consecutiveShifts;
+  }
+
+  public boolean isShiftInProgress() {
+    return shiftInProgress;
+  }
+
+  // 0-3 while a shift's scenarios (and their follow-ups) are played
+  int getScenarioSlot() {
+    return scenarioSlot;
+  }
+
+  public boolean isNewGrad() {
+    return isNewGrad;
+  }
+}
@@ -0,0 +1,566 @@
+package com.nursinggame;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Columnar, compressed export of every decision a Monte Carlo run makes,
+// for offline analysis. A row is one decision: the career and shift, the
+// shift type, the scenario and chosen option, and the nurse's stats,
+// savings, student loans and salary after its outcome.
+//
+// Each thread collects rows into its own Block of up to BLOCK_ROWS and,
+// when it fills, encodes it column by column and deflates every column
+// separately; only the channel write is shared. Careers and shift numbers
+// are zigzag deltas (mostly 0 or 1), scenario ids one-byte codes into a
+// per-block dictionary, choices varints (one byte below 128), stats one
+// byte each and money zigzag deltas in cents, so what deflate sees is
+// small and repetitive. Blocks from
+// different threads land in whatever order they fill; every row carries
+// its career.
+//
+// File layout: 24-byte header (magic, version, column count, rows,
+// blocks), then blocks: length, rows, first career, scenario dictionary,
+// and per column its raw and deflated lengths and the deflated bytes.
+final class SimulationExport implements AutoCloseable {
+  static final int BLOCK_ROWS = 1 << 16;
+
+  private static final int MAGIC = 0x4E474358; // "NGCX"
+  private static final short VERSION = 1;
+  private static final int HEADER_BYTES = 24;
+  private static final int HEADER_ROWS = 8;
+  private static final int HEADER_BLOCKS = 16;
+  private static final int COLUMNS = 8 + StatsTable.STAT_COUNT;
+  private static final int MAX_VARLONG_BYTES = 10;
+  private static final GameLoop.ShiftType[] SHIFT_TYPES = GameLoop.ShiftType.values();
+
+  private final Path path;
+  private final FileChannel channel;
+  private final int idLimit;
+  private final ThreadLocal<Block> threadBlocks = ThreadLocal.withInitial(this::newBlock);
+  private final List<Block> blocks = new ArrayList<>();
+  private long rowsWritten;
+  private long blocksWritten;
+
+  private SimulationExport(Path path, FileChannel channel, int idLimit) {
+    this.path = path;
+    this.channel = channel;
+    this.idLimit = idLimit;
+  }
+
+  // Creates the export file, replacing any at the path
+  static SimulationExport create(Path path, ScenarioCatalog catalog) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    channel.write(ByteBuffer.allocate(HEADER_BYTES), 0);
+    channel.position(HEADER_BYTES);
+    return new SimulationExport(path, channel, catalog.getIdLimit());
+  }
+
+  // The calling thread's block
+  Block block() {
+    return threadBlocks.get();
+  }
+
+  private Block newBlock() {
+    Block block = new Block(this, idLimit);
+    synchronized (blocks) {
+      blocks.add(block);
+    }
+    return block;
+  }
+
+  private synchronized void write(ByteBuffer encoded, int rows) {
+    try {
+      while (encoded.hasRemaining()) {
+        channel.write(encoded);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write to " + path, e);
+    }
+    rowsWritten += rows;
+    blocksWritten++;
+  }
+
+  synchronized long getRows() {
+    return rowsWritten;
+  }
+
+  // Writes out every thread's partly filled block and the header; call
+  // once the run is over
+  @Override
+  public void close() throws IOException {
+    synchronized (blocks) {
+      for (Block block : blocks) {
+        block.flush();
+        block.deflater.end();
+      }
+    }
+    synchronized (this) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      header.putInt(MAGIC).putShort(VERSION).putShort((short) COLUMNS).putLong(rowsWritten).putLong(blocksWritten);
+      header.flip();
+      channel.write(header, 0);
+      channel.close();
+    }
+  }
+
+  // One block's rows, column by column
+  static class Columns {
+    final long[] careers = new long[BLOCK_ROWS];
+    final int[] shifts = new int[BLOCK_ROWS];
+    final byte[] shiftTypes = new byte[BLOCK_ROWS];
+    final int[] scenarios = new int[BLOCK_ROWS];
+    final int[] choices = new int[BLOCK_ROWS];
+    // Packed as by Stats.getPacked(); read with StatsTable.lane()
+    final long[] stats = new long[BLOCK_ROWS];
+    final long[] savingsCents = new long[BLOCK_ROWS];
+    final long[] loansCents = new long[BLOCK_ROWS];
+    final long[] salaryCents = new long[BLOCK_ROWS];
+    int rows;
+
+    int getRows() {
+      return rows;
+    }
+
+    GameLoop.ShiftType getShiftType(int row) {
+      return SHIFT_TYPES[shiftTypes[row]];
+    }
+  }
+
+  // Collects one thread's rows; set it as the recorder of each career the
+  // thread runs, after startCareer()
+  static final class Block extends Columns implements SessionRecorder {
+    private final SimulationExport export;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final byte[] raw = new byte[BLOCK_ROWS * MAX_VARLONG_BYTES];
+    // Dictionary code of each scenario id in this block, -1 if absent
+    private final int[] codes;
+    private final int[] dictionary;
+    private int dictionarySize;
+    private ByteBuffer out = ByteBuffer.allocateDirect(BLOCK_ROWS * 4);
+    private SimulationEngine engine;
+    private long career;
+
+    private Block(SimulationExport export, int idLimit) {
+      this.export = export;
+      this.codes = new int[idLimit];
+      this.dictionary = new int[idLimit];
+      Arrays.fill(codes, -1);
+    }
+
+    void startCareer(long career, SimulationEngine engine) {
+      this.career = career;
+      this.engine = engine;
+      engine.setRecorder(this);
+    }
+
+    @Override
+    public void append(byte type, int shift, int scenarioId, int choice, boolean mistakeMade, int mistakeRoll) {
+      if (type != SessionJournal.DECISION) {
+        return;
+      }
+      Nurse nurse = engine.getNurse();
+      Financials financials = nurse.getFinancials();
+      int row = rows;
+      careers[row] = career;
+      shifts[row] = shift;
+      shiftTypes[row] = (byte) engine.getCurrentShift().ordinal();
+      scenarios[row] = scenarioId;
+      choices[row] = choice;
+      stats[row] = nurse.getStats().getPacked();
+      savingsCents[row] = financials.getSavingsCents();
+      loansCents[row] = financials.getStudentLoansCents();
+      salaryCents[row] = financials.getSalaryCents();
+      if (++rows == BLOCK_ROWS) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (rows == 0) {
+        return;
+      }
+      export.write(encode(), rows);
+      rows = 0;
+    }
+
+    private ByteBuffer encode() {
+      out.clear();
+      out.putInt(0).putInt(rows).putLong(careers[0]);
+
+      for (int row = 0; row < rows; row++) {
+        int id = scenarios[row];
+        if (codes[id] < 0) {
+          codes[id] = dictionarySize;
+          dictionary[dictionarySize++] = id;
+        }
+      }
+      ensure(4 + dictionarySize * 4);
+      out.putInt(dictionarySize);
+      for (int code = 0; code < dictionarySize; code++) {
+        out.putInt(dictionary[code]);
+      }
+
+      int length = 0;
+      long previous = careers[0];
+      for (int row = 0; row < rows; row++) {
+        length = putVarLong(raw, length, zigzag(careers[row] - previous));
+        previous = careers[row];
+      }
+      putColumn(length);
+      putDeltas(shifts);
+      putColumn(shiftTypes, rows);
+      boolean wide = dictionarySize > 256;
+      length = 0;
+      for (int row = 0; row < rows; row++) {
+        int code = codes[scenarios[row]];
+        raw[length++] = (byte) code;
+        if (wide) {
+          raw[length++] = (byte) (code >>> 8);
+        }
+      }
+      putColumn(length);
+      length = 0;
+      for (int row = 0; row < rows; row++) {
+        length = putVarLong(raw, length, choices[row]);
+      }
+      putColumn(length);
+      for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+        putStatDeltas(stat);
+      }
+      putDeltas(savingsCents);
+      putDeltas(loansCents);
+      putDeltas(salaryCents);
+
+      for (int code = 0; code < dictionarySize; code++) {
+        codes[dictionary[code]] = -1;
+      }
+      dictionarySize = 0;
+      out.putInt(0, out.position());
+      return out.flip();
+    }
+
+    // Stats move a few points per decision, so each row stores the byte
+    // difference from the row before
+    private void putStatDeltas(int stat) {
+      int previous = 0;
+      for (int row = 0; row < rows; row++) {
+        int value = StatsTable.lane(stats[row], stat);
+        raw[row] = (byte) (value - previous);
+        previous = value;
+      }
+      putColumn(rows);
+    }
+
+    private void putDeltas(int[] column) {
+      int length = 0;
+      long previous = 0;
+      for (int row = 0; row < rows; row++) {
+        length = putVarLong(raw, length, zigzag(column[row] - previous));
+        previous = column[row];
+      }
+      putColumn(length);
+    }
+
+    private void putDeltas(long[] column) {
+      int length = 0;
+      long previous = 0;
+      for (int row = 0; row < rows; row++) {
+        length = putVarLong(raw, length, zigzag(column[row] - previous));
+        previous = column[row];
+      }
+      putColumn(length);
+    }
+
+    private void putColumn(byte[] column, int length) {
+      System.arraycopy(column, 0, raw, 0, length);
+      putColumn(length);
+    }
+
+    // Deflates the first length bytes of raw into the block
+    private void putColumn(int length) {
+      ensure(8);
+      int lengths = out.position();
+      out.position(lengths + 8);
+      deflater.reset();
+      deflater.setInput(raw, 0, length);
+      deflater.finish();
+      while (!deflater.finished()) {
+        if (!out.hasRemaining()) {
+          ensure(out.capacity());
+        }
+        deflater.deflate(out);
+      }
+      out.putInt(lengths, length).putInt(lengths + 4, out.position() - lengths - 8);
+    }
+
+    private void ensure(int bytes) {
+      if (out.remaining() < bytes) {
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(out.capacity() * 2, out.position() + bytes));
+        out.flip();
+        larger.put(out);
+        out = larger;
+      }
+    }
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static int putVarLong(byte[] buffer, int position, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+    return position;
+  }
+
+  interface BlockVisitor {
+    void visit(Columns block);
+  }
+
+  // Decodes an export block by block; the Columns handed to the visitor
+  // are reused for the next block
+  static long read(Path path, BlockVisitor visitor) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      readFully(channel, header);
+      if (header.getInt(0) != MAGIC || header.getShort(6) != COLUMNS) {
+        throw new IOException(path + " is not a simulation export");
+      }
+      if (header.getShort(4) != VERSION) {
+        throw new IOException(path + " was exported with format version " + header.getShort(4));
+      }
+      long blockCount = header.getLong(HEADER_BLOCKS);
+      Decoder decoder = new Decoder();
+      ByteBuffer block = ByteBuffer.allocate(BLOCK_ROWS * 4);
+      ByteBuffer length = ByteBuffer.allocate(4);
+      try {
+        for (long i = 0; i < blockCount; i++) {
+          length.clear();
+          readFully(channel, length);
+          int bytes = length.getInt(0) - 4;
+          if (bytes < 0) {
+            throw new IOException(path + " is damaged");
+          }
+          if (block.capacity() < bytes) {
+            block = ByteBuffer.allocate(bytes);
+          }
+          block.clear().limit(bytes);
+          readFully(channel, block);
+          try {
+            decoder.decode(block.flip());
+          } catch (DataFormatException | RuntimeException e) {
+            throw new IOException(path + " is damaged", e);
+          }
+          visitor.visit(decoder);
+        }
+      } finally {
+        decoder.inflater.end();
+      }
+      return header.getLong(HEADER_ROWS);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new IOException("Unexpected end of export");
+      }
+    }
+  }
+
+  private static final class Decoder extends Columns {
+    private final Inflater inflater = new Inflater(true);
+    private final byte[] raw = new byte[BLOCK_ROWS * MAX_VARLONG_BYTES];
+    private int[] dictionary = new int[64];
+    private int position;
+
+    void decode(ByteBuffer block) throws DataFormatException {
+      rows = block.getInt();
+      if (rows < 0 || rows > BLOCK_ROWS) {
+        throw new DataFormatException("Block has " + rows + " rows");
+      }
+      long career = block.getLong();
+      int dictionarySize = block.getInt();
+      // Four bytes per entry, so a size the block cannot hold is damage
+      if (dictionarySize < 0 || dictionarySize > block.remaining() / Integer.BYTES) {
+        throw new DataFormatException("Block has a dictionary of " + dictionarySize);
+      }
+      if (dictionary.length < dictionarySize) {
+        dictionary = new int[dictionarySize];
+      }
+      for (int code = 0; code < dictionarySize; code++) {
+        dictionary[code] = block.getInt();
+      }
+
+      inflate(block);
+      for (int row = 0; row < rows; row++) {
+        career += unzigzag(getVarLong());
+        careers[row] = career;
+      }
+      inflate(block);
+      long shift = 0;
+      for (int row = 0; row < rows; row++) {
+        shift += unzigzag(getVarLong());
+        shifts[row] = (int) shift;
+      }
+      inflate(block);
+      System.arraycopy(raw, 0, shiftTypes, 0, rows);
+      boolean wide = dictionarySize > 256;
+      inflate(block);
+      for (int row = 0; row < rows; row++) {
+        int code = raw[position++] & 0xFF;
+        if (wide) {
+          code |= (raw[position++] & 0xFF) << 8;
+        }
+        if (code >= dictionarySize) {
+          throw new DataFormatException("Scenario code " + code + " is not in the dictionary");
+        }
+        scenarios[row] = dictionary[code];
+      }
+      inflate(block);
+      for (int row = 0; row < rows; row++) {
+        long choice = getVarLong();
+        if (choice > Integer.MAX_VALUE) {
+          throw new DataFormatException("Choice " + choice + " is out of range");
+        }
+        choices[row] = (int) choice;
+      }
+      Arrays.fill(stats, 0, rows, 0);
+      for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+        inflate(block);
+        int value = 0;
+        for (int row = 0; row < rows; row++) {
+          value = (value + raw[row]) & 0xFF;
+          stats[row] |= (long) value << (stat * 8);
+        }
+      }
+      getDeltas(block, savingsCents);
+      getDeltas(block, loansCents);
+      getDeltas(block, salaryCents);
+    }
+
+    private void getDeltas(ByteBuffer block, long[] column) throws DataFormatException {
+      inflate(block);
+      long value = 0;
+      for (int row = 0; row < rows; row++) {
+        value += unzigzag(getVarLong());
+        column[row] = value;
+      }
+    }
+
+    // Inflates the next column into raw
+    private void inflate(ByteBuffer block) throws DataFormatException {
+      int length = block.getInt();
+      int compressed = block.getInt();
+      if (length < 0 || length > raw.length || compressed < 0 || compressed > block.remaining()) {
+        throw new DataFormatException("Column lengths " + length + " and " + compressed + " do not fit");
+      }
+      ByteBuffer column = block.slice().limit(compressed);
+      block.position(block.position() + compressed);
+      inflater.reset();
+      inflater.setInput(column);
+      int inflated = 0;
+      while (inflated < length) {
+        int n = inflater.inflate(raw, inflated, length - inflated);
+        if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new DataFormatException("Column ends early");
+        }
+        inflated += n;
+      }
+      position = 0;
+    }
+
+    private long getVarLong() {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = raw[position++];
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      return value;
+    }
+  }
+
+  // Decodes an export into CSV, for tools that want it and to compare sizes
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.out.println("Usage: --export-csv <export> <csv>");
+      return;
+    }
+    Path export = Paths.get(args[0]);
+    Path csv = Paths.get(args[1]);
+    long start = System.nanoTime();
+    long rows;
+    try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+      out.write("career,shift,shift_type,scenario,choice,knowledge,patient_care,efficiency,stress,reputation,energy,"
+          + "savings,student_loans,salary\n");
+      StringBuilder line = new StringBuilder(128);
+      rows = read(export, block -> {
+        try {
+          for (int row = 0; row < block.getRows(); row++) {
+            line.setLength(0);
+            line.append(block.careers[row]).append(',').append(block.shifts[row]).append(',')
+                .append(block.getShiftType(row).name()).append(',').append(block.scenarios[row]).append(',')
+                .append(block.choices[row] + 1);
+            for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+              line.append(',').append(StatsTable.lane(block.stats[row], stat));
+            }
+            appendDollars(line.append(','), block.savingsCents[row]);
+            appendDollars(line.append(','), block.loansCents[row]);
+            appendDollars(line.append(','), block.salaryCents[row]);
+            out.append(line).append('\n');
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    long exportBytes = Files.size(export);
+    long csvBytes = Files.size(csv);
+    System.out.printf("Decoded %d rows from %d bytes into %d bytes of CSV (%.1fx larger) in %.2f s%n", rows,
+        exportBytes, csvBytes, (double) csvBytes / Math.max(1, exportBytes), seconds);
+  }
+
+  private static void appendDollars(StringBuilder line, long cents) {
+    if (cents < 0) {
+      line.append('-');
+      cents = -cents;
+    }
+    line.append(cents / 100).append('.');
+    if (cents % 100 < 10) {
+      line.append('0');
+    }
+    line.append(cents % 100);
+  }
+}
@@ -0,0 +1,35 @@
+package com.nursinggame;
+
+// Optional callbacks fired by SimulationEngine; all no-ops by default so a
+// headless run pays nothing for them
+public interface SimulationListener {
+  SimulationListener NONE = new SimulationListener() {
+  };
+
+  default void onNoScenario() {
+  }
+
+  default void onScenarioStarted(Scenario scenario, boolean mistakeMade) {
+  }
+
+  default void onOptionChosen(Scenario scenario, int choice, ScenarioOutcome outcome) {
+  }
+
+  default void onFollowUp(Scenario followUp) {
+  }
+
+  default void onEarlyDeparture(double fullShiftPay, double partialShiftPay) {
+  }
+
+  default void onBreakDue() {
+  }
+
+  default void onOvertimeRefused() {
+  }
+
+  default void onOvertime() {
+  }
+
+  default void onBreak() {
+  }
+}
@@ -1,130 +1,153 @@
 package com.nursinggame;
 
+import static com.nursinggame.StatsTable.EFFICIENCY;
+import static com.nursinggame.StatsTable.ENERGY;
+import static com.nursinggame.StatsTable.KNOWLEDGE;
+import static com.nursinggame.StatsTable.PATIENT_CARE;
+import static com.nursinggame.StatsTable.REPUTATION;
+import static com.nursinggame.StatsTable.STRESS;
+
+// One nurse's stats, stored as a packed row of a StatsTable. A standalone
+// Stats owns a one-row table. Every stat is kept within 0-100.
 public class Stats {
-  private int knowledge;
-  private int patientCare;
-  private int efficiency;
-  private int stress;
-  private int reputation;
-  private int energy;
-  private static final int MAX_STAT = 100;
-  private static final int MIN_STAT = 0;
+  private final long[] rows;
+  private final int index;
 
   public Stats() {
-    this.knowledge = 50;
-    this.patientCare = 50;
-    this.efficiency = 50;
-    this.stress = 0;
-    this.reputation = 50;
-    this.energy = 70;
+    this(new long[] {StatsTable.DEFAULT_ROW}, 0);
+  }
+
+  Stats(long[] rows, int index) {
+    this.rows = rows;
+    this.index = index;
+  }
+
+  private int get(int stat) {
+    return StatsTable.lane(rows[index], stat);
+  }
+
+  private void set(int stat, int value) {
+    rows[index] = StatsTable.withLane(rows[index], stat, value);
   }
 
   public void improveKnowledge(int amount) {
-    this.knowledge = Math.min(100, this.knowledge + amount);
+    set(KNOWLEDGE, get(KNOWLEDGE) + amount);
   }
 
   public void improvePatientCare(int amount) {
-    this.patientCare = Math.min(100, this.patientCare + amount);
+    set(PATIENT_CARE, get(PATIENT_CARE) + amount);
   }
 
   public void improveEfficiency(int amount) {
-    this.efficiency = Math.min(100, this.efficiency + amount);
+    set(EFFICIENCY, get(EFFICIENCY) + amount);
   }
 
   public void addStress(int amount) {
-    this.stress = Math.min(100, this.stress + amount);
+    set(STRESS, get(STRESS) + amount);
   }
 
   public void reduceStress(int amount) {
-    this.stress = Math.max(0, this.stress - amount);
+    set(STRESS, get(STRESS) - amount);
   }
 
   public void decreasePatientCare(int amount) {
-    patientCare = Math.max(MIN_STAT, patientCare - amount);
+    set(PATIENT_CARE, get(PATIENT_CARE) - amount);
   }
 
   public void decreaseEfficiency(int amount) {
-    efficiency = Math.max(MIN_STAT, efficiency - amount);
+    set(EFFICIENCY, get(EFFICIENCY) - amount);
   }
 
   public void increaseEfficiency(int amount) {
-    efficiency = Math.min(MAX_STAT, efficiency + amount);
+    set(EFFICIENCY, get(EFFICIENCY) + amount);
   }
 
   public void increaseStress(int amount) {
-    stress = Math.min(MAX_STAT, stress + amount);
+    set(STRESS, get(STRESS) + amount);
   }
 
   public void decreaseReputation(int amount) {
-    reputation = Math.max(MIN_STAT, reputation - amount);
+    set(REPUTATION, get(REPUTATION) - amount);
+  }
+
+  // Applies packed per-stat changes (see StatsTable.packChanges) in one step
+  void applyChanges(long increases, long decreases) {
+    rows[index] = StatsTable.addClamped(rows[index], increases, decreases);
+  }
+
+  // All six stats as one packed row, for snapshots and bulk copies
+  long getPacked() {
+    return rows[index];
+  }
+
+  void setPacked(long packed) {
+    rows[index] = packed;
   }
 
   // Getters
   public int getKnowledge() {
-    return knowledge;
+    return get(KNOWLEDGE);
   }
 
   public int getPatientCare() {
-    return patientCare;
+    return get(PATIENT_CARE);
   }
 
   public int getEfficiency() {
-    return efficiency;
+    return get(EFFICIENCY);
   }
 
   public int getStress() {
-    return stress;
+    return get(STRESS);
   }
 
   public int getReputation() {
-    return reputation;
+    return get(REPUTATION);
   }
 
   public int getEnergy() {
-    return energy;
+    return get(ENERGY);
   }
 
   // Setters
   public void setKnowledge(int value) {
-    this.knowledge = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    set(KNOWLEDGE, value);
   }
 
   public void setPatientCare(int value) {
-    this.patientCare = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    set(PATIENT_CARE, value);
   }
 
   public void setEfficiency(int value) {
-    this.efficiency = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    set(EFFICIENCY, value);
   }
 
   public void setEnergy(int value) {
-    this.energy = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    set(ENERGY, value);
   }
 
   public void setReputation(int value) {
-    this.reputation = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    set(REPUTATION, value);
   }
 
   public void setStress(int value) {
-    this.stress = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    set(STRESS, value);
   }
 
   public void normalizeStats() {
-    knowledge = Math.max(MIN_STAT, Math.min(MAX_STAT, knowledge));
-    patientCare = Math.max(MIN_STAT, Math.min(MAX_STAT, patientCare));
-    efficiency = Math.max(MIN_STAT, Math.min(MAX_STAT, efficiency));
-    stress = Math.max(MIN_STAT, Math.min(MAX_STAT, stress));
-    reputation = Math.max(MIN_STAT, Math.min(MAX_STAT, reputation));
-    energy = Math.max(MIN_STAT, Math.min(MAX_STAT, energy));
+    // Every update already clamps, so the packed row is always in range
   }
 
   @Override
   public String toString() {
-    return "Knowledge: " + knowledge + "%, " +
-        "Patient Care: " + patientCare + "%, " +
-        "Efficiency: " + efficiency + "%, " +
-        "Energy: " + energy + "%, " +
-        "Reputation: " + reputation + "%, " +
-        "Stress: " + stress + "%";
-  }
-}
\ No newline at end of file
+    long row = rows[index];
+    return new StringBuilder(96)
+        .append("Knowledge: ").append(StatsTable.lane(row, KNOWLEDGE)).append("%, ")
+        .append("Patient Care: ").append(StatsTable.lane(row, PATIENT_CARE)).append("%, ")
+        .append("Efficiency: ").append(StatsTable.lane(row, EFFICIENCY)).append("%, ")
+        .append("Energy: ").append(StatsTable.lane(row, ENERGY)).append("%, ")
+        .append("Reputation: ").append(StatsTable.lane(row, REPUTATION)).append("%, ")
+        .append("Stress: ").append(StatsTable.lane(row, STRESS)).append("%")
+        .toString();
+  }
+}
@@ -0,0 +1,126 @@
+package com.nursinggame;
+
+import java.util.Arrays;
+
+// Stats for a whole cohort of nurses in one flat array. Each nurse is a
+// single long holding its six 0-100 stats as byte lanes, so a million
+// nurses take 8 MB and an outcome is applied to a nurse with a few
+// shift/mask operations on that long (SWAR) instead of six clamped
+// updates. Stats objects are views onto one row of a table.
+public final class StatsTable {
+  public static final int KNOWLEDGE = 0;
+  public static final int PATIENT_CARE = 1;
+  public static final int EFFICIENCY = 2;
+  public static final int STRESS = 3;
+  public static final int REPUTATION = 4;
+  public static final int ENERGY = 5;
+  public static final int STAT_COUNT = 6;
+
+  static final int MIN_STAT = 0;
+  static final int MAX_STAT = 100;
+
+  // Per-lane constants over the six used byte lanes
+  static final long LANES = 0x0000_FFFF_FFFF_FFFFL;
+  static final long LOW_BITS = 0x0000_0101_0101_0101L;
+  static final long HIGH_BITS = 0x0000_8080_8080_8080L;
+  static final long MAX_LANES = MAX_STAT * LOW_BITS;
+  // Adding 27 sets a lane's high bit exactly when it holds more than 100
+  static final long OVER_MAX_BIAS = (127 - MAX_STAT) * LOW_BITS;
+
+  private static final CohortKernel KERNEL = CohortKernel.select();
+
+  // Same starting values as a new Nurse has always had
+  static final long DEFAULT_ROW = pack(50, 50, 50, 0, 50, 70);
+
+  private final long[] rows;
+
+  public StatsTable(int size) {
+    this.rows = new long[size];
+    Arrays.fill(rows, DEFAULT_ROW);
+  }
+
+  public int size() {
+    return rows.length;
+  }
+
+  // A Stats view onto one nurse's row; changes through it land in the table
+  public Stats view(int nurse) {
+    return new Stats(rows, nurse);
+  }
+
+  public int get(int nurse, int stat) {
+    return lane(rows[nurse], stat);
+  }
+
+  public void set(int nurse, int stat, int value) {
+    rows[nurse] = withLane(rows[nurse], stat, value);
+  }
+
+  // Applies one outcome's stat changes to every nurse in the table
+  public void apply(ScenarioOutcome outcome) {
+    KERNEL.apply(rows, outcome.getStatIncreases(), outcome.getStatDecreases());
+  }
+
+  // Applies one outcome to the first count nurses listed in indices, which
+  // must not repeat a nurse
+  public void apply(ScenarioOutcome outcome, int[] indices, int count) {
+    KERNEL.apply(rows, indices, count, outcome.getStatIncreases(), outcome.getStatDecreases());
+  }
+
+  // Applies outcomes[i] to nurse indices[i] for the first count entries
+  public void apply(ScenarioOutcome[] outcomes, int[] indices, int count) {
+    for (int i = 0; i < count; i++) {
+      int nurse = indices[i];
+      rows[nurse] = addClamped(rows[nurse], outcomes[i].getStatIncreases(), outcomes[i].getStatDecreases());
+    }
+  }
+
+  // Shared with Stats and ScenarioOutcome so single nurses use the same arithmetic
+
+  static long pack(int knowledge, int patientCare, int efficiency, int stress, int reputation, int energy) {
+    long row = 0;
+    row = withLane(row, KNOWLEDGE, knowledge);
+    row = withLane(row, PATIENT_CARE, patientCare);
+    row = withLane(row, EFFICIENCY, efficiency);
+    row = withLane(row, STRESS, stress);
+    row = withLane(row, REPUTATION, reputation);
+    row = withLane(row, ENERGY, energy);
+    return row;
+  }
+
+  static int lane(long row, int stat) {
+    return (int) (row >>> (stat * 8)) & 0xFF;
+  }
+
+  static long withLane(long row, int stat, int value) {
+    long clamped = Math.max(MIN_STAT, Math.min(MAX_STAT, value));
+    int shift = stat * 8;
+    return (row & ~(0xFFL << shift)) | (clamped << shift);
+  }
+
+  // Packs signed per-stat changes into lanes of increases (sign > 0) or
+  // decreases (sign < 0); magnitudes past 100 saturate anyway, so they are
+  // capped to keep every lane's sum below 256
+  static long packChanges(int[] changes, int sign) {
+    long packed = 0;
+    for (int stat = 0; stat < STAT_COUNT; stat++) {
+      int magnitude = Math.min(MAX_STAT, Math.max(0, changes[stat] * sign));
+      packed |= (long) magnitude << (stat * 8);
+    }
+    return packed;
+  }
+
+  // Adds increases and subtracts decreases lane by lane, clamping each
+  // lane to 0-100. Lanes hold at most 100, so no step carries or borrows
+  // into its neighbour. packChanges gives each lane an increase or a
+  // decrease, not both; a lane with both would clamp before subtracting.
+  static long addClamped(long row, long increases, long decreases) {
+    long sum = row + increases;
+    long over = ((sum + OVER_MAX_BIAS) & HIGH_BITS) >>> 7;
+    sum = (sum & ~(over * 0xFF)) | (MAX_LANES & (over * 0xFF));
+
+    long difference = (sum | HIGH_BITS) - decreases;
+    long kept = ((difference & HIGH_BITS) >>> 7) * 0xFF;
+    return difference & ~HIGH_BITS & kept & LANES;
+  }
+}
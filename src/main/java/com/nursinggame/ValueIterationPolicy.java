@@ -0,0 +1,27 @@
+package com.nursinggame;
+
+// Picks the option with the highest expected discounted score from a
+// ValueIterationSolver solution; otherwise plays like GreedyChoicePolicy,
+// which is what the solution assumes. The best option depends on where in
+// the shift cycle the engine is, so attach() the engine before playing,
+// and solve for the kind of deck the engine draws from.
+final class ValueIterationPolicy extends GreedyChoicePolicy {
+  private final ValueIterationSolver.Solution solution;
+  private SimulationEngine engine;
+
+  ValueIterationPolicy(ValueIterationSolver.Solution solution) {
+    this.solution = solution;
+  }
+
+  void attach(SimulationEngine engine) {
+    this.engine = engine;
+  }
+
+  @Override
+  public int chooseOption(Scenario scenario, Nurse nurse) {
+    if (engine == null) {
+      return super.chooseOption(scenario, nurse);
+    }
+    return solution.getBestOption(engine, scenario);
+  }
+}
@@ -0,0 +1,442 @@
+package com.nursinggame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Plans option choices by value iteration on a reduced model of the game,
+// maximizing the expected discounted score (the GreedyChoicePolicy
+// weighting: knowledge + patient care + efficiency - stress). Everything
+// else is played like GreedyChoicePolicy: leave early above 80 stress,
+// never work overtime, always continue.
+//
+// The model's state is (shift type, consecutive shifts, scenario slot,
+// efficiency, stress): 16 x 5 x 101 x 101 values in one float array.
+// Efficiency drives the mistake odds and stress decides early departures,
+// and both are clamped as the engine clamps them. Knowledge and patient
+// care are not in the state, so their changes are scored at face value: a
+// knowledge gain at 100, or a mistake's patient care penalty below 10,
+// counts in full though the engine clamps it away. Careers do reach those
+// bounds (late-career knowledge around 90, patient care near 0 for a
+// struggling nurse), so the choices are the best ones for the model, not
+// for the game. Tracking both stats would make the state 10,000 times
+// larger.
+//
+// Each slot's scenario is drawn the way the engine's deck draws a shift's
+// first one: uniformly over the pool, or by the ScenarioWeights for the
+// slot's efficiency and stress with knowledge and patient care at the
+// nurse's starting values. The no-repeat rule within a shift, recency,
+// and the deck fixing its weights when the shift starts are not modelled.
+//
+// Shift phases form one 16-step cycle (three advances, then a break on the
+// same shift type), so value iteration sweeps the phases backwards around
+// the cycle, Gauss-Seidel style: one sweep carries a reward back 16 shifts,
+// and the bundled catalog converges in 16 to 19 sweeps. Within a phase,
+// slots are solved backwards from the end of the shift, follow-up values
+// are memoized per slot, and the rows of each slot are filled in parallel.
+final class ValueIterationSolver {
+  static final float DISCOUNT = 0.95f; // per shift
+  private static final float TOLERANCE = 0.001f;
+  private static final int MAX_SWEEPS = 1000;
+
+  private static final int LEVELS = StatsTable.MAX_STAT + 1;
+  private static final int STATES = LEVELS * LEVELS;
+  private static final int SLOTS = 4;
+  // A value per slot plus one for the end of the shift
+  private static final int STAGES = SLOTS + 1;
+  private static final int CONSECUTIVE_LEVELS = SimulationEngine.MAX_CONSECUTIVE_SHIFTS + 1;
+  private static final GameLoop.ShiftType[] SHIFT_TYPES = GameLoop.ShiftType.values();
+  private static final int PHASES = SHIFT_TYPES.length * CONSECUTIVE_LEVELS;
+  // The slot before which GreedyChoicePolicy may leave early
+  private static final int LEAVE_EARLY_SLOT = 2;
+  // Weak or not, for efficiency and for stress
+  private static final int DRAW_CASES = 4;
+
+  private final ScenarioCatalog catalog;
+  // Memoized per specialization, experience level and kind of deck
+  private final Solution[] solutions;
+
+  ValueIterationSolver(ScenarioCatalog catalog) {
+    this.catalog = catalog;
+    this.solutions = new Solution[Nurse.Specialization.values().length * 4];
+  }
+
+  synchronized Solution solve(Nurse.Specialization specialization, boolean isNewGrad, boolean weighted) {
+    int index = specialization.ordinal() * 4 + (isNewGrad ? 2 : 0) + (weighted ? 1 : 0);
+    if (solutions[index] == null) {
+      solutions[index] = new Solution(catalog, specialization, isNewGrad, weighted);
+    }
+    return solutions[index];
+  }
+
+  // The value table for one specialization and experience level
+  static final class Solution {
+    private final Nurse.Specialization specialization;
+    private final Scenario[] dayPool;
+    private final Scenario[] nightPool;
+    // [weak efficiency and stress][pool index]: each scenario's chance of
+    // filling a slot (see drawCase)
+    private final float[] dayShares;
+    private final float[] nightShares;
+    // Follow-ups reachable from either pool, each after its own follow-ups
+    private final Scenario[] followUps;
+    // [phase][stage][efficiency][stress]: expected discounted score from the
+    // start of a scenario slot, or from the end of the shift at stage 4
+    private final float[] values;
+    // [phase][efficiency][stress]: the same from the start of a shift
+    private final float[] start;
+    private final int sweeps;
+    private final long solveNanos;
+
+    private Solution(ScenarioCatalog catalog, Nurse.Specialization specialization, boolean isNewGrad,
+        boolean weighted) {
+      this.specialization = specialization;
+      this.dayPool = catalog.getPool(isNewGrad, false, specialization);
+      this.nightPool = catalog.getPool(isNewGrad, true, specialization);
+      long startingStats = SimulationEngine.createNurse("Solver", specialization, isNewGrad, false)
+          .getStats().getPacked();
+      ScenarioWeights weights = weighted ? catalog.getScenarioWeights() : null;
+      this.dayShares = shares(dayPool, weights, startingStats);
+      this.nightShares = shares(nightPool, weights, startingStats);
+      List<Scenario> order = new ArrayList<>();
+      for (Scenario[] pool : new Scenario[][] {dayPool, nightPool}) {
+        for (Scenario scenario : pool) {
+          addFollowUps(scenario, order);
+        }
+      }
+      this.followUps = order.toArray(new Scenario[0]);
+      this.values = new float[PHASES * STAGES * STATES];
+      this.start = new float[PHASES * STATES];
+
+      int[] cycle = new int[PHASES];
+      for (int i = 1; i < PHASES; i++) {
+        cycle[i] = successor(cycle[i - 1]);
+      }
+      float[][] memo = new float[catalog.getIdLimit()][];
+      for (Scenario followUp : followUps) {
+        memo[followUp.getId()] = new float[STATES];
+      }
+
+      long startTime = System.nanoTime();
+      int sweep = 0;
+      float change;
+      do {
+        change = 0;
+        for (int i = PHASES - 1; i >= 0; i--) {
+          change = Math.max(change, solvePhase(cycle[i], memo));
+        }
+        sweep++;
+      } while (change > TOLERANCE && sweep < MAX_SWEEPS);
+      this.sweeps = sweep;
+      this.solveNanos = System.nanoTime() - startTime;
+    }
+
+    // Scenario weights change with efficiency and stress only where they
+    // cross ScenarioWeights.WEAK_STAT, so there are four draw distributions
+    private static float[] shares(Scenario[] pool, ScenarioWeights weights, long startingStats) {
+      float[] shares = new float[DRAW_CASES * pool.length];
+      for (int drawCase = 0; drawCase < DRAW_CASES; drawCase++) {
+        double[] caseWeights = new double[pool.length];
+        double total = 0;
+        for (int i = 0; i < pool.length; i++) {
+          if (weights == null) {
+            caseWeights[i] = 1;
+          } else {
+            boolean weakEfficiency = (drawCase & 1) != 0;
+            boolean weakStress = (drawCase & 2) != 0;
+            long stats = StatsTable.withLane(startingStats, StatsTable.EFFICIENCY,
+                weakEfficiency ? ScenarioWeights.WEAK_STAT - 1 : ScenarioWeights.WEAK_STAT);
+            stats = StatsTable.withLane(stats, StatsTable.STRESS, StatsTable.MAX_STAT
+                - (weakStress ? ScenarioWeights.WEAK_STAT - 1 : ScenarioWeights.WEAK_STAT));
+            caseWeights[i] = weights.weight(pool[i], weights.key(stats));
+          }
+          total += caseWeights[i];
+        }
+        for (int i = 0; i < pool.length; i++) {
+          shares[drawCase * pool.length + i] = (float) (caseWeights[i] / total);
+        }
+      }
+      return shares;
+    }
+
+    private static int drawCase(int efficiency, int stress) {
+      return (efficiency < ScenarioWeights.WEAK_STAT ? 1 : 0)
+          | (stress > StatsTable.MAX_STAT - ScenarioWeights.WEAK_STAT ? 2 : 0);
+    }
+
+    private static void addFollowUps(Scenario scenario, List<Scenario> order) {
+      for (int option = 0; option < scenario.getOptionCount(); option++) {
+        Scenario followUp = scenario.getFollowUp(option);
+        if (followUp != null && !order.contains(followUp)) {
+          addFollowUps(followUp, order);
+          order.add(followUp);
+        }
+      }
+    }
+
+    // Recomputes one phase from the current value of the phase after it;
+    // returns how far its start values moved
+    private float solvePhase(int phase, float[][] memo) {
+      GameLoop.ShiftType shiftType = SHIFT_TYPES[phase / CONSECUTIVE_LEVELS];
+      int consecutive = phase % CONSECUTIVE_LEVELS;
+      Scenario[] pool = shiftType.isNightShift() ? nightPool : dayPool;
+      float[] shares = shiftType.isNightShift() ? nightShares : dayShares;
+
+      // End of shift: a break on the same shift type, or the next shift
+      int end = offset(phase, SLOTS);
+      if (consecutive >= SimulationEngine.MAX_CONSECUTIVE_SHIFTS) {
+        int next = phase(shiftType, 0) * STATES;
+        for (int efficiency = 0; efficiency < LEVELS; efficiency++) {
+          int rested = clamp(efficiency + SimulationEngine.BREAK_EFFICIENCY_GAIN);
+          for (int stress = 0; stress < LEVELS; stress++) {
+            int relieved = clamp(stress - SimulationEngine.BREAK_STRESS_RELIEF);
+            values[end + efficiency * LEVELS + stress] = (rested - efficiency) - (relieved - stress)
+                + DISCOUNT * start[next + rested * LEVELS + relieved];
+          }
+        }
+      } else {
+        int next = successor(phase) * STATES;
+        for (int state = 0; state < STATES; state++) {
+          values[end + state] = DISCOUNT * start[next + state];
+        }
+      }
+
+      for (int slot = SLOTS - 1; slot >= 0; slot--) {
+        int current = offset(phase, slot);
+        int next = offset(phase, slot + 1);
+        if (slot >= pool.length) {
+          // The deck runs out and the slot has no scenario
+          System.arraycopy(values, next, values, current, STATES);
+        } else {
+          for (Scenario followUp : followUps) {
+            float[] table = memo[followUp.getId()];
+            IntStream.range(0, LEVELS).parallel().forEach(efficiency -> {
+              for (int stress = 0; stress < LEVELS; stress++) {
+                table[efficiency * LEVELS + stress] = process(followUp, efficiency, stress, values, next, memo);
+              }
+            });
+          }
+          IntStream.range(0, LEVELS).parallel().forEach(efficiency -> {
+            for (int stress = 0; stress < LEVELS; stress++) {
+              int row = drawCase(efficiency, stress) * pool.length;
+              float value = 0;
+              for (int i = 0; i < pool.length; i++) {
+                value += shares[row + i] * process(pool[i], efficiency, stress, values, next, memo);
+              }
+              values[current + efficiency * LEVELS + stress] = value;
+            }
+          });
+        }
+        if (slot == LEAVE_EARLY_SLOT) {
+          for (int efficiency = 0; efficiency < LEVELS; efficiency++) {
+            int rested = clamp(efficiency + SimulationEngine.DEPARTURE_EFFICIENCY_GAIN);
+            for (int stress = GreedyChoicePolicy.LEAVE_EARLY_STRESS + 1; stress < LEVELS; stress++) {
+              int relieved = clamp(stress - SimulationEngine.DEPARTURE_STRESS_RELIEF);
+              values[current + efficiency * LEVELS + stress] = (rested - efficiency) - (relieved - stress)
+                  + values[end + rested * LEVELS + relieved];
+            }
+          }
+        }
+      }
+
+      // Start of shift: the specialization's per-shift effects, then slot 0
+      int efficiencyPerShift = specialization.getAttributes().efficiencyPerShiftModifier;
+      int stressPerShift = specialization.getAttributes().stressPerShiftModifier;
+      int first = offset(phase, 0);
+      float change = 0;
+      for (int efficiency = 0; efficiency < LEVELS; efficiency++) {
+        int shiftedEfficiency = clamp(efficiency + efficiencyPerShift);
+        for (int stress = 0; stress < LEVELS; stress++) {
+          int shiftedStress = clamp(stress + stressPerShift);
+          if (shiftType.isNightShift()) {
+            shiftedStress = clamp(shiftedStress + 1);
+          }
+          float value = (shiftedEfficiency - efficiency) - (shiftedStress - stress)
+              + values[first + shiftedEfficiency * LEVELS + shiftedStress];
+          int state = phase * STATES + efficiency * LEVELS + stress;
+          change = Math.max(change, Math.abs(value - start[state]));
+          start[state] = value;
+        }
+      }
+      return change;
+    }
+
+    // Expected value of processScenario: the mistake roll, then the best option
+    private static float process(Scenario scenario, int efficiency, int stress, float[] values, int next,
+        float[][] memo) {
+      float value = best(scenario, efficiency, stress, values, next, memo);
+      int chance = SimulationEngine.mistakeChance(efficiency);
+      if (chance == 0) {
+        return value;
+      }
+      int mistakeStress = clamp(stress + SimulationEngine.MISTAKE_STRESS);
+      float mistake = -SimulationEngine.MISTAKE_PATIENT_CARE - (mistakeStress - stress)
+          + best(scenario, efficiency, mistakeStress, values, next, memo);
+      float probability = chance / 100f;
+      return (1 - probability) * value + probability * mistake;
+    }
+
+    private static float best(Scenario scenario, int efficiency, int stress, float[] values, int next,
+        float[][] memo) {
+      float best = Float.NEGATIVE_INFINITY;
+      int optionCount = scenario.getOptionCount();
+      for (int option = 0; option < optionCount; option++) {
+        best = Math.max(best, optionValue(scenario, option, efficiency, stress, values, next, memo));
+      }
+      return best;
+    }
+
+    // Reward of the option plus the value of where it leaves the nurse;
+    // without a memo, follow-ups are evaluated recursively
+    private static float optionValue(Scenario scenario, int option, int efficiency, int stress, float[] values,
+        int next, float[][] memo) {
+      ScenarioOutcome outcome = scenario.previewOutcome(option);
+      int newEfficiency = clamp(efficiency + outcome.getEfficiencyChange());
+      int newStress = clamp(stress + outcome.getStressChange());
+      float reward = outcome.getKnowledgeChange() + outcome.getPatientCareChange()
+          + (newEfficiency - efficiency) - (newStress - stress);
+      int state = newEfficiency * LEVELS + newStress;
+      Scenario followUp = scenario.getFollowUp(option);
+      if (followUp == null) {
+        return reward + values[next + state];
+      }
+      if (memo != null && followUp.getId() >= 0 && memo[followUp.getId()] != null) {
+        return reward + memo[followUp.getId()][state];
+      }
+      return reward + process(followUp, newEfficiency, newStress, values, next, null);
+    }
+
+    // Expected discounted score of picking the option in the engine's
+    // current position, with the nurse's stats as they are now
+    float getOptionValue(SimulationEngine engine, Scenario scenario, int option) {
+      Stats stats = engine.getNurse().getStats();
+      return optionValue(scenario, option, stats.getEfficiency(), stats.getStress(), values,
+          offset(phase(engine), engine.getScenarioSlot() + 1), null);
+    }
+
+    int getBestOption(SimulationEngine engine, Scenario scenario) {
+      int best = 0;
+      float bestValue = Float.NEGATIVE_INFINITY;
+      for (int option = 0; option < scenario.getOptionCount(); option++) {
+        float value = getOptionValue(engine, scenario, option);
+        if (value > bestValue) {
+          best = option;
+          bestValue = value;
+        }
+      }
+      return best;
+    }
+
+    // Expected score given up by picking this option instead of the best one
+    float getRegret(SimulationEngine engine, Scenario scenario, int option) {
+      return getOptionValue(engine, scenario, getBestOption(engine, scenario))
+          - getOptionValue(engine, scenario, option);
+    }
+
+    // Expected discounted score of a career from the start of a shift
+    float getValue(GameLoop.ShiftType shiftType, int consecutiveShifts, int efficiency, int stress) {
+      return start[phase(shiftType, consecutiveShifts) * STATES + efficiency * LEVELS + stress];
+    }
+
+    int getSweeps() {
+      return sweeps;
+    }
+
+    long getSolveNanos() {
+      return solveNanos;
+    }
+  }
+
+  private static int phase(SimulationEngine engine) {
+    return phase(engine.getCurrentShift(), engine.getConsecutiveShifts());
+  }
+
+  private static int phase(GameLoop.ShiftType shiftType, int consecutiveShifts) {
+    return shiftType.ordinal() * CONSECUTIVE_LEVELS + Math.min(consecutiveShifts, CONSECUTIVE_LEVELS - 1);
+  }
+
+  // The phase of the next shift, as SimulationEngine.finishShift moves on
+  private static int successor(int phase) {
+    GameLoop.ShiftType shiftType = SHIFT_TYPES[phase / CONSECUTIVE_LEVELS];
+    int consecutive = phase % CONSECUTIVE_LEVELS;
+    if (consecutive >= SimulationEngine.MAX_CONSECUTIVE_SHIFTS) {
+      return phase(shiftType, 0);
+    }
+    return phase(SHIFT_TYPES[(shiftType.ordinal() + 1) % SHIFT_TYPES.length], consecutive + 1);
+  }
+
+  private static int offset(int phase, int stage) {
+    return (phase * STAGES + stage) * STATES;
+  }
+
+  private static int clamp(int value) {
+    return Math.max(StatsTable.MIN_STAT, Math.min(StatsTable.MAX_STAT, value));
+  }
+
+  // Solves every specialization and experience level for the configured
+  // deck, then scores the bundled bots' decisions against the solver's
+  public static void main(String[] args) {
+    int careers = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    int shifts = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    ValueIterationSolver solver = new ValueIterationSolver(ScenarioCatalog.shared());
+    boolean weighted = WeightedScenarioDeck.configured();
+
+    long startTime = System.nanoTime();
+    for (Nurse.Specialization specialization : Nurse.Specialization.values()) {
+      for (boolean isNewGrad : new boolean[] {false, true}) {
+        Solution solution = solver.solve(specialization, isNewGrad, weighted);
+        System.out.printf("%s, %s: %d sweeps in %.0f ms%n", specialization.getDisplayName(),
+            isNewGrad ? "new grad" : "experienced", solution.getSweeps(), solution.getSolveNanos() / 1e6);
+        for (String name : new String[] {"greedy", "expected-outcome", "value-iteration"}) {
+          double regret = 0;
+          long decisions = 0;
+          SplittableRandom random = new SplittableRandom(42);
+          for (int career = 0; career < careers; career++) {
+            RegretMeter meter = new RegretMeter(solution, name.equals("greedy") ? new GreedyChoicePolicy()
+                : name.equals("expected-outcome") ? new ExpectedOutcomePolicy() : new ValueIterationPolicy(solution));
+            boolean nightStart = career % 2 == 1;
+            Nurse nurse = SimulationEngine.createNurse("Solver", specialization, isNewGrad, nightStart);
+            SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), isNewGrad,
+                nightStart ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST, meter, random.split());
+            meter.attach(engine);
+            engine.runCareer(shifts);
+            regret += meter.regret;
+            decisions += meter.decisions;
+          }
+          System.out.printf("  %-16s mean regret %.3f per decision%n", name, regret / Math.max(1, decisions));
+        }
+      }
+    }
+    System.out.printf("Total %.2f s%n", (System.nanoTime() - startTime) / 1e9);
+  }
+
+  // Passes decisions through to a policy and adds up their regret
+  private static final class RegretMeter extends GreedyChoicePolicy {
+    private final Solution solution;
+    private final ChoicePolicy policy;
+    private SimulationEngine engine;
+    private double regret;
+    private long decisions;
+
+    RegretMeter(Solution solution, ChoicePolicy policy) {
+      this.solution = solution;
+      this.policy = policy;
+    }
+
+    void attach(SimulationEngine engine) {
+      this.engine = engine;
+      if (policy instanceof ValueIterationPolicy) {
+        ((ValueIterationPolicy) policy).attach(engine);
+      }
+    }
+
+    @Override
+    public int chooseOption(Scenario scenario, Nurse nurse) {
+      int choice = policy.chooseOption(scenario, nurse);
+      regret += solution.getRegret(engine, scenario, choice);
+      decisions++;
+      return choice;
+    }
+  }
+}
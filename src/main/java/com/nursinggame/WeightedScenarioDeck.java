@@ -0,0 +1,126 @@
+package com.nursinggame;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Draws a shift's scenarios in proportion to their ScenarioWeights, so
+// nurses see scenarios near their level that work on their weak stats,
+// and less of what they have just played: a scenario drawn k shifts ago
+// (k < RECENCY_SHIFTS) keeps k / RECENCY_SHIFTS of its weight, and one
+// drawn this shift none.
+//
+// The base weights come from a shared alias table picked at reset(), so in
+// a large pool a draw is one table sample plus a rejection test for
+// recency; recency only ever lowers a weight, which makes that exact. In
+// a pool of at most LINEAR_POOL scenarios, where a shift's own draws and
+// the last few shifts' make up most of the weight, and whenever the
+// rejections pile up, a draw is a linear pass over the pool instead.
+final class WeightedScenarioDeck implements ScenarioSelector {
+  static final int RECENCY_SHIFTS = 3;
+  static final int LINEAR_POOL = 8;
+  private static final int MAX_REJECTIONS = 32;
+  // Share of its weight a scenario keeps, by shifts since it was drawn
+  private static final double[] RECENCY = new double[RECENCY_SHIFTS + 1];
+
+  static {
+    for (int age = 0; age <= RECENCY_SHIFTS; age++) {
+      RECENCY[age] = (double) age / RECENCY_SHIFTS;
+    }
+  }
+
+  private final Scenario[] pool;
+  private final int poolIndex;
+  private final ScenarioWeights weights;
+  private final Stats stats;
+  // The deck shift each scenario was last drawn in, long enough ago not
+  // to count if never
+  private final int[] lastDrawn;
+  // For the linear draw: this shift's weight of each scenario, zero once
+  // drawn, and their total
+  private final double[] current;
+  private double total;
+  private int deckShift;
+  private int drawn;
+  private int key = -1;
+  private AliasTable table;
+
+  WeightedScenarioDeck(ScenarioCatalog catalog, boolean isNewGrad, boolean nightShift, Nurse nurse) {
+    this.pool = catalog.getPool(isNewGrad, nightShift, nurse.getSpecialization());
+    this.poolIndex = ScenarioCatalog.poolIndex(isNewGrad, nightShift, nurse.getSpecialization());
+    this.weights = catalog.getScenarioWeights();
+    this.stats = nurse.getStats();
+    this.lastDrawn = new int[pool.length];
+    this.current = new double[pool.length];
+    Arrays.fill(lastDrawn, -RECENCY_SHIFTS);
+  }
+
+  // Weighted unless started with -Dnursinggame.selection=uniform
+  static boolean configured() {
+    return !"uniform".equals(System.getProperty("nursinggame.selection"));
+  }
+
+  @Override
+  public void reset() {
+    deckShift++;
+    drawn = 0;
+    int nurseKey = weights.key(stats.getPacked());
+    if (nurseKey != key) {
+      key = nurseKey;
+      table = weights.table(poolIndex, key);
+    }
+    if (pool.length <= LINEAR_POOL) {
+      refreshWeights();
+    }
+  }
+
+  private void refreshWeights() {
+    total = 0;
+    for (int i = 0; i < pool.length; i++) {
+      current[i] = table.weight(i) * RECENCY[Math.min(deckShift - lastDrawn[i], RECENCY_SHIFTS)];
+      total += current[i];
+    }
+  }
+
+  @Override
+  public Scenario draw(RandomGenerator random) {
+    if (drawn >= pool.length) {
+      return null;
+    }
+    if (pool.length <= LINEAR_POOL) {
+      return take(linearDraw(random));
+    }
+    for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+      int index = table.sample(random);
+      int age = deckShift - lastDrawn[index];
+      if (age >= RECENCY_SHIFTS || random.nextDouble() < RECENCY[age]) {
+        return take(index);
+      }
+    }
+    refreshWeights();
+    return take(linearDraw(random));
+  }
+
+  private int linearDraw(RandomGenerator random) {
+    double target = random.nextDouble() * total;
+    int last = 0;
+    for (int i = 0; i < pool.length; i++) {
+      if (current[i] > 0) {
+        last = i;
+        target -= current[i];
+        if (target < 0) {
+          return i;
+        }
+      }
+    }
+    // Rounding left target at or just above zero
+    return last;
+  }
+
+  private Scenario take(int index) {
+    lastDrawn[index] = deckShift;
+    total -= current[index];
+    current[index] = 0;
+    drawn++;
+    return pool[index];
+  }
+}
@@ -0,0 +1,100 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+// The headless shift path must not allocate once it is warmed up, even
+// after a Flight Recorder recording has run in the same JVM (as
+// GameEventsTest's does). The JIT only removes some allocations after it
+// compiles the path, so each case warms up with rounds of shifts until one
+// allocates nothing, then fails if a fixed window of rounds after that
+// allocates anything at all.
+class AllocationFreeShiftTest {
+  private static final int SHIFTS_PER_ROUND = 20_000;
+  private static final int MAX_WARM_UP_ROUNDS = 250;
+  private static final int MEASURED_ROUNDS = 10;
+
+  private static com.sun.management.ThreadMXBean threads;
+
+  @BeforeAll
+  static void allocationCounters() {
+    threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  private static SimulationEngine engine(ChoicePolicy policy, RandomGenerator random, boolean weighted) {
+    Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ICU, true, false);
+    SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), true,
+        GameLoop.ShiftType.DAY_FIRST, policy, random);
+    engine.setWeightedSelection(weighted);
+    return engine;
+  }
+
+  private static void playShifts(SimulationEngine engine, int shifts) {
+    for (int i = 0; i < shifts; i++) {
+      engine.runShift();
+      engine.finishShift();
+    }
+  }
+
+  // Each round is a new career, set up before measuring: millions of
+  // shifts of one career would take its salary past what a long holds in
+  // cents
+  private static long allocatedInRound(Supplier<SimulationEngine> careers) {
+    SimulationEngine engine = careers.get();
+    long before = threads.getCurrentThreadAllocatedBytes();
+    playShifts(engine, SHIFTS_PER_ROUND);
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  // What the measured window allocated, or what the last warm-up round
+  // did if none allocated nothing
+  private static long allocatedOnceWarm(Supplier<SimulationEngine> careers) {
+    long allocated = -1;
+    for (int round = 0; round < MAX_WARM_UP_ROUNDS && allocated != 0; round++) {
+      allocated = allocatedInRound(careers);
+    }
+    if (allocated != 0) {
+      return allocated;
+    }
+    for (int round = 0; round < MEASURED_ROUNDS; round++) {
+      allocated += allocatedInRound(careers);
+    }
+    return allocated;
+  }
+
+  @Test
+  void greedyPolicyWithWeightedDecks() {
+    RandomGenerator random = GameRandom.create(1);
+    assertEquals(0, allocatedOnceWarm(() -> engine(new GreedyChoicePolicy(), random, true)));
+  }
+
+  @Test
+  void randomPolicyWithUniformDecks() {
+    RandomGenerator random = GameRandom.create(2);
+    assertEquals(0, allocatedOnceWarm(() -> engine(new RandomChoicePolicy(random), random, false)));
+  }
+
+  @Test
+  void withMetricsAndAnalytics() {
+    RandomGenerator random = GameRandom.create(3);
+    ScenarioCatalog catalog = ScenarioCatalog.shared();
+    GameMetrics metrics = new GameMetrics(catalog);
+    // Never drained, so once full every publish takes the drop path too
+    DecisionAnalytics analytics = new DecisionAnalytics(catalog, 1 << 10, DecisionAnalytics.DEFAULT_BUCKET_MILLIS,
+        DecisionAnalytics.DEFAULT_BUCKETS);
+    assertEquals(0, allocatedOnceWarm(() -> {
+      SimulationEngine engine = engine(new RandomChoicePolicy(random), random, true);
+      engine.setMetrics(metrics);
+      engine.setAnalytics(analytics);
+      return engine;
+    }));
+  }
+}
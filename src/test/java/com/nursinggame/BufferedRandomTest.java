@@ -0,0 +1,78 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import org.junit.jupiter.api.Test;
+
+class BufferedRandomTest {
+  private static final int DRAWS = 2_000_000;
+
+  @Test
+  void boundedDrawsAreUniform() {
+    // Small bounds, the game's, and large ones where rejection matters:
+    // 2^30 + 1 rejects about a quarter of all draws
+    RandomGenerator random = GameRandom.create(1);
+    for (int bound : new int[] {1, 2, 3, 7, 100, (1 << 30) + 1, Integer.MAX_VALUE}) {
+      int buckets = Math.min(bound, 100);
+      long[] counts = new long[buckets];
+      for (int i = 0; i < DRAWS; i++) {
+        int value = random.nextInt(bound);
+        assertTrue(value >= 0 && value < bound, value + " out of [0, " + bound + ")");
+        counts[(int) ((long) value * buckets / bound)]++;
+      }
+      if (buckets == 1) {
+        continue;
+      }
+      double expected = (double) DRAWS / buckets;
+      double chiSquare = 0;
+      for (long count : counts) {
+        chiSquare += (count - expected) * (count - expected) / expected;
+      }
+      // Five standard deviations above the mean of the distribution
+      int degrees = buckets - 1;
+      assertTrue(chiSquare < degrees + 5 * Math.sqrt(2 * degrees), "bound " + bound + ": chi-square " + chiSquare);
+    }
+  }
+
+  @Test
+  void drawsFollowTheSourceInOrder() {
+    for (String algorithm : new String[] {"L64X128MixRandom", "SplittableRandom"}) {
+      RandomGenerator source = RandomGeneratorFactory.of(algorithm).create(5);
+      RandomGenerator buffered = GameRandom.create(GameRandom.algorithmId(algorithm), 5);
+      // Several blocks, so refills keep the order too
+      for (int i = 0; i < 1_000; i++) {
+        long bits = source.nextLong();
+        assertEquals((int) bits, buffered.nextInt());
+        assertEquals((int) (bits >>> 32), buffered.nextInt());
+      }
+    }
+  }
+
+  @Test
+  void eachSeedHasItsOwnRepeatableStream() {
+    RandomGenerator first = GameRandom.create(42);
+    RandomGenerator again = GameRandom.create(42);
+    RandomGenerator other = GameRandom.create(43);
+    int same = 0;
+    for (int i = 0; i < 10_000; i++) {
+      int value = first.nextInt(100);
+      assertEquals(value, again.nextInt(100));
+      if (value == other.nextInt(100)) {
+        same++;
+      }
+    }
+    assertNotEquals(10_000, same);
+  }
+
+  @Test
+  void rejectsBoundsBelowOne() {
+    RandomGenerator random = GameRandom.create(1);
+    assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+    assertThrows(IllegalArgumentException.class, () -> random.nextInt(-5));
+  }
+}
@@ -0,0 +1,92 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CareerReplayTest {
+  @TempDir
+  Path directory;
+
+  // Plays a career into a journal and returns the engine that played it
+  private SimulationEngine record(Path path, int career, boolean weighted) throws IOException {
+    long seed = new SplittableRandom(career).nextLong();
+    Nurse.Specialization specialization = Nurse.Specialization.values()[career % 3];
+    boolean night = career % 2 == 0;
+    boolean newGrad = career % 5 < 2;
+    Nurse nurse = SimulationEngine.createNurse("Nurse " + career, specialization, newGrad, night);
+    SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), newGrad,
+        night ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST,
+        new RandomChoicePolicy(new SplittableRandom(career), 0.1, 0.5), GameRandom.create(seed));
+    engine.setWeightedSelection(weighted);
+    SessionJournal journal = SessionJournal.create(path, engine, seed, GameRandom.configuredAlgorithm(), night);
+    engine.runCareer(5 + career * 7);
+    journal.close();
+    return engine;
+  }
+
+  private static CareerReplay replay(Path path, ScenarioCatalog catalog) throws IOException {
+    SessionJournal journal = SessionJournal.open(path);
+    // Replays only read the recording, so it need not stay claimed
+    journal.close();
+    return new CareerReplay(journal, catalog, new GreedyChoicePolicy());
+  }
+
+  @Test
+  void reproducesJournaledCareersExactly() throws IOException {
+    for (int career = 0; career < 40; career++) {
+      Path path = directory.resolve(career + ".journal");
+      SimulationEngine played = record(path, career, career % 2 == 0);
+      CareerReplay replay = replay(path, ScenarioCatalog.shared());
+
+      assertTrue(replay.replayAll(), "career " + career + " diverged at " + replay.getDivergedAt());
+      assertTrue(replay.isComplete());
+      SimulationEngine replayed = replay.getEngine();
+      Nurse nurse = played.getNurse();
+      assertEquals(nurse.getStats().getPacked(), replayed.getNurse().getStats().getPacked());
+      assertEquals(nurse.getFinancials().getBalanceCents(), replayed.getNurse().getFinancials().getBalanceCents());
+      assertEquals(nurse.getFinancials().getSavingsCents(), replayed.getNurse().getFinancials().getSavingsCents());
+      assertEquals(nurse.getFinancials().getSalaryCents(), replayed.getNurse().getFinancials().getSalaryCents());
+      assertEquals(played.getShift(), replayed.getShift());
+      assertEquals(played.getCurrentShift(), replayed.getCurrentShift());
+      assertEquals(played.getConsecutiveShifts(), replayed.getConsecutiveShifts());
+    }
+  }
+
+  @Test
+  void fastForwardStopsAtTheTargetShift() throws IOException {
+    Path path = directory.resolve("career.journal");
+    record(path, 6, true);
+    CareerReplay replay = replay(path, ScenarioCatalog.shared());
+    assertTrue(replay.fastForward(20));
+    assertEquals(20, replay.getEngine().getShift());
+    assertFalse(replay.isComplete());
+  }
+
+  @Test
+  void reportsWhereAChangedCatalogDiverges() throws IOException {
+    Path path = directory.resolve("career.journal");
+    record(path, 6, false);
+
+    // The same scenarios in another order: every pool draws differently
+    List<ScenarioCatalogFile.Definition> definitions;
+    try (InputStream in = getClass().getResourceAsStream(ScenarioCatalogFile.RESOURCE)) {
+      definitions = ScenarioCatalogFile.parse(in.readAllBytes());
+    }
+    Collections.reverse(definitions);
+    CareerReplay replay = replay(path, new ScenarioCatalog(definitions));
+
+    assertFalse(replay.replayAll());
+    assertTrue(replay.getDivergedAt() >= 0);
+    assertFalse(replay.isComplete());
+  }
+}
@@ -0,0 +1,87 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+// Only runs in builds made with -Pvector, which compile the vector kernel
+// and add its module to the test JVM
+class CohortKernelTest {
+  // Longer than several of the widest vectors, so every tail length is covered
+  private static final int MAX_ROWS = 70;
+
+  private static long[] rows(SplittableRandom random, int count) {
+    long[] rows = new long[count];
+    for (int i = 0; i < count; i++) {
+      rows[i] = StatsTable.pack(random.nextInt(101), random.nextInt(101), random.nextInt(101),
+          random.nextInt(101), random.nextInt(101), random.nextInt(101));
+    }
+    return rows;
+  }
+
+  private static int[] changes(SplittableRandom random) {
+    int[] changes = new int[StatsTable.STAT_COUNT];
+    for (int stat = 0; stat < changes.length; stat++) {
+      changes[stat] = random.nextInt(-120, 121);
+    }
+    return changes;
+  }
+
+  private static CohortKernel vectorKernel() {
+    CohortKernel vector = CohortKernel.loadVector();
+    assumeTrue(vector != null, "built without -Pvector");
+    return vector;
+  }
+
+  @Test
+  void vectorKernelMatchesScalarOnWholeTables() {
+    CohortKernel vector = vectorKernel();
+    CohortKernel scalar = new ScalarCohortKernel();
+    SplittableRandom random = new SplittableRandom(17);
+    for (int length = 0; length <= MAX_ROWS; length++) {
+      for (int trial = 0; trial < 20; trial++) {
+        long[] expected = rows(random, length);
+        long[] actual = expected.clone();
+        int[] changes = changes(random);
+        long increases = StatsTable.packChanges(changes, 1);
+        long decreases = StatsTable.packChanges(changes, -1);
+        scalar.apply(expected, increases, decreases);
+        vector.apply(actual, increases, decreases);
+        assertArrayEquals(expected, actual, "length " + length);
+      }
+    }
+  }
+
+  @Test
+  void vectorKernelMatchesScalarThroughIndexLists() {
+    CohortKernel vector = vectorKernel();
+    CohortKernel scalar = new ScalarCohortKernel();
+    SplittableRandom random = new SplittableRandom(23);
+    for (int count = 0; count <= MAX_ROWS; count++) {
+      for (int trial = 0; trial < 20; trial++) {
+        long[] expected = rows(random, MAX_ROWS + 10);
+        long[] actual = expected.clone();
+        // A shuffled list of distinct nurses, only the first count of
+        // which are updated
+        int[] indices = new int[expected.length];
+        for (int i = 0; i < indices.length; i++) {
+          indices[i] = i;
+        }
+        for (int i = indices.length - 1; i > 0; i--) {
+          int j = random.nextInt(i + 1);
+          int swap = indices[i];
+          indices[i] = indices[j];
+          indices[j] = swap;
+        }
+        int[] changes = changes(random);
+        long increases = StatsTable.packChanges(changes, 1);
+        long decreases = StatsTable.packChanges(changes, -1);
+        scalar.apply(expected, indices, count, increases, decreases);
+        vector.apply(actual, indices, count, increases, decreases);
+        assertArrayEquals(expected, actual, "count " + count);
+      }
+    }
+  }
+}
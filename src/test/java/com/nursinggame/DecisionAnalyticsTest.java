@@ -0,0 +1,56 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DecisionAnalyticsTest {
+  private static final int OPTIONS = 300;
+
+  // More options than fit in a byte, so choices past 255 must not land on
+  // a lower option
+  private static ScenarioCatalog wideCatalog() {
+    ScenarioCatalogFile.Definition definition = new ScenarioCatalogFile.Definition();
+    definition.placement = ScenarioCatalogFile.DAY;
+    definition.difficulty = 1;
+    definition.specializationMask = 0b111;
+    definition.title = "Wide";
+    definition.description = "";
+    for (int i = 0; i < OPTIONS; i++) {
+      ScenarioCatalogFile.OptionDefinition option = new ScenarioCatalogFile.OptionDefinition();
+      option.text = "Option " + i;
+      option.outcome = "Outcome " + i;
+      option.knowledgeChange = 1;
+      definition.options.add(option);
+    }
+    return new ScenarioCatalog(List.of(definition));
+  }
+
+  @Test
+  void countsEveryOptionOfAWideScenarioSeparately() {
+    ScenarioCatalog catalog = wideCatalog();
+    Scenario scenario = catalog.getScenario(0);
+    DecisionAnalytics analytics = new DecisionAnalytics(catalog, 1 << 10, DecisionAnalytics.DEFAULT_BUCKET_MILLIS,
+        DecisionAnalytics.DEFAULT_BUCKETS);
+    long before = StatsTable.DEFAULT_ROW;
+    long after = StatsTable.withLane(before, StatsTable.KNOWLEDGE, StatsTable.lane(before, StatsTable.KNOWLEDGE) + 1);
+    for (int choice : new int[] {4, 255, 256, 260, OPTIONS - 1}) {
+      assertTrue(analytics.publish(Nurse.Specialization.ICU, scenario, choice, before, after));
+    }
+    assertFalse(analytics.publish(Nurse.Specialization.ICU, scenario, OPTIONS, before, after));
+    analytics.drain();
+
+    for (int option = 0; option < OPTIONS; option++) {
+      boolean published = option == 4 || option == 255 || option == 256 || option == 260 || option == OPTIONS - 1;
+      assertEquals(published ? 1 : 0, analytics.getChoiceCount(Nurse.Specialization.ICU, 0, option),
+          "option " + option);
+    }
+    assertEquals(5, analytics.getDecisionCount(null, 0));
+    assertEquals(0, analytics.getDecisionCount(Nurse.Specialization.ER, 0));
+    assertEquals(1.0, analytics.getMeanStatChange(Nurse.Specialization.ICU, 0, 260, StatsTable.KNOWLEDGE));
+    assertEquals(0.0, analytics.getFollowUpRate(Nurse.Specialization.ICU, 0));
+  }
+}
@@ -0,0 +1,94 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+class DecisionRingBufferTest {
+  private static final int PRODUCERS = 4;
+  private static final int EVENTS_PER_PRODUCER = 50_000;
+
+  @Test
+  void everyOfferIsConsumedOrCountedAsDropped() throws InterruptedException {
+    // Small enough that producers keep filling it
+    DecisionRingBuffer ring = new DecisionRingBuffer(64);
+    AtomicLong accepted = new AtomicLong();
+    Thread[] producers = new Thread[PRODUCERS];
+    for (int p = 0; p < PRODUCERS; p++) {
+      int producer = p;
+      producers[p] = new Thread(() -> {
+        for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+          if (ring.offer(producer, i, producer + i)) {
+            accepted.incrementAndGet();
+          }
+          if (i % 16 == 0) {
+            Thread.yield();
+          }
+        }
+      });
+    }
+
+    // Each event intact, and each producer's events in the order offered
+    long[] consumed = new long[1];
+    long[] last = new long[PRODUCERS];
+    Arrays.fill(last, -1);
+    AtomicBoolean damaged = new AtomicBoolean();
+    DecisionRingBuffer.Consumer check = (producer, sequence, sum) -> {
+      consumed[0]++;
+      if (sum != producer + sequence || sequence <= last[(int) producer]) {
+        damaged.set(true);
+      }
+      last[(int) producer] = sequence;
+    };
+    AtomicBoolean producing = new AtomicBoolean(true);
+    // Pausing between polls lets the producers fill the buffer however
+    // many cores there are
+    Thread consumer = new Thread(() -> {
+      while (producing.get() || ring.poll(check) > 0) {
+        ring.poll(check);
+        LockSupport.parkNanos(20_000);
+      }
+    });
+
+    consumer.start();
+    for (Thread producer : producers) {
+      producer.start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    producing.set(false);
+    consumer.join();
+
+    assertFalse(damaged.get());
+    assertTrue(ring.getDropped() > 0, "the buffer never filled");
+    assertEquals(accepted.get(), consumed[0]);
+    assertEquals(accepted.get(), ring.getAccepted());
+    assertEquals((long) PRODUCERS * EVENTS_PER_PRODUCER, consumed[0] + ring.getDropped());
+  }
+
+  @Test
+  void aFullBufferDropsUntilPolled() {
+    DecisionRingBuffer ring = new DecisionRingBuffer(4);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(ring.offer(i, i, i));
+    }
+    assertFalse(ring.offer(4, 4, 4));
+    assertEquals(1, ring.getDropped());
+    assertEquals(4, ring.poll((a, b, c) -> { }));
+    assertTrue(ring.offer(5, 5, 5));
+  }
+
+  @Test
+  void rejectsCapacitiesThatAreNotPowersOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new DecisionRingBuffer(1));
+    assertThrows(IllegalArgumentException.class, () -> new DecisionRingBuffer(100));
+  }
+}
@@ -0,0 +1,94 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class ExpectedOutcomeTableTest {
+  private static final int SAMPLES = 2_000;
+  private static final int[] EFFICIENCIES = {10, 55, 80};
+
+  // Answers the first scenario with a fixed option and every follow-up
+  // the way the table assumes
+  private static final class FirstThen extends GreedyChoicePolicy {
+    private final int first;
+    private final ChoicePolicy then;
+    private boolean used;
+
+    FirstThen(int first, ChoicePolicy then) {
+      this.first = first;
+      this.then = then;
+    }
+
+    @Override
+    public int chooseOption(Scenario scenario, Nurse nurse) {
+      if (!used) {
+        used = true;
+        return first;
+      }
+      return then.chooseOption(scenario, nurse);
+    }
+  }
+
+  @Test
+  void matchesPlayedAverages() {
+    ScenarioCatalog catalog = ScenarioCatalog.shared();
+    ExpectedOutcomeTable table = catalog.getExpectedOutcomes();
+    ChoicePolicy best = new ExpectedOutcomePolicy(catalog);
+    for (int id = 0; id < catalog.getIdLimit(); id++) {
+      Scenario scenario = catalog.getScenario(id);
+      if (scenario == null) {
+        continue;
+      }
+      for (int efficiency : EFFICIENCIES) {
+        for (int option = 0; option < scenario.getOptionCount(); option++) {
+          double[] sums = new double[ExpectedOutcomeTable.FIELDS];
+          for (int sample = 0; sample < SAMPLES; sample++) {
+            // Stats start mid-range so no change is clamped
+            Nurse nurse = new Nurse("Test Nurse", Nurse.Specialization.ICU);
+            nurse.getStats().setPacked(StatsTable.pack(50, 50, efficiency, 50, 50, 50));
+            nurse.getFinancials().restore(5_000_000, 100_000_000, 0, 0, 0, false);
+            SimulationEngine engine = new SimulationEngine(nurse, catalog, false, GameLoop.ShiftType.DAY_FIRST,
+                new FirstThen(option, best), new SplittableRandom(sample * 31L + id));
+            long before = nurse.getStats().getPacked();
+            double savings = nurse.getFinancials().getSavings();
+            engine.processScenario(scenario);
+            long after = nurse.getStats().getPacked();
+            for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+              sums[stat] += StatsTable.lane(after, stat) - StatsTable.lane(before, stat);
+            }
+            sums[ExpectedOutcomeTable.FINANCIAL] += nurse.getFinancials().getSavings() - savings;
+          }
+          for (int field = 0; field < ExpectedOutcomeTable.FIELDS; field++) {
+            assertEquals(table.getExpectedChange(scenario, option, efficiency, field), sums[field] / SAMPLES, 0.5,
+                "scenario " + id + " option " + option + " efficiency " + efficiency + " field " + field);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void ranksMoreOptionsThanTheFileFormatHolds() {
+    ScenarioCatalogFile.Definition definition = new ScenarioCatalogFile.Definition();
+    definition.placement = ScenarioCatalogFile.DAY;
+    definition.difficulty = 1;
+    definition.specializationMask = 0b111;
+    definition.title = "Wide";
+    definition.description = "More options than a snapshot can store";
+    for (int i = 0; i < 200; i++) {
+      ScenarioCatalogFile.OptionDefinition option = new ScenarioCatalogFile.OptionDefinition();
+      option.text = "Option " + i;
+      option.outcome = "Outcome " + i;
+      option.knowledgeChange = i == 180 ? 5 : 1;
+      definition.options.add(option);
+    }
+    ScenarioCatalog catalog = new ScenarioCatalog(List.of(definition));
+    Scenario scenario = catalog.getScenario(0);
+    for (int efficiency : EFFICIENCIES) {
+      assertEquals(180, catalog.getExpectedOutcomes().getBestOption(scenario, efficiency));
+    }
+  }
+}
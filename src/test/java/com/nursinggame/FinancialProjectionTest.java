@@ -0,0 +1,82 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class FinancialProjectionTest {
+  private static final int YEARS = 30;
+
+  @Test
+  void matchesAStepwiseSimulation() {
+    SplittableRandom random = new SplittableRandom(1);
+    for (int trial = 0; trial < 300; trial++) {
+      Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.values()[trial % 3],
+          trial % 2 == 0, trial % 4 < 2);
+      double rate = trial % 10 == 0 ? 0 : random.nextDouble() * 0.1;
+      long minimumPayment = 100_00 + random.nextInt(500_00);
+      double share = random.nextDouble();
+      int nightShiftsPerWeek = random.nextInt(4);
+      FinancialProjection projection = new FinancialProjection(nurse);
+      projection.setLoanRate(rate);
+      projection.setMonthlyLoanPayment(minimumPayment / 100.0);
+      projection.setLoanPaymentShare(share);
+      projection.setNightShiftsPerWeek(nightShiftsPerWeek);
+      FinancialProjection.Timeline timeline = projection.project(YEARS);
+
+      // Every shift paid through Financials, every month's interest and
+      // payment applied in turn
+      Financials financials = nurse.getFinancials();
+      int nightPercent = Nurse.nightDifferentialPercent(nurse.getSpecialization());
+      double loans = financials.getStudentLoansCents();
+      long savings = financials.getSavingsCents();
+      int debtFreeMonth = -1;
+      for (int year = 0; year < YEARS; year++) {
+        long before = financials.getSavingsCents();
+        for (int week = 0; week < 52; week++) {
+          for (int shift = 0; shift < 3; shift++) {
+            if (shift < nightShiftsPerWeek) {
+              financials.receiveNightShiftPay(nightPercent);
+            } else {
+              financials.receiveSalary();
+            }
+          }
+        }
+        long pay = financials.getSavingsCents() - before;
+        assertEquals(pay, timeline.getPayCents(year), "pay, trial " + trial + " year " + year);
+
+        long spare = pay / 12 - FinancialProjection.DEFAULT_MONTHLY_EXPENSES - minimumPayment;
+        long payment = minimumPayment + Math.max(0, Math.round(spare * share));
+        double loanPaid = 0;
+        for (int month = 1; month <= 12 && loans > 0; month++) {
+          loans *= 1 + rate / 12;
+          double paid = Math.min(loans, payment);
+          loans -= paid;
+          loanPaid += paid;
+          if (loans < 0.5) {
+            loans = 0;
+            debtFreeMonth = year * 12 + month;
+          }
+        }
+        savings += pay - 12 * FinancialProjection.DEFAULT_MONTHLY_EXPENSES - Math.round(loanPaid);
+
+        // The closed form rounds the balance to the cent once a year
+        assertEquals(loans, timeline.getStudentLoansCents(year), 1 + year, "loans, trial " + trial + " year " + year);
+        assertEquals(savings, timeline.getSavingsCents(year), 2 + 2 * year,
+            "savings, trial " + trial + " year " + year);
+        financials.increaseSalary(FinancialProjection.DEFAULT_ANNUAL_RAISE / 100.0);
+      }
+      assertEquals(debtFreeMonth, timeline.getDebtFreeMonth(), "trial " + trial);
+    }
+  }
+
+  @Test
+  void rejectsProjectionsWithoutAYear() {
+    FinancialProjection projection = new FinancialProjection(
+        SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ER, true, false));
+    assertThrows(IllegalArgumentException.class, () -> projection.project(0));
+    assertEquals(1, projection.project(1).getYears());
+  }
+}
@@ -0,0 +1,155 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class FinancialsTest {
+  private static final int OPERATIONS = 20_000;
+
+  // The ledger as it was kept before cents: every amount a double, and
+  // every rate worked out from the salary on each use
+  private static final class DoubleLedger {
+    double salary;
+    double savings = 1000.0;
+    double studentLoans = 30000.0;
+    double balance;
+    boolean isNightShift;
+
+    DoubleLedger(double salary) {
+      this.salary = salary;
+    }
+
+    double shiftPay() {
+      double basePay = salary / 365.0;
+      return isNightShift ? basePay * 1.2 : basePay;
+    }
+
+    boolean makePayment(double amount) {
+      if (savings >= amount) {
+        savings -= amount;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  @Test
+  void centsLedgerTracksTheDoubleOne() {
+    for (long seed = 0; seed < 10; seed++) {
+      SplittableRandom random = new SplittableRandom(seed);
+      double startingSalary = 60_000 + random.nextInt(40_000);
+      Financials financials = new Financials(startingSalary);
+      DoubleLedger reference = new DoubleLedger(startingSalary);
+      double multiplier = seed % 2 == 0 ? 0.8 : 1.2;
+      financials.adjustBaseSalary(multiplier);
+      reference.salary *= multiplier;
+
+      for (int i = 0; i < OPERATIONS; i++) {
+        switch (random.nextInt(9)) {
+          case 0:
+            financials.processShiftPay();
+            reference.balance += reference.shiftPay();
+            break;
+          case 1:
+            financials.adjustSalaryForPartialShift();
+            reference.balance += reference.shiftPay() / 2;
+            break;
+          case 2:
+            financials.receiveSalary();
+            reference.savings += reference.salary / 52 / 3;
+            break;
+          case 3:
+            double differential = new double[] {1.1, 1.15, 1.2}[random.nextInt(3)];
+            financials.receiveNightShiftPay(differential);
+            reference.savings += reference.salary / 52 / 3 * differential;
+            break;
+          case 4:
+            // Payments stay clear of the balance, where a rounding
+            // difference would decide whether one is made at all
+            double loanPayment = random.nextInt(50_000) / 100.0;
+            if (reference.savings > loanPayment + 1) {
+              financials.payStudentLoans(loanPayment);
+              if (reference.makePayment(loanPayment)) {
+                reference.studentLoans = Math.max(0, reference.studentLoans - loanPayment);
+              }
+            }
+            break;
+          case 5:
+            double payment = random.nextInt(10_000) / 100.0;
+            if (reference.savings > payment + 1) {
+              financials.makePayment(payment);
+              reference.makePayment(payment);
+            }
+            break;
+          case 6:
+            double raise = random.nextInt(100_000) / 100.0;
+            financials.increaseSalary(raise);
+            reference.salary += raise;
+            break;
+          case 7:
+            boolean night = random.nextBoolean();
+            financials.setNightShiftDifferential(night);
+            reference.isNightShift = night;
+            break;
+          default:
+            if (random.nextInt(10) == 0) {
+              financials.applyOvertimePay();
+              reference.salary += reference.shiftPay() / 2;
+            }
+            break;
+        }
+      }
+
+      // Each operation rounds to the cent at most a couple of times and the
+      // roundings mostly cancel: the drift stays under a tenth of a cent an
+      // operation, though raises take savings past $20 million
+      double tolerance = OPERATIONS * 0.001;
+      assertEquals(reference.salary, financials.getSalary(), tolerance, "salary, seed " + seed);
+      assertEquals(reference.savings, financials.getSavings(), tolerance, "savings, seed " + seed);
+      assertEquals(reference.studentLoans, financials.getStudentLoans(), tolerance, "loans, seed " + seed);
+      assertEquals(reference.balance, financials.getBalance(), tolerance, "balance, seed " + seed);
+    }
+  }
+
+  @Test
+  void paychecksAddUpExactly() {
+    Financials financials = new Financials(75_000);
+    long paycheck = Financials.shiftPaycheck(financials.getSalaryCents());
+    long nightPaycheck = Financials.nightPaycheck(paycheck, 115);
+    long start = financials.getSavingsCents();
+    for (int i = 0; i < 1_000_000; i++) {
+      financials.receiveSalary();
+      financials.receiveNightShiftPay(1.15);
+    }
+    assertEquals(start + 1_000_000 * (paycheck + nightPaycheck), financials.getSavingsCents());
+  }
+
+  // A zero differential pays nothing, also right after a salary change
+  // threw away the paycheck worked out for another one
+  @Test
+  void salaryChangesDropTheCachedNightPaycheck() {
+    Financials financials = new Financials(75_000);
+    financials.receiveNightShiftPay(115);
+    financials.increaseSalary(1_000);
+    long before = financials.getSavingsCents();
+    financials.receiveNightShiftPay(0);
+    assertEquals(before, financials.getSavingsCents());
+    financials.receiveNightShiftPay(115);
+    assertEquals(before + Financials.nightPaycheck(Financials.shiftPaycheck(financials.getSalaryCents()), 115),
+        financials.getSavingsCents());
+  }
+
+  @Test
+  void rejectsDifferentialsFinerThanAPercent() {
+    Financials financials = new Financials(75_000);
+    assertThrows(IllegalArgumentException.class, () -> financials.receiveNightShiftPay(1.125));
+    assertThrows(IllegalArgumentException.class, () -> financials.receiveNightShiftPay(-0.5));
+    long before = financials.getSavingsCents();
+    financials.receiveNightShiftPay(1.1);
+    assertEquals(before + Financials.nightPaycheck(Financials.shiftPaycheck(financials.getSalaryCents()), 110),
+        financials.getSavingsCents());
+  }
+}
@@ -0,0 +1,95 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameEventsTest {
+  private static final String[] EVENTS = {
+      "com.nursinggame.Shift", "com.nursinggame.Scenario", "com.nursinggame.Break",
+      "com.nursinggame.EarlyDeparture"};
+
+  @TempDir
+  Path directory;
+
+  // In the order they started; a recording file need not keep it
+  private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+    List<RecordedEvent> result = new ArrayList<>();
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(name)) {
+        result.add(event);
+      }
+    }
+    result.sort(Comparator.comparing(RecordedEvent::getStartTime));
+    return result;
+  }
+
+  @Test
+  void aRecordedCareerHasAnEventPerShiftScenarioAndBreak() throws IOException {
+    Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ER, false, false);
+    SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), false,
+        GameLoop.ShiftType.DAY_FIRST, new RandomChoicePolicy(new SplittableRandom(9), 0.2, 0.5),
+        new SplittableRandom(9));
+    Path file = directory.resolve("career.jfr");
+    int shifts;
+    try (Recording recording = new Recording()) {
+      for (String event : EVENTS) {
+        recording.enable(event).withoutThreshold();
+      }
+      recording.start();
+      shifts = engine.runCareer(60);
+      recording.stop();
+      recording.dump(file);
+    }
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+    // A break does not move the shift number on, so the shift after one
+    // repeats it
+    List<RecordedEvent> shiftEvents = named(events, "com.nursinggame.Shift");
+    List<RecordedEvent> breakEvents = named(events, "com.nursinggame.Break");
+    assertFalse(breakEvents.isEmpty());
+    assertEquals(shifts + breakEvents.size(), shiftEvents.size());
+    int previous = 0;
+    int leftEarly = 0;
+    for (RecordedEvent event : shiftEvents) {
+      int shift = event.getInt("shift");
+      assertTrue(shift == previous || shift == previous + 1, shift + " after " + previous);
+      previous = shift;
+      assertEquals("Emergency", event.getString("specialization"));
+      assertFalse(event.getBoolean("newGrad"));
+      if (event.getBoolean("leftEarly")) {
+        leftEarly++;
+      }
+    }
+    assertEquals(shifts, previous);
+    assertTrue(leftEarly > 0);
+    assertEquals(leftEarly, named(events, "com.nursinggame.EarlyDeparture").size());
+    for (RecordedEvent event : breakEvents) {
+      assertTrue(Set.of("Break", "Overtime", "Overtime refused").contains(event.getString("resolution")));
+    }
+
+    List<RecordedEvent> scenarioEvents = named(events, "com.nursinggame.Scenario");
+    assertTrue(scenarioEvents.size() >= 2 * shifts);
+    for (RecordedEvent event : scenarioEvents) {
+      Scenario scenario = ScenarioCatalog.shared().getScenario(event.getInt("scenarioId"));
+      assertNotNull(scenario);
+      assertEquals(scenario.getTitle(), event.getString("title"));
+      int option = event.getInt("option");
+      assertTrue(option >= 1 && option <= scenario.getOptionCount(), "option " + option);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class GameMetricsTest {
+  // Scrapers expect a decimal point whatever the server's locale
+  @Test
+  void ratesUseADecimalPointInEveryLocale() {
+    ScenarioCatalog catalog = ScenarioCatalog.shared();
+    Scenario scenario = catalog.getScenario(1);
+    GameMetrics metrics = new GameMetrics(catalog);
+    metrics.recordScenario(scenario, 0, true);
+    metrics.recordScenario(scenario, 0, false);
+    metrics.recordScenario(scenario, 0, false);
+
+    Locale locale = Locale.getDefault();
+    try {
+      Locale.setDefault(Locale.GERMANY);
+      String text = metrics.toString();
+      assertTrue(text.contains("nursinggame_scenario_mistake_rate{scenario=\"1\"} 0.3333\n"), text);
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+}
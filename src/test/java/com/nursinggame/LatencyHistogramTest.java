@@ -0,0 +1,53 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+  @Test
+  void bucketsTileEveryValueWithoutGaps() {
+    assertEquals(0, LatencyHistogram.lowestValue(0));
+    for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+      long lowest = LatencyHistogram.lowestValue(i);
+      long highest = LatencyHistogram.highestValue(i);
+      assertTrue(lowest <= highest, "bucket " + i);
+      assertEquals(i, LatencyHistogram.bucket(lowest), "lowest of bucket " + i);
+      assertEquals(i, LatencyHistogram.bucket(highest), "highest of bucket " + i);
+      if (i > 0) {
+        assertEquals(LatencyHistogram.highestValue(i - 1) + 1, lowest, "bucket " + i);
+      }
+    }
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.BUCKETS - 1));
+    // Negative readings from a clock stepping back count as zero
+    assertEquals(0, LatencyHistogram.bucket(-5));
+  }
+
+  @Test
+  void bucketsAreWithinAnEighthOfTheirValues() {
+    SplittableRandom random = new SplittableRandom(3);
+    for (int i = 0; i < 100_000; i++) {
+      long nanos = random.nextLong(Long.MAX_VALUE >>> random.nextInt(63));
+      int bucket = LatencyHistogram.bucket(nanos);
+      assertTrue(LatencyHistogram.lowestValue(bucket) <= nanos && nanos <= LatencyHistogram.highestValue(bucket));
+      assertTrue(LatencyHistogram.highestValue(bucket) - nanos <= nanos / 8, nanos + " in bucket " + bucket);
+    }
+  }
+
+  @Test
+  void snapshotsReportBucketBounds() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long nanos = 1; nanos <= 1_000; nanos++) {
+      histogram.record(nanos * 1_000);
+    }
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(1_000, snapshot.getCount());
+    assertEquals(500_500_000, snapshot.getMean() * snapshot.getCount(), 500_500_000 * 0.0625);
+    long median = snapshot.getPercentile(0.5);
+    assertEquals(LatencyHistogram.highestValue(LatencyHistogram.bucket(500_000)), median);
+    assertEquals(LatencyHistogram.highestValue(LatencyHistogram.bucket(1_000_000)), snapshot.getMax());
+    assertEquals(0, new LatencyHistogram().snapshot().getPercentile(0.99));
+  }
+}
@@ -0,0 +1,98 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SaveGameCodecTest {
+  private static final String[] NAMES = {"Ann", "Zoë Ødegård-Łukasz Name", "日本語の名前です長い名前", "", "x😀y"};
+
+  private static SimulationEngine career(int i) {
+    boolean night = i % 2 == 0;
+    boolean newGrad = i % 3 == 0;
+    Nurse nurse = SimulationEngine.createNurse(NAMES[i % NAMES.length], Nurse.Specialization.values()[i % 3],
+        newGrad, night);
+    SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), newGrad,
+        night ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST,
+        new RandomChoicePolicy(new SplittableRandom(i), 0.1, 0.5), new SplittableRandom(i));
+    engine.runCareer(i % 50);
+    if (i % 7 == 0) {
+      // Leaves the career part way through a shift
+      engine.runShift();
+    }
+    return engine;
+  }
+
+  @Test
+  void roundTripsEveryField() {
+    ByteBuffer buffer = ByteBuffer.allocate(SaveGameCodec.RECORD_BYTES * 200);
+    SimulationEngine[] engines = new SimulationEngine[200];
+    for (int i = 0; i < engines.length; i++) {
+      engines[i] = career(i);
+      SaveGameCodec.encode(engines[i], buffer);
+    }
+    buffer.flip();
+
+    for (SimulationEngine original : engines) {
+      SimulationEngine decoded = SaveGameCodec.decode(buffer, ScenarioCatalog.shared(), null, new SplittableRandom(1));
+      Nurse nurse = original.getNurse();
+      Nurse restored = decoded.getNurse();
+      assertEquals(nurse.getSpecialization(), restored.getSpecialization());
+      assertEquals(nurse.getStats().getPacked(), restored.getStats().getPacked());
+      assertEquals(nurse.getFinancials().getSalaryCents(), restored.getFinancials().getSalaryCents());
+      assertEquals(nurse.getFinancials().getSavingsCents(), restored.getFinancials().getSavingsCents());
+      assertEquals(nurse.getFinancials().getExpensesCents(), restored.getFinancials().getExpensesCents());
+      assertEquals(nurse.getFinancials().getStudentLoansCents(), restored.getFinancials().getStudentLoansCents());
+      assertEquals(nurse.getFinancials().getBalanceCents(), restored.getFinancials().getBalanceCents());
+      assertEquals(nurse.getFinancials().hasNightShiftDifferential(),
+          restored.getFinancials().hasNightShiftDifferential());
+      assertEquals(original.isNewGrad(), decoded.isNewGrad());
+      assertEquals(original.getShift(), decoded.getShift());
+      assertEquals(original.getCurrentShift(), decoded.getCurrentShift());
+      assertEquals(original.getConsecutiveShifts(), decoded.getConsecutiveShifts());
+      assertEquals(original.isShiftInProgress(), decoded.isShiftInProgress());
+      // Names are cut at a character boundary to fit 20 bytes, and each half
+      // of a surrogate pair is saved as '?'
+      byte[] name = restored.getName().getBytes(StandardCharsets.UTF_8);
+      assertTrue(name.length <= 20);
+      assertTrue(nurse.getName().replace("😀", "??").startsWith(restored.getName()));
+    }
+    assertEquals(buffer.limit(), buffer.position());
+  }
+
+  @Test
+  void rejectsATruncatedRecord() {
+    ByteBuffer buffer = ByteBuffer.allocate(SaveGameCodec.RECORD_BYTES);
+    SaveGameCodec.encode(career(3), buffer, 0);
+    ByteBuffer truncated = buffer.duplicate().limit(SaveGameCodec.RECORD_BYTES - 1);
+    assertThrows(IllegalArgumentException.class, () -> SaveGameCodec.decodeNurse(truncated, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> SaveGameCodec.decode(buffer, SaveGameCodec.RECORD_BYTES, ScenarioCatalog.shared(), null,
+            new SplittableRandom(1)));
+  }
+
+  @Test
+  void rejectsCorruptFields() {
+    // Version, specialization, current shift, consecutive shifts, name
+    // length, an unused and a used stat lane (the record is big-endian),
+    // and the shift number
+    int[][] corruptions = {{0, 9}, {1, 7}, {3, 4}, {4, 9}, {5, 21}, {5, -1}, {9, 1}, {15, 101}, {16, 0}};
+    for (int[] corruption : corruptions) {
+      ByteBuffer buffer = ByteBuffer.allocate(SaveGameCodec.RECORD_BYTES);
+      SaveGameCodec.encode(career(4), buffer, 0);
+      if (corruption[0] == 16) {
+        buffer.putInt(16, corruption[1]);
+      } else {
+        buffer.put(corruption[0], (byte) corruption[1]);
+      }
+      assertThrows(IllegalArgumentException.class,
+          () -> SaveGameCodec.decode(buffer, 0, ScenarioCatalog.shared(), null, new SplittableRandom(1)),
+          "byte " + corruption[0] + " = " + corruption[1]);
+    }
+  }
+}
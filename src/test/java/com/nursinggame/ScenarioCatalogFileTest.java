@@ -0,0 +1,74 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScenarioCatalogFileTest {
+  @TempDir
+  Path directory;
+
+  private static String scenario(int difficulty, int options) {
+    StringBuilder text = new StringBuilder("scenario 1\nlevel NEW_GRAD\nshift DAY\n")
+        .append("difficulty ").append(difficulty).append('\n')
+        .append("title Title\ndescription Description\n");
+    for (int i = 0; i < options; i++) {
+      text.append("option Option ").append(i).append('\n')
+          .append("outcome 1 -1 2 -2 0.5 Outcome ").append(i).append('\n');
+    }
+    return text.append("end\n").toString();
+  }
+
+  private static List<ScenarioCatalogFile.Definition> parse(String text) {
+    return ScenarioCatalogFile.parse(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void rejectsValuesTheSnapshotCannotHold() {
+    parse(scenario(ScenarioCatalogFile.MAX_DIFFICULTY, ScenarioCatalogFile.MAX_OPTIONS));
+    assertThrows(IllegalArgumentException.class, () -> parse(scenario(ScenarioCatalogFile.MAX_DIFFICULTY + 1, 2)));
+    assertThrows(IllegalArgumentException.class, () -> parse(scenario(-1, 2)));
+    assertThrows(IllegalArgumentException.class, () -> parse(scenario(1, ScenarioCatalogFile.MAX_OPTIONS + 1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> parse(scenario(1, 1).replace("title Title", "title " + "x".repeat(ScenarioCatalogFile.MAX_TEXT_BYTES + 1))));
+  }
+
+  @Test
+  void snapshotLoadsLikeTheText() {
+    List<ScenarioCatalogFile.Definition> parsed = parse(scenario(ScenarioCatalogFile.MAX_DIFFICULTY, 3));
+    Path cache = directory.resolve("scenarios.bin");
+    ScenarioCatalogFile.writeCache(cache, 42, parsed);
+
+    List<ScenarioCatalogFile.Definition> cached = ScenarioCatalogFile.readCache(cache, 42);
+    assertNotNull(cached);
+    ScenarioCatalogFile.Definition expected = parsed.get(0);
+    ScenarioCatalogFile.Definition actual = cached.get(0);
+    assertEquals(expected.difficulty, actual.difficulty);
+    assertEquals(expected.options.size(), actual.options.size());
+    assertEquals(expected.options.get(2).outcome, actual.options.get(2).outcome);
+    assertEquals(expected.options.get(2).stressChange, actual.options.get(2).stressChange);
+    assertNull(ScenarioCatalogFile.readCache(cache, 43));
+  }
+
+  @Test
+  void ignoresASnapshotOthersCanWrite() throws Exception {
+    Path cache = directory.resolve("scenarios.bin");
+    ScenarioCatalogFile.writeCache(cache, 42, parse(scenario(1, 2)));
+    assumeTrue(Files.getFileStore(cache).supportsFileAttributeView("posix"));
+
+    Files.setPosixFilePermissions(cache, PosixFilePermissions.fromString("rw-rw-r--"));
+    assertNull(ScenarioCatalogFile.readCache(cache, 42));
+    Files.setPosixFilePermissions(cache, PosixFilePermissions.fromString("rw-------"));
+    assertNotNull(ScenarioCatalogFile.readCache(cache, 42));
+  }
+}
@@ -0,0 +1,99 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SessionJournalTest {
+  @TempDir
+  Path directory;
+
+  private static SimulationEngine engine(long seed) {
+    Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ER, false, false);
+    return new SimulationEngine(nurse, ScenarioCatalog.shared(), false, GameLoop.ShiftType.DAY_FIRST,
+        new GreedyChoicePolicy(), GameRandom.create(seed));
+  }
+
+  private static SessionJournal create(Path path, long seed) throws IOException {
+    return SessionJournal.create(path, engine(seed), seed, GameRandom.configuredAlgorithm(), false);
+  }
+
+  @Test
+  void aJournalIsOpenInOneSessionAtATime() throws IOException {
+    Path path = directory.resolve("nurse.journal");
+    SessionJournal journal = create(path, 1);
+    assertThrows(IOException.class, () -> SessionJournal.open(path));
+    // Starting over under the same name must not wipe the open career
+    assertThrows(IOException.class, () -> create(path, 2));
+    assertThrows(IOException.class,
+        () -> SessionJournal.open(directory.resolve("../" + directory.getFileName() + "/nurse.journal")));
+    journal.close();
+  }
+
+  @Test
+  void closingFreesTheJournal() throws IOException {
+    Path path = directory.resolve("nurse.journal");
+    create(path, 1).close();
+    SessionJournal reopened = SessionJournal.open(path);
+    assertEquals(1, reopened.getSeed());
+    reopened.close();
+    assertTrue(SessionJournal.deleteIfClosed(path));
+  }
+
+  @Test
+  void refusesJournalsPastTheSizeLimit() throws IOException {
+    Path path = directory.resolve("huge.journal");
+    create(path, 1).close();
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.setLength((long) Integer.MAX_VALUE + 1);
+    }
+    assertThrows(IOException.class, () -> SessionJournal.open(path));
+    // The failed open released its claim
+    assertTrue(SessionJournal.deleteIfClosed(path));
+  }
+
+  @Test
+  void careerCodesAreTheOnlyWayIn() {
+    JournalStore store = JournalStore.byCode(directory, TimeUnit.DAYS.toMillis(1));
+    String code = store.newCode();
+    assertEquals(JournalStore.CODE_LENGTH, code.length());
+    assertNotEquals(code, store.newCode());
+    assertEquals(store.pathForCode(code), store.pathForCode(code.toLowerCase()));
+    assertNotNull(store.pathForCode(code));
+    assertNull(store.pathForCode("Student 1"));
+    assertNull(store.pathForCode("../" + code.substring(3)));
+  }
+
+  @Test
+  void pruningDeletesOnlyStaleClosedJournals() throws IOException {
+    JournalStore store = JournalStore.byCode(directory, TimeUnit.DAYS.toMillis(1));
+    Path stale = store.pathForCode(store.newCode());
+    Path staleButOpen = store.pathForCode(store.newCode());
+    Path fresh = store.pathForCode(store.newCode());
+    create(stale, 1).close();
+    SessionJournal open = create(staleButOpen, 2);
+    create(fresh, 3).close();
+    FileTime old = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+    Files.setLastModifiedTime(stale, old);
+    Files.setLastModifiedTime(staleButOpen, old);
+
+    store.prune();
+    assertFalse(Files.exists(stale));
+    assertTrue(Files.exists(staleButOpen));
+    assertTrue(Files.exists(fresh));
+    open.close();
+  }
+}
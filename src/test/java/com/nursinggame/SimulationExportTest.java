@@ -0,0 +1,122 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SimulationExportTest {
+  // Where the first block's row count and dictionary size are
+  private static final int FIRST_BLOCK_ROWS = 24 + 4;
+  private static final int FIRST_BLOCK_DICTIONARY = FIRST_BLOCK_ROWS + 4 + 8;
+
+  @TempDir
+  Path directory;
+
+  // Career, shift, shift type, scenario, choice, stats, savings, loans,
+  // salary of each decision, as the engine had them
+  private static List<long[]> export(Path path, int careers) throws IOException {
+    List<long[]> rows = new ArrayList<>();
+    try (SimulationExport export = SimulationExport.create(path, ScenarioCatalog.shared())) {
+      SimulationExport.Block block = export.block();
+      for (int career = 0; career < careers; career++) {
+        boolean night = career % 2 == 0;
+        Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.values()[career % 3],
+            career % 4 < 2, night);
+        SplittableRandom random = new SplittableRandom(career);
+        SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), career % 4 < 2,
+            night ? GameLoop.ShiftType.NIGHT_FIRST : GameLoop.ShiftType.DAY_FIRST,
+            new RandomChoicePolicy(random.split()), random.split());
+        block.startCareer(career, engine);
+        long id = career;
+        engine.setRecorder((type, shift, scenarioId, choice, mistakeMade, mistakeRoll) -> {
+          block.append(type, shift, scenarioId, choice, mistakeMade, mistakeRoll);
+          if (type == SessionJournal.DECISION) {
+            Financials financials = nurse.getFinancials();
+            rows.add(new long[] {id, shift, engine.getCurrentShift().ordinal(), scenarioId, choice,
+                nurse.getStats().getPacked(), financials.getSavingsCents(), financials.getStudentLoansCents(),
+                financials.getSalaryCents()});
+          }
+        });
+        engine.runCareer(100);
+      }
+    }
+    return rows;
+  }
+
+  @Test
+  void readsBackEveryRow() throws IOException {
+    Path path = directory.resolve("run.ngx");
+    // Enough careers for several blocks
+    List<long[]> expected = export(path, 300);
+    assertTrue(expected.size() > 2 * SimulationExport.BLOCK_ROWS);
+
+    List<long[]> actual = new ArrayList<>();
+    long rows = SimulationExport.read(path, block -> {
+      for (int row = 0; row < block.getRows(); row++) {
+        actual.add(new long[] {block.careers[row], block.shifts[row], block.shiftTypes[row], block.scenarios[row],
+            block.choices[row], block.stats[row], block.savingsCents[row], block.loansCents[row],
+            block.salaryCents[row]});
+      }
+    });
+    assertEquals(expected.size(), rows);
+    assertEquals(expected.size(), actual.size());
+    for (int row = 0; row < expected.size(); row++) {
+      for (int column = 0; column < expected.get(row).length; column++) {
+        assertEquals(expected.get(row)[column], actual.get(row)[column], "row " + row + " column " + column);
+      }
+    }
+  }
+
+  // Catalogs built in code can have more options than fit in a byte
+  @Test
+  void readsBackChoicesPastAByte() throws IOException {
+    Path path = directory.resolve("wide.ngx");
+    int[] choices = {0, 127, 128, 255, 256, 300, 70_000};
+    try (SimulationExport export = SimulationExport.create(path, ScenarioCatalog.shared())) {
+      SimulationExport.Block block = export.block();
+      Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ICU, false, false);
+      block.startCareer(0, new SimulationEngine(nurse, ScenarioCatalog.shared(), false,
+          GameLoop.ShiftType.DAY_FIRST, new GreedyChoicePolicy(), new SplittableRandom(1)));
+      for (int choice : choices) {
+        block.append(SessionJournal.DECISION, 1, 0, choice, false, -1);
+      }
+    }
+    List<Integer> actual = new ArrayList<>();
+    SimulationExport.read(path, block -> {
+      for (int row = 0; row < block.getRows(); row++) {
+        actual.add(block.choices[row]);
+      }
+    });
+    assertEquals(choices.length, actual.size());
+    for (int row = 0; row < choices.length; row++) {
+      assertEquals(choices[row], actual.get(row));
+    }
+  }
+
+  @Test
+  void rejectsBlocksWithImpossibleSizes() throws IOException {
+    long[][] corruptions = {
+        {FIRST_BLOCK_ROWS, SimulationExport.BLOCK_ROWS + 1}, {FIRST_BLOCK_ROWS, -1},
+        {FIRST_BLOCK_DICTIONARY, -1}, {FIRST_BLOCK_DICTIONARY, Integer.MAX_VALUE}};
+    for (long[] corruption : corruptions) {
+      Path path = directory.resolve("damaged.ngx");
+      export(path, 3);
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        channel.write(ByteBuffer.allocate(4).putInt(0, (int) corruption[1]), corruption[0]);
+      }
+      assertThrows(IOException.class, () -> SimulationExport.read(path, block -> { }),
+          "offset " + corruption[0] + " = " + corruption[1]);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class StatsTableTest {
+  private static final int[] VALUES = {0, 1, 50, 99, 100};
+
+  private static int plain(int value, int change) {
+    int increase = Math.max(0, change);
+    int decrease = Math.max(0, -change);
+    return Math.max(StatsTable.MIN_STAT, Math.min(StatsTable.MAX_STAT, value + increase - decrease));
+  }
+
+  private static long pack(int[] values) {
+    return StatsTable.pack(values[0], values[1], values[2], values[3], values[4], values[5]);
+  }
+
+  // Every lane value against every change from well past -100 to well past
+  // 100. Neighbouring lanes move the opposite way, so each call carries
+  // increases and decreases at once, and a lane clamping at 0 or 100 sits
+  // next to one that does not.
+  @Test
+  void addClampedMatchesPlainArithmetic() {
+    int[] values = new int[StatsTable.STAT_COUNT];
+    int[] changes = new int[StatsTable.STAT_COUNT];
+    for (int value = StatsTable.MIN_STAT; value <= StatsTable.MAX_STAT; value++) {
+      for (int change = -250; change <= 250; change++) {
+        for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+          values[stat] = (value + 17 * stat) % (StatsTable.MAX_STAT + 1);
+          changes[stat] = stat % 2 == 0 ? change : -change;
+        }
+        long row = StatsTable.addClamped(pack(values), StatsTable.packChanges(changes, 1),
+            StatsTable.packChanges(changes, -1));
+        for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+          assertEquals(plain(values[stat], changes[stat]), StatsTable.lane(row, stat),
+              "stat " + stat + ": " + values[stat] + " + " + changes[stat]);
+        }
+        assertEquals(0, row & ~StatsTable.LANES, "bits above the six lanes");
+      }
+    }
+  }
+
+  @Test
+  void addClampedWithNoChangesKeepsTheRow() {
+    long row = StatsTable.pack(0, 100, 37, 100, 0, 64);
+    assertEquals(row, StatsTable.addClamped(row, 0, 0));
+  }
+
+  @Test
+  void packChangesSplitsSignsAndCapsMagnitudes() {
+    int[] changes = {150, -150, 100, -100, 0, 7};
+    assertEquals(StatsTable.pack(100, 0, 100, 0, 0, 7), StatsTable.packChanges(changes, 1));
+    assertEquals(StatsTable.pack(0, 100, 0, 100, 0, 0), StatsTable.packChanges(changes, -1));
+  }
+
+  @Test
+  void packAndLaneRoundTrip() {
+    for (int value : VALUES) {
+      for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+        int[] values = {11, 22, 33, 44, 55, 66};
+        values[stat] = value;
+        long row = pack(values);
+        for (int other = 0; other < StatsTable.STAT_COUNT; other++) {
+          assertEquals(values[other], StatsTable.lane(row, other), "stat " + other);
+        }
+        assertEquals(0, row & ~StatsTable.LANES);
+      }
+    }
+  }
+
+  @Test
+  void withLaneClampsAndLeavesOtherLanesAlone() {
+    long row = StatsTable.pack(11, 22, 33, 44, 55, 66);
+    for (int stat = 0; stat < StatsTable.STAT_COUNT; stat++) {
+      for (int value : new int[] {-50, -1, 0, 42, 100, 101, 255, 1000}) {
+        long changed = StatsTable.withLane(row, stat, value);
+        assertEquals(Math.max(0, Math.min(100, value)), StatsTable.lane(changed, stat));
+        assertEquals(row, StatsTable.withLane(changed, stat, StatsTable.lane(row, stat)));
+      }
+    }
+  }
+
+  @Test
+  void tableRowsRoundTripThroughSetAndViews() {
+    StatsTable table = new StatsTable(3);
+    assertEquals(50, table.get(2, StatsTable.KNOWLEDGE));
+    assertEquals(70, table.get(2, StatsTable.ENERGY));
+    table.set(1, StatsTable.STRESS, 130);
+    assertEquals(100, table.get(1, StatsTable.STRESS));
+    assertEquals(100, table.view(1).getStress());
+    table.view(1).reduceStress(30);
+    assertEquals(70, table.get(1, StatsTable.STRESS));
+    assertEquals(0, table.get(0, StatsTable.STRESS));
+  }
+}
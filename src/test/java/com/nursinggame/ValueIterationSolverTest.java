@@ -0,0 +1,63 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ValueIterationSolverTest {
+  private static final int CAREERS = 1_000;
+  private static final int SHIFTS = 150;
+
+  // The specialization whose best choices differ most from greedy ones
+  private static ValueIterationSolver.Solution solution;
+
+  @BeforeAll
+  static void solve() {
+    solution = new ValueIterationSolver(ScenarioCatalog.shared()).solve(Nurse.Specialization.ICU, false, true);
+  }
+
+  private static int score(long stats) {
+    return StatsTable.lane(stats, StatsTable.KNOWLEDGE) + StatsTable.lane(stats, StatsTable.PATIENT_CARE)
+        + StatsTable.lane(stats, StatsTable.EFFICIENCY) - StatsTable.lane(stats, StatsTable.STRESS);
+  }
+
+  // Mean discounted score change over a career, as the solver counts it
+  private static double play(boolean planned) {
+    SplittableRandom random = new SplittableRandom(7);
+    double total = 0;
+    for (int career = 0; career < CAREERS; career++) {
+      Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ICU, false, false);
+      // Low enough that neither stat reaches its bound, where the model
+      // and the game disagree
+      nurse.getStats().setPacked(StatsTable.pack(30, 30, 40, 50, 50, 50));
+      ValueIterationPolicy policy = new ValueIterationPolicy(solution);
+      SimulationEngine engine = new SimulationEngine(nurse, ScenarioCatalog.shared(), false,
+          GameLoop.ShiftType.DAY_FIRST, planned ? policy : new GreedyChoicePolicy(), random.split());
+      engine.setWeightedSelection(true);
+      policy.attach(engine);
+      double discount = 1;
+      for (int shift = 0; shift < SHIFTS; shift++) {
+        long before = nurse.getStats().getPacked();
+        engine.runShift();
+        engine.finishShift();
+        total += discount * (score(nurse.getStats().getPacked()) - score(before));
+        discount *= ValueIterationSolver.DISCOUNT;
+      }
+    }
+    return total / CAREERS;
+  }
+
+  @Test
+  void convergesInAFewSweeps() {
+    assertTrue(solution.getSweeps() <= 25, solution.getSweeps() + " sweeps");
+  }
+
+  @Test
+  void outscoresGreedyChoices() {
+    double greedy = play(false);
+    double planned = play(true);
+    assertTrue(planned > greedy, "planned " + planned + ", greedy " + greedy);
+  }
+}
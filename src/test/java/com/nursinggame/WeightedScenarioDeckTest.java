@@ -0,0 +1,145 @@
+package com.nursinggame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class WeightedScenarioDeckTest {
+  // A catalog of day scenarios for experienced nurses of every
+  // specialization, with difficulties 1 to 3 so their weights differ
+  private static ScenarioCatalog catalog(int scenarios) {
+    List<ScenarioCatalogFile.Definition> definitions = new ArrayList<>();
+    for (int id = 0; id < scenarios; id++) {
+      ScenarioCatalogFile.Definition definition = new ScenarioCatalogFile.Definition();
+      definition.id = id;
+      definition.placement = ScenarioCatalogFile.DAY;
+      definition.difficulty = 1 + id % 3;
+      definition.specializationMask = 0b111;
+      definition.title = "Scenario " + id;
+      definition.description = "";
+      ScenarioCatalogFile.OptionDefinition option = new ScenarioCatalogFile.OptionDefinition();
+      option.text = "Option";
+      option.outcome = "Outcome";
+      definition.options.add(option);
+      definitions.add(definition);
+    }
+    return new ScenarioCatalog(definitions);
+  }
+
+  private static int indexOf(Scenario[] pool, Scenario scenario) {
+    for (int i = 0; i < pool.length; i++) {
+      if (pool[i] == scenario) {
+        return i;
+      }
+    }
+    throw new AssertionError(scenario.getTitle() + " is not in the pool");
+  }
+
+  @Test
+  void aliasTableSamplesInProportionToWeight() {
+    SplittableRandom random = new SplittableRandom(7);
+    double[] weights = new double[200];
+    double total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = i % 7 == 0 ? 0 : random.nextDouble() * (i % 3 + 1);
+      total += weights[i];
+    }
+    AliasTable table = new AliasTable(weights);
+    long[] counts = new long[weights.length];
+    int samples = 2_000_000;
+    for (int i = 0; i < samples; i++) {
+      counts[table.sample(random)]++;
+    }
+    for (int i = 0; i < weights.length; i++) {
+      double p = weights[i] / total;
+      double expected = p * samples;
+      if (weights[i] == 0) {
+        assertEquals(0, counts[i], "index " + i + " has no weight");
+      } else {
+        double z = (counts[i] - expected) / Math.sqrt(expected * (1 - p));
+        assertTrue(Math.abs(z) < 5, "index " + i + ": z " + z);
+      }
+    }
+  }
+
+  @Test
+  void aliasTableRejectsUnusableWeights() {
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, -1}));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, Double.NaN}));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {Double.POSITIVE_INFINITY}));
+  }
+
+  // Drawing one scenario a shift, a scenario drawn k shifts ago should
+  // keep k / RECENCY_SHIFTS of its weight. Covers the alias table with
+  // rejection (a large pool) and the linear draw (a small one).
+  @Test
+  void recentScenariosKeepTheirShareOfWeight() {
+    for (int scenarios : new int[] {30, WeightedScenarioDeck.LINEAR_POOL - 2}) {
+      ScenarioCatalog catalog = catalog(scenarios);
+      Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ER, false, false);
+      Scenario[] pool = catalog.getPool(false, false, Nurse.Specialization.ER);
+      assertEquals(scenarios, pool.length);
+      ScenarioWeights weights = catalog.getScenarioWeights();
+      int key = weights.key(nurse.getStats().getPacked());
+      WeightedScenarioDeck deck = new WeightedScenarioDeck(catalog, false, false, nurse);
+      SplittableRandom random = new SplittableRandom(11);
+
+      int recency = WeightedScenarioDeck.RECENCY_SHIFTS;
+      int[] lastDrawn = new int[pool.length];
+      Arrays.fill(lastDrawn, -recency);
+      // Expected and observed draws of a scenario last drawn 1, 2 or at
+      // least RECENCY_SHIFTS shifts ago
+      double[] expected = new double[recency + 1];
+      long[] observed = new long[recency + 1];
+      int shifts = 200_000;
+      for (int shift = 1; shift <= shifts; shift++) {
+        deck.reset();
+        double total = 0;
+        for (int i = 0; i < pool.length; i++) {
+          total += weights.weight(pool[i], key) * Math.min(shift - lastDrawn[i], recency) / recency;
+        }
+        for (int i = 0; i < pool.length; i++) {
+          int age = Math.min(shift - lastDrawn[i], recency);
+          expected[age] += weights.weight(pool[i], key) * age / recency / total;
+        }
+        int drawn = indexOf(pool, deck.draw(random));
+        observed[Math.min(shift - lastDrawn[drawn], recency)]++;
+        lastDrawn[drawn] = shift;
+      }
+      for (int age = 1; age <= recency; age++) {
+        double z = (observed[age] - expected[age]) / Math.sqrt(expected[age]);
+        assertTrue(Math.abs(z) < 5, scenarios + " scenarios, age " + age + ": expected " + expected[age]
+            + ", drew " + observed[age]);
+      }
+    }
+  }
+
+  @Test
+  void aShiftNeverRepeatsAScenario() {
+    for (int scenarios : new int[] {30, WeightedScenarioDeck.LINEAR_POOL - 2}) {
+      ScenarioCatalog catalog = catalog(scenarios);
+      Nurse nurse = SimulationEngine.createNurse("Test Nurse", Nurse.Specialization.ER, false, false);
+      WeightedScenarioDeck deck = new WeightedScenarioDeck(catalog, false, false, nurse);
+      SplittableRandom random = new SplittableRandom(5);
+      for (int shift = 0; shift < 100; shift++) {
+        deck.reset();
+        Set<Scenario> drawn = new HashSet<>();
+        for (int i = 0; i < scenarios; i++) {
+          assertTrue(drawn.add(deck.draw(random)));
+        }
+        assertNull(deck.draw(random));
+      }
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.nursinggame;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// StatsTable.addClamped over as many rows as the CPU's widest vector
+// holds. Only compiled by the "vector" Maven profile.
+final class VectorCohortKernel implements CohortKernel {
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+  private static final long KEEP_LOW_BITS = ~StatsTable.HIGH_BITS & StatsTable.LANES;
+
+  @Override
+  public void apply(long[] rows, long increases, long decreases) {
+    int i = 0;
+    int bound = SPECIES.loopBound(rows.length);
+    for (; i < bound; i += SPECIES.length()) {
+      addClamped(LongVector.fromArray(SPECIES, rows, i), increases, decreases).intoArray(rows, i);
+    }
+    for (; i < rows.length; i++) {
+      rows[i] = StatsTable.addClamped(rows[i], increases, decreases);
+    }
+  }
+
+  @Override
+  public void apply(long[] rows, int[] indices, int count, long increases, long decreases) {
+    int i = 0;
+    int bound = SPECIES.loopBound(count);
+    for (; i < bound; i += SPECIES.length()) {
+      LongVector gathered = LongVector.fromArray(SPECIES, rows, 0, indices, i);
+      addClamped(gathered, increases, decreases).intoArray(rows, 0, indices, i);
+    }
+    for (; i < count; i++) {
+      int nurse = indices[i];
+      rows[nurse] = StatsTable.addClamped(rows[nurse], increases, decreases);
+    }
+  }
+
+  private static LongVector addClamped(LongVector rows, long increases, long decreases) {
+    LongVector sum = rows.add(increases);
+    LongVector over = sum.add(StatsTable.OVER_MAX_BIAS).and(StatsTable.HIGH_BITS)
+        .lanewise(VectorOperators.LSHR, 7).mul(0xFF);
+    sum = sum.and(over.not()).or(over.and(StatsTable.MAX_LANES));
+
+    LongVector difference = sum.or(StatsTable.HIGH_BITS).sub(decreases);
+    LongVector kept = difference.and(StatsTable.HIGH_BITS).lanewise(VectorOperators.LSHR, 7).mul(0xFF);
+    return difference.and(KEEP_LOW_BITS).and(kept);
+  }
+}